@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.reddit;
+
+import com.ianbuttimer.tidderish.reddit.get.CommentTreeResponse;
+import com.ianbuttimer.tidderish.reddit.get.SubredditLinkResponse;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okio.Buffer;
+
+import static org.junit.Assert.*;
+
+public class ResponseParseTest {
+
+    private static final int LINKS = 100;
+    private static final int COMMENTS = 50;
+    private static final int REPLY_DEPTH = 3;
+
+    /* fixtures are generated to match the shape of reddit responses, including fields which
+        are not used by the app and so must be skipped */
+
+    private static String makeLink(int index) {
+        return "{\"kind\":\"t3\",\"data\":{" +
+                "\"approved_at_utc\":null,\"subreddit\":\"news\",\"selftext\":\"\"," +
+                "\"author_fullname\":\"t2_" + index + "\",\"saved\":false,\"gilded\":0," +
+                "\"clicked\":false,\"title\":\"Title &amp; " + index + "\"," +
+                "\"link_flair_richtext\":[],\"subreddit_name_prefixed\":\"r/news\"," +
+                "\"hidden\":false,\"pwls\":6,\"link_flair_css_class\":null,\"downs\":0," +
+                "\"thumbnail_height\":78,\"hide_score\":false,\"name\":\"t3_" + index + "\"," +
+                "\"quarantine\":false,\"link_flair_text_color\":\"dark\",\"upvote_ratio\":0.95," +
+                "\"subreddit_type\":\"public\",\"ups\":" + index + ",\"domain\":\"example.com\"," +
+                "\"media_embed\":{},\"thumbnail_width\":140,\"is_original_content\":false," +
+                "\"secure_media\":null,\"is_reddit_media_domain\":false,\"category\":null," +
+                "\"secure_media_embed\":{},\"score\":" + index + ",\"thumbnail\":\"https://example.com/" + index + ".jpg\"," +
+                "\"edited\":false,\"post_hint\":\"link\",\"is_self\":false,\"created\":1530000000.0," +
+                "\"likes\":null,\"over_18\":false,\"preview\":null,\"all_awardings\":[]," +
+                "\"subreddit_id\":\"t5_2qh3l\",\"id\":\"" + index + "\",\"author\":\"author" + index + "\"," +
+                "\"num_comments\":" + (index * 2) + ",\"send_replies\":true,\"whitelist_status\":\"all_ads\"," +
+                "\"permalink\":\"/r/news/comments/" + index + "/title/\",\"url\":\"https://example.com/" + index + "\"," +
+                "\"subreddit_subscribers\":18000000,\"created_utc\":1530000000.0,\"is_video\":false}}";
+    }
+
+    private static String makeListing(String children) {
+        return "{\"kind\":\"Listing\",\"data\":{\"modhash\":\"\",\"dist\":" + LINKS +
+                ",\"children\":[" + children + "],\"after\":\"t3_after\",\"before\":null}}";
+    }
+
+    private static String makeLinkListing() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINKS; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(makeLink(i));
+        }
+        return makeListing(sb.toString());
+    }
+
+    private static String makeComment(String id, String parentId, int depth) {
+        String replies;
+        if (depth < REPLY_DEPTH) {
+            replies = makeListing(makeComment(id + "r", "t1_" + id, depth + 1));
+        } else {
+            replies = "\"\"";
+        }
+        return "{\"kind\":\"t1\",\"data\":{" +
+                "\"total_awards_received\":0,\"ups\":10,\"link_id\":\"t3_0\",\"author\":\"author" + id + "\"," +
+                "\"saved\":false,\"id\":\"" + id + "\",\"gilded\":0,\"archived\":false," +
+                "\"no_follow\":false,\"replies\":" + replies + ",\"parent_id\":\"" + parentId + "\"," +
+                "\"score\":10,\"author_fullname\":\"t2_" + id + "\",\"subreddit_id\":\"t5_2qh3l\"," +
+                "\"body\":\"body " + id + "\",\"edited\":false,\"is_submitter\":false," +
+                "\"body_html\":\"&lt;div class=\\\"md\\\"&gt;&lt;p&gt;body " + id + "&lt;/p&gt;&lt;/div&gt;\"," +
+                "\"stickied\":false,\"score_hidden\":false,\"permalink\":\"/r/news/comments/0/title/" + id + "/\"," +
+                "\"name\":\"t1_" + id + "\",\"created\":1530000000.0,\"subreddit\":\"news\"," +
+                "\"created_utc\":1530000000.0,\"subreddit_name_prefixed\":\"r/news\",\"controversiality\":0," +
+                "\"depth\":" + depth + ",\"collapsed\":false}}";
+    }
+
+    private static String makeCommentTree() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < COMMENTS; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(makeComment("c" + i, "t3_0", 0));
+        }
+        return "[" + makeListing(makeLink(0)) + "," + makeListing(sb.toString()) + "]";
+    }
+
+    @Test
+    public void linkParseTest() {
+        SubredditLinkResponse response = new SubredditLinkResponse(makeLinkListing());
+
+        assertEquals("Incorrect count", LINKS, response.getCount());
+        Link link = response.getItem(42);
+        assertEquals("Incorrect name", "t3_42", link.getName());
+        assertEquals("Incorrect id", "42", link.getId());
+        assertEquals("Incorrect title", "Title & 42", link.getTitle());
+        assertEquals("Incorrect score", 42, link.getScore());
+        assertEquals("Incorrect comments", 84, link.getNumComments());
+        assertEquals("Incorrect subreddit", "news", link.getSubreddit());
+        assertEquals("Incorrect permalink", "/r/news/comments/42/title/", link.getPermalink());
+        assertNotNull("No created date", link.getCreated());
+        assertNull("Unexpected preview", link.getPreview());
+    }
+
+    @Test
+    public void projectionTest() {
+        SubredditLinkResponse response = new SubredditLinkResponse();
+        response.setProjection(Projection.WIDGET);
+        response.parseJson(makeLinkListing());
+
+        assertEquals("Incorrect count", LINKS, response.getCount());
+        Link link = response.getItem(42);
+        assertEquals("Incorrect projection", Projection.WIDGET, link.getProjection());
+        assertFalse("Widget link complete", link.isComplete());
+        assertEquals("Incorrect title", "Title & 42", link.getTitle());
+        assertEquals("Incorrect score", 42, link.getScore());
+        assertEquals("Incorrect comments", 84, link.getNumComments());
+        assertEquals("Incorrect subreddit", "r/news", link.getSubredditNamePrefixed());
+        assertEquals("Incorrect permalink", "/r/news/comments/42/title/", link.getPermalink());
+        assertTrue("Thumbnail not loadable", link.isLoadableThumbnail());
+        assertNull("Unexpected url", link.getUrl());
+        assertEquals("Unexpected author", "", link.getAuthor());
+    }
+
+    @Test
+    public void commentParseTest() {
+        CommentTreeResponse response = new CommentTreeResponse(makeCommentTree());
+
+        assertNotNull("No link", response.getLink());
+        assertEquals("Incorrect count", COMMENTS, response.getCount());
+        Comment comment = response.getItem(7);
+        assertEquals("Incorrect name", "t1_c7", comment.getName());
+        assertEquals("Incorrect author", "authorc7", comment.getAuthor());
+        assertEquals("Incorrect parent", "t3_0", comment.getParentId());
+        assertEquals("Incorrect replies", 1, comment.getReplies().length);
+        Comment reply = comment.getReplies()[0];
+        assertEquals("Incorrect reply name", "t1_c7r", reply.getName());
+        assertEquals("Incorrect reply depth", 1, reply.getDepth());
+    }
+
+    @Test
+    public void streamParseTest() throws IOException {
+        SubredditLinkResponse response = new SubredditLinkResponse();
+        response.parseJson(new Buffer().writeUtf8(makeLinkListing()));
+
+        assertEquals("Incorrect count", LINKS, response.getCount());
+        assertEquals("Incorrect name", "t3_42", response.getItem(42).getName());
+    }
+
+    @Test
+    public void truncatedStreamTest() {
+        String links = makeLinkListing();
+        SubredditLinkResponse response = new SubredditLinkResponse();
+        try {
+            // e.g. connection dropped part way through the body
+            response.parseJson(new Buffer().writeUtf8(links.substring(0, links.length() / 2)));
+            fail("Truncated body parsed");
+        } catch (IOException e) {
+            // expected, so the request fails rather than delivering a partial response
+        }
+    }
+}
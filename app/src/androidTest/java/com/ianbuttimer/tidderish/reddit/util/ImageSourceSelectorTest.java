@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.reddit.util;
+
+import android.net.Uri;
+
+import com.ianbuttimer.tidderish.reddit.ImageSource;
+import com.ianbuttimer.tidderish.reddit.Link;
+import com.ianbuttimer.tidderish.reddit.Preview;
+import com.ianbuttimer.tidderish.reddit.PreviewImages;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ImageSourceSelectorTest {
+
+    private static final int[] WIDTHS = new int[] { 108, 216, 320, 640, 960, 1080 };
+    private static final int SOURCE_WIDTH = 1920;
+    private static final int THUMBNAIL_WIDTH = 140;
+
+    private static ImageSource makeImage(int width) {
+        ImageSource image = new ImageSource();
+        image.setUrl(Uri.parse("https://example.com/" + width + ".jpg"));
+        image.setWidth(width);
+        image.setHeight(width * 9 / 16);
+        return image;
+    }
+
+    private static Link makeLink(boolean withPreview) {
+        Link link = new Link();
+        ImageSource thumbnail = makeImage(THUMBNAIL_WIDTH);
+        link.setThumbnail(thumbnail.getUrl());
+        link.setThumbnailWidth(thumbnail.getWidth());
+        link.setThumbnailHeight(thumbnail.getHeight());
+
+        if (withPreview) {
+            ImageSource[] resolutions = new ImageSource[WIDTHS.length];
+            for (int i = 0; i < WIDTHS.length; i++) {
+                resolutions[i] = makeImage(WIDTHS[i]);
+            }
+            PreviewImages images = new PreviewImages();
+            images.setSource(makeImage(SOURCE_WIDTH));
+            images.setResolutions(resolutions);
+
+            Preview preview = new Preview();
+            preview.setEnabled(true);
+            preview.setPreview(new PreviewImages[] { images });
+            link.setPreview(preview);
+        }
+        return link;
+    }
+
+    @Test
+    public void selectTest() {
+        Link link = makeLink(true);
+
+        // list thumbnail
+        ImageSource selected = ImageSourceSelector.select(link, 64, 64);
+        assertNotNull("No selection", selected);
+        assertEquals("Incorrect list selection", 108, selected.getWidth());
+
+        selected = ImageSourceSelector.select(link, 192, 192);
+        assertNotNull("No selection", selected);
+        assertEquals("Incorrect hi-res list selection", 216, selected.getWidth());
+
+        selected = ImageSourceSelector.select(link, 130, 130);
+        assertNotNull("No selection", selected);
+        assertEquals("Thumbnail not selected", THUMBNAIL_WIDTH, selected.getWidth());
+        assertEquals("Thumbnail not selected", link.getThumbnail(), selected.getUrl());
+
+        // detail, screen width
+        selected = ImageSourceSelector.select(link, 1080, 0);
+        assertNotNull("No selection", selected);
+        assertEquals("Incorrect detail selection", 1080, selected.getWidth());
+
+        // larger than all, so largest
+        selected = ImageSourceSelector.select(link, 2560, 0);
+        assertNotNull("No selection", selected);
+        assertEquals("Source not selected", SOURCE_WIDTH, selected.getWidth());
+
+    }
+
+    @Test
+    public void thumbnailOnlyTest() {
+        Link link = makeLink(false);
+
+        ImageSource selected = ImageSourceSelector.select(link, 1080, 0);
+        assertNotNull("No selection", selected);
+        assertEquals("Thumbnail not selected", link.getThumbnail(), selected.getUrl());
+
+        link.setThumbnail(Uri.parse("self"));
+        assertNull("Unexpected selection", ImageSourceSelector.select(link, 64, 64));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.utils;
+
+import com.ianbuttimer.tidderish.reddit.Comment;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+public class FieldCopierTest {
+
+    private static final int ITERATIONS = 2000;
+
+    private Comment makeComment(int index) {
+        Comment comment = new Comment();
+        comment.setName("t1_" + index);
+        comment.setId(Integer.toString(index));
+        comment.setCreated(new Date());
+        comment.setAuthor("author" + index);
+        comment.setBody("body" + index);
+        comment.setBodyHtml("<p>body" + index + "</p>");
+        comment.setParentId("t1_parent");
+        comment.setLinkId("t3_link");
+        comment.setScore(index);
+        comment.setDepth(index % 10);
+        comment.setStickied(true);
+        return comment;
+    }
+
+    private void assertCopied(Comment src, Comment dest) {
+        assertEquals("Incorrect name", src.getName(), dest.getName());
+        assertEquals("Incorrect author", src.getAuthor(), dest.getAuthor());
+        assertEquals("Incorrect body", src.getBody(), dest.getBody());
+        assertEquals("Incorrect body html", src.getBodyHtml(), dest.getBodyHtml());
+        assertEquals("Incorrect parent", src.getParentId(), dest.getParentId());
+        assertEquals("Incorrect link", src.getLinkId(), dest.getLinkId());
+        assertEquals("Incorrect score", src.getScore(), dest.getScore());
+        assertEquals("Incorrect depth", src.getDepth(), dest.getDepth());
+    }
+
+    @Test
+    public void copyTest() {
+        Comment src = makeComment(42);
+        Comment dest = new Comment();
+
+        assertTrue("Copy failed", dest.copy(src));
+        assertCopied(src, dest);
+
+        assertFalse("Copy of null", FieldCopier.copy(null, dest));
+    }
+
+    @Test
+    public void planReuseTest() {
+        Comment[] src = new Comment[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            src[i] = makeComment(i);
+        }
+        Comment dest = new Comment();
+
+        // first copy builds the plan
+        FieldCopier.copy(src[0], dest);
+
+        int hits = FieldCopier.getHitCount();
+        for (Comment comment : src) {
+            FieldCopier.copy(comment, dest);
+        }
+
+        assertCopied(src[ITERATIONS - 1], dest);
+        assertTrue("Plan not reused", FieldCopier.getHitCount() - hits >= ITERATIONS);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.ianbuttimer.tidderish.data.provider;
+
+import android.content.ContentValues;
+import android.net.Uri;
+
+import com.ianbuttimer.tidderish.data.db.FollowColumns;
+import com.ianbuttimer.tidderish.data.db.FollowFb;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class FbBatchTest {
+
+    private static final String FOLLOW = "follow";
+    private static final int FOLLOWS = 1000;
+    private static final Uri FOLLOW_URI = Uri.parse("content://test/follow");
+
+    /**
+     * In-process writer, recording the updates written
+     */
+    private static class FakeNodeWriter implements IFbNodeWriter {
+
+        private final HashMap<String, Object> mValues = new HashMap<>();
+        private final ArrayList<Integer> mUpdateSizes = new ArrayList<>();
+        private int mKey = 0;
+
+        @Override
+        public String newKey(String node) {
+            return "key" + (mKey++);
+        }
+
+        @Override
+        public void update(Map<String, Object> updates) {
+            mUpdateSizes.add(updates.size());
+            for (Map.Entry<String, Object> entry : updates.entrySet()) {
+                if (entry.getValue() == null) {
+                    mValues.remove(entry.getKey());
+                } else {
+                    mValues.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    private FakeNodeWriter mWriter;
+
+    private static ContentValues makeFollow(int index) {
+        ContentValues cv = new ContentValues();
+        cv.put(FollowColumns.SUBREDDIT, "sub" + index);
+        cv.put(FollowColumns.KEY_COLOUR, "#000000");
+        cv.put(FollowColumns.ICON_IMG, "");
+        return cv;
+    }
+
+    @Before
+    public void setUp() {
+        mWriter = new FakeNodeWriter();
+    }
+
+    @Test
+    public void bulkInsertTest() {
+        FbBatch batch = new FbBatch(mWriter);
+        String[] ids = new String[FOLLOWS];
+        for (int i = 0; i < FOLLOWS; i++) {
+            ids[i] = batch.insert(FOLLOW, FollowFb.generate(makeFollow(i)));
+            batch.addNotifyUris(FOLLOW_URI);
+        }
+        assertEquals("Written before commit", 0, mWriter.mUpdateSizes.size());
+        assertEquals("Incorrect pending count", FOLLOWS, batch.getCount());
+        assertEquals("Incorrect notify count", 1, batch.getNotifyUris().size());
+
+        assertEquals("Incorrect commit count", FOLLOWS, batch.commit());
+        assertEquals("Incorrect update count", 1, mWriter.mUpdateSizes.size());
+        assertEquals("Incorrect update size", FOLLOWS, mWriter.mUpdateSizes.get(0).intValue());
+
+        Object value = mWriter.mValues.get(FbBatch.path(FOLLOW, ids[42]));
+        assertTrue("Incorrect value type", value instanceof Map);
+        assertEquals("Incorrect subreddit", "sub42", ((Map<?, ?>) value).get(FollowColumns.SUBREDDIT));
+
+        assertEquals("Empty batch committed", 0, batch.commit());
+        assertEquals("Empty batch written", 1, mWriter.mUpdateSizes.size());
+    }
+
+    @Test
+    public void removeTest() {
+        FbBatch batch = new FbBatch(mWriter);
+        String id = batch.insert(FOLLOW, FollowFb.generate(makeFollow(0)));
+        batch.insert(FOLLOW, FollowFb.generate(makeFollow(1)));
+        batch.commit();
+
+        batch.remove(FOLLOW, id);
+        batch.commit();
+        assertEquals("Incorrect update count", 2, mWriter.mUpdateSizes.size());
+        assertFalse("Not removed", mWriter.mValues.containsKey(FbBatch.path(FOLLOW, id)));
+        assertEquals("Incorrect remaining count", 1, mWriter.mValues.size());
+    }
+}
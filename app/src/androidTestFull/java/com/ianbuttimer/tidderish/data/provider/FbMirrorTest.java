@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.ianbuttimer.tidderish.data.provider;
+
+import android.database.Cursor;
+
+import com.ianbuttimer.tidderish.data.db.ConfigColumns;
+import com.ianbuttimer.tidderish.data.db.ConfigFb;
+import com.ianbuttimer.tidderish.data.db.FollowColumns;
+import com.ianbuttimer.tidderish.data.db.FollowFb;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.ianbuttimer.tidderish.data.provider.BaseProvider.columnEqSelection;
+import static com.ianbuttimer.tidderish.data.provider.BaseProvider.columnInSelection;
+import static org.junit.Assert.*;
+
+public class FbMirrorTest {
+
+    private static final String FOLLOW = "follow";
+    private static final String CONFIG = "config";
+
+    /**
+     * In-process node source, values are delivered synchronously as they are set
+     */
+    private static class FakeNodeSource implements IFbNodeSource {
+
+        private final HashMap<String, NodeListener> mListeners = new HashMap<>();
+        private final HashMap<String, Object> mValues = new HashMap<>();
+
+        @Override
+        public void addNodeListener(String node, NodeListener listener) {
+            mListeners.put(node, listener);
+            if (mValues.containsKey(node)) {
+                listener.onNodeChange(node, mValues.get(node));
+            }
+        }
+
+        @Override
+        public void removeNodeListener(String node, NodeListener listener) {
+            mListeners.remove(node);
+        }
+
+        void set(String node, Object value) {
+            mValues.put(node, value);
+            NodeListener listener = mListeners.get(node);
+            if (listener != null) {
+                listener.onNodeChange(node, value);
+            }
+        }
+
+        void cancel(String node) {
+            NodeListener listener = mListeners.remove(node);
+            if (listener != null) {
+                listener.onNodeCancelled(node, "Permission denied");
+            }
+        }
+    }
+
+    private FakeNodeSource mSource;
+    private FbMirror mMirror;
+    private int mChanges;
+
+    private static Map<String, Object> makeFollows(int count) {
+        HashMap<String, Object> follows = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            follows.put("key" + i, new FollowFb("sub" + i, "#00000" + (i % 10), "").toMap());
+        }
+        return follows;
+    }
+
+    private static FbQuery makeQuery(String selection, String... selectionArgs) {
+        return new FbQuery(null, selection, selectionArgs);
+    }
+
+    @Before
+    public void setUp() {
+        mSource = new FakeNodeSource();
+        mMirror = new FbMirror(mSource, FOLLOW, CONFIG);
+        mChanges = 0;
+        mMirror.setListener(node -> ++mChanges);
+    }
+
+    @Test
+    public void syncTest() {
+        mMirror.start();
+        assertFalse("Synced without value", mMirror.isSynced(FOLLOW));
+        assertNull("Answered without value",
+                mMirror.queryList(FOLLOW, FollowFb.getFactory(), null, true));
+
+        mSource.set(FOLLOW, makeFollows(3));
+        assertTrue("Not synced", mMirror.isSynced(FOLLOW));
+        assertEquals("Initial sync notified", 0, mChanges);
+
+        Cursor cursor = mMirror.queryList(FOLLOW, FollowFb.getFactory(), null, false);
+        assertNotNull("No answer", cursor);
+        assertEquals("Incorrect count", 3, cursor.getCount());
+        cursor.close();
+
+        mSource.set(FOLLOW, makeFollows(5));
+        assertEquals("Change not notified", 1, mChanges);
+        cursor = mMirror.queryList(FOLLOW, FollowFb.getFactory(), null, false);
+        assertEquals("Incorrect count", 5, cursor.getCount());
+        cursor.close();
+
+        mSource.set(FOLLOW, null);
+        cursor = mMirror.queryList(FOLLOW, FollowFb.getFactory(), null, false);
+        assertEquals("Incorrect count", 0, cursor.getCount());
+        cursor.close();
+
+        mMirror.stop();
+        assertFalse("Synced after stop", mMirror.isSynced(FOLLOW));
+    }
+
+    @Test
+    public void orderTest() {
+        mMirror.start();
+        mSource.set(FOLLOW, makeFollows(15));  // hash map, so not in key order
+
+        ArrayList<String> keys = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            keys.add("key" + i);
+        }
+        Collections.sort(keys);
+
+        Cursor cursor = mMirror.queryList(FOLLOW, FollowFb.getFactory(), null, false);
+        assertNotNull("No answer", cursor);
+        int index = cursor.getColumnIndex(FollowColumns.SUBREDDIT);
+        for (String key : keys) {
+            assertTrue("Missing row", cursor.moveToNext());
+            assertEquals("Not in key order", key.replace("key", "sub"), cursor.getString(index));
+        }
+        cursor.close();
+    }
+
+    @Test
+    public void selectionTest() {
+        mSource.set(FOLLOW, makeFollows(10));
+        mMirror.start();
+
+        Cursor cursor = mMirror.queryList(FOLLOW, FollowFb.getFactory(),
+                makeQuery(columnEqSelection(FollowColumns.SUBREDDIT), "sub4"), false);
+        assertEquals("Incorrect eq count", 1, cursor.getCount());
+        cursor.moveToFirst();
+        assertEquals("Incorrect subreddit", "sub4",
+                cursor.getString(cursor.getColumnIndex(FollowColumns.SUBREDDIT)));
+        cursor.close();
+
+        cursor = mMirror.queryList(FOLLOW, FollowFb.getFactory(),
+                makeQuery(columnInSelection(FollowColumns.SUBREDDIT, 3), "sub1", "sub7", "missing"), false);
+        assertEquals("Incorrect in count", 2, cursor.getCount());
+        cursor.close();
+
+        cursor = mMirror.queryList(FOLLOW, FollowFb.getFactory(),
+                makeQuery(columnEqSelection(FollowColumns.SUBREDDIT), "missing"), false);
+        assertEquals("Incorrect missing count", 0, cursor.getCount());
+        cursor.close();
+
+        cursor = mMirror.queryList(FOLLOW, FollowFb.getFactory(),
+                makeQuery(columnInSelection(FollowColumns.SUBREDDIT, 4), "sub1", "sub1", "sub2", "sub3")
+                        .where(columnEqSelection(FollowColumns.KEY_COLOUR), new String[] { "#000002" }),
+                false);
+        assertEquals("Incorrect in and eq count", 1, cursor.getCount());
+        cursor.close();
+    }
+
+    @Test
+    public void objectTest() {
+        mMirror.start();
+        mSource.set(CONFIG, null);
+
+        Cursor cursor = mMirror.queryObject(CONFIG, ConfigFb.getFactory(), false);
+        assertNotNull("No answer", cursor);
+        assertEquals("Incorrect empty count", 0, cursor.getCount());
+        cursor.close();
+
+        ConfigFb config = new ConfigFb(true, false, 3, "new");
+        Map<String, Object> value = new HashMap<>(config.toMap());
+        value.put(ConfigColumns.COMMENT_THREAD_EXPAND, 3L);  // firebase numbers are longs
+        mSource.set(CONFIG, value);
+
+        cursor = mMirror.queryObject(CONFIG, ConfigFb.getFactory(), false);
+        assertEquals("Incorrect count", 1, cursor.getCount());
+        cursor.moveToFirst();
+        assertEquals("Incorrect expand", 3,
+                cursor.getInt(cursor.getColumnIndex(ConfigColumns.COMMENT_THREAD_EXPAND)));
+        assertEquals("Incorrect source", "new",
+                cursor.getString(cursor.getColumnIndex(ConfigColumns.POST_SOURCE)));
+        cursor.close();
+    }
+
+    @Test
+    public void staleTest() {
+        mMirror.start();
+        mSource.set(FOLLOW, makeFollows(3));
+        mSource.cancel(FOLLOW);
+
+        assertFalse("Synced after cancel", mMirror.isSynced(FOLLOW));
+        assertNull("Answered when stale",
+                mMirror.queryList(FOLLOW, FollowFb.getFactory(), null, false));
+        Cursor cursor = mMirror.queryList(FOLLOW, FollowFb.getFactory(), null, true);
+        assertNotNull("No stale answer", cursor);
+        assertEquals("Incorrect stale count", 3, cursor.getCount());
+        cursor.close();
+        assertTrue("No stale age", mMirror.getAge(FOLLOW) >= 0);
+    }
+}
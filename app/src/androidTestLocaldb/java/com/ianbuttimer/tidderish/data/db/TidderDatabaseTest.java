@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.ianbuttimer.tidderish.data.db;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.test.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.ianbuttimer.tidderish.data.db.AbstractDatabase.TableNames.FOLLOW;
+import static com.ianbuttimer.tidderish.data.db.AbstractDatabase.TableNames.PINNED;
+import static com.ianbuttimer.tidderish.data.provider.BaseProvider.columnInSelection;
+import static org.junit.Assert.*;
+
+public class TidderDatabaseTest {
+
+    private static final int PAGE = 25;     // status checks are per page of subreddits/posts
+
+    /* version 1 schema, as created by schematic */
+    private static final String CREATE_FOLLOW_V1 = "CREATE TABLE IF NOT EXISTS " + FOLLOW + " (" +
+            FollowColumns.ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
+            FollowColumns.UUID + " TEXT," +
+            FollowColumns.SUBREDDIT + " TEXT," +
+            FollowColumns.KEY_COLOUR + " INTEGER," +
+            FollowColumns.ICON_IMG + " TEXT)";
+    private static final String CREATE_PINNED_V1 = "CREATE TABLE IF NOT EXISTS " + PINNED + " (" +
+            PinnedColumns.ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
+            PinnedColumns.UUID + " TEXT," +
+            PinnedColumns.FULLNAME + " TEXT)";
+
+    private SQLiteDatabase mDb;
+
+    @Before
+    public void setUp() {
+        mDb = SQLiteDatabase.create(null);
+        mDb.execSQL(CREATE_FOLLOW_V1);
+        mDb.execSQL(CREATE_PINNED_V1);
+    }
+
+    @After
+    public void tearDown() {
+        mDb.close();
+    }
+
+    private void insertFollow(int index) {
+        ContentValues cv = new ContentValues();
+        cv.put(FollowColumns.SUBREDDIT, "sub" + index);
+        cv.put(FollowColumns.KEY_COLOUR, index);
+        mDb.insertOrThrow(FOLLOW, null, cv);
+    }
+
+    private void insertPinned(int index) {
+        ContentValues cv = new ContentValues();
+        cv.put(PinnedColumns.FULLNAME, "t3_" + index);
+        mDb.insertOrThrow(PINNED, null, cv);
+    }
+
+    @Test
+    public void migrationTest() {
+        for (int i = 0; i < 10; i++) {
+            insertFollow(i);
+            insertFollow(i % 5);    // duplicates
+            insertPinned(i % 3);
+        }
+
+        TidderDatabase.onUpgrade(InstrumentationRegistry.getTargetContext(), mDb, 1, TidderDatabase.VERSION);
+
+        assertEquals("Incorrect follow count", 10, DatabaseUtils.queryNumEntries(mDb, FOLLOW));
+        assertEquals("Incorrect pinned count", 3, DatabaseUtils.queryNumEntries(mDb, PINNED));
+
+        Cursor cursor = mDb.query(FOLLOW, new String[] { FollowColumns.KEY_COLOUR },
+                FollowColumns.SUBREDDIT + "=?", new String[] { "sub3" }, null, null, null);
+        assertTrue("No follow", cursor.moveToFirst());
+        assertEquals("Oldest duplicate not kept", 3, cursor.getInt(0));
+        cursor.close();
+
+        try {
+            insertFollow(1);
+            fail("Duplicate follow inserted");
+        } catch (SQLiteConstraintException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Get the query plan for a query
+     * @param table     Table to query
+     * @param column    Column to select on
+     * @return  query plan details
+     */
+    private String explainStatusCheck(String table, String column) {
+        String[] args = new String[PAGE];
+        for (int i = 0; i < PAGE; i++) {
+            args[i] = Integer.toString(i);
+        }
+        Cursor cursor = mDb.rawQuery("EXPLAIN QUERY PLAN SELECT " + column + " FROM " + table +
+                " WHERE " + columnInSelection(column, PAGE), args);
+        StringBuilder sb = new StringBuilder();
+        int detail = cursor.getColumnIndexOrThrow("detail");
+        while (cursor.moveToNext()) {
+            sb.append(cursor.getString(detail)).append('\n');
+        }
+        cursor.close();
+        return sb.toString();
+    }
+
+    @Test
+    public void indexTest() {
+        TidderDatabase.onUpgrade(InstrumentationRegistry.getTargetContext(), mDb, 1, TidderDatabase.VERSION);
+
+        String plan = explainStatusCheck(FOLLOW, FollowColumns.SUBREDDIT);
+        assertTrue("Follow index not used: " + plan,
+                plan.contains(FOLLOW + "_" + FollowColumns.SUBREDDIT + "_idx"));
+
+        plan = explainStatusCheck(PINNED, PinnedColumns.FULLNAME);
+        assertTrue("Pinned index not used: " + plan,
+                plan.contains(PINNED + "_" + PinnedColumns.FULLNAME + "_idx"));
+    }
+}
@@ -40,7 +40,16 @@ public abstract class AbstractFbRow implements IFbCursorable {
 
     @Exclude
     public ContentValues getContentValues() {
-        Map<String, Object> map = toMap();
+        return toContentValues(toMap());
+    }
+
+    /**
+     * Convert a map of column values to ContentValues
+     * @param map   Column values
+     * @return  ContentValues
+     */
+    @Exclude
+    public static ContentValues toContentValues(Map<String, ?> map) {
         ContentValues values = new ContentValues();
         for (String key : map.keySet()) {
             Object val = map.get(key);
@@ -93,4 +102,20 @@ public abstract class AbstractFbRow implements IFbCursorable {
     @Exclude
     public abstract void update(ContentValues contentValues);
 
+    /**
+     * Get a new row with default values
+     * @return  New row
+     */
+    @Exclude
+    protected abstract AbstractFbRow newRow();
+
+    @Override
+    @Exclude
+    public IFbCursorable fromMap(String id, Map<String, ?> map) {
+        AbstractFbRow row = newRow();
+        row.setId(id);
+        row.update(toContentValues(map));
+        return row;
+    }
+
 }
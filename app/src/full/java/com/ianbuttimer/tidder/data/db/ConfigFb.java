@@ -106,6 +106,12 @@ public class ConfigFb extends AbstractFbRow implements IFbCursorable, Cloneable
         update(this, contentValues);
     }
 
+    @Override
+    @Exclude
+    protected AbstractFbRow newRow() {
+        return new ConfigFb();
+    }
+
     @Exclude
     public static IFbCursorable getFactory() {
         return sFactory;
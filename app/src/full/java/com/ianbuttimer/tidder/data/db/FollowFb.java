@@ -89,6 +89,12 @@ public class FollowFb extends AbstractFbRow implements IFbCursorable {
         update(this, contentValues);
     }
 
+    @Override
+    @Exclude
+    protected AbstractFbRow newRow() {
+        return new FollowFb();
+    }
+
     @Exclude
     public static IFbCursorable getFactory() {
         return sFactory;
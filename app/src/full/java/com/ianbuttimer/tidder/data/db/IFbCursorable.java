@@ -18,6 +18,8 @@ package com.ianbuttimer.tidderish.data.db;
 
 import android.database.MatrixCursor;
 
+import java.util.Map;
+
 /**
  * Interface for object which may be transformed to Cursors
  */
@@ -48,4 +50,12 @@ public interface IFbCursorable {
      */
     void setId(String id);
 
+    /**
+     * Generate a new object from the raw value of a database node
+     * @param id    Id
+     * @param map   Node value, as returned by <code>DataSnapshot.getValue()</code>
+     * @return  New object
+     */
+    IFbCursorable fromMap(String id, Map<String, ?> map);
+
 }
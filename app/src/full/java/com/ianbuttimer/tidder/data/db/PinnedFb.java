@@ -78,6 +78,12 @@ public class PinnedFb extends AbstractFbRow implements IFbCursorable {
         update(this, contentValues);
     }
 
+    @Override
+    @Exclude
+    protected AbstractFbRow newRow() {
+        return new PinnedFb();
+    }
+
     @Exclude
     public static IFbCursorable getFactory() {
         return sFactory;
@@ -23,35 +23,46 @@ import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.Query;
 import com.google.firebase.database.ValueEventListener;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import timber.log.Timber;
 
 public abstract class AbstractValueEventListener<R> implements ValueEventListener {
 
-    private final CountDownLatch mLatch;
+    /** Default time to wait for a response, in milliseconds */
+    public static final long DFLT_TIMEOUT_MS = 10000;
 
-    protected Query mQuery;
+    private final int mCount;
+    private volatile CountDownLatch mLatch;
+    private long mTimeoutMs;
+    private boolean mTimedOut;
+
+    protected List<Query> mQueries;
     protected FbQuery mFbQuery;
 
     public AbstractValueEventListener() {
         this(1);
     }
 
+    /**
+     * Constructor
+     * @param count Number of responses to wait for from each query
+     */
     public AbstractValueEventListener(int count) {
+        this.mCount = count;
         this.mLatch = new CountDownLatch(count);
+        this.mTimeoutMs = DFLT_TIMEOUT_MS;
+        this.mTimedOut = false;
+        this.mQueries = Collections.emptyList();
     }
 
     public void addToQueryAsSingleValueEvent(Query query) {
         if (query != null) {
-            mQuery = query;
-
-            query.addListenerForSingleValueEvent(this);
-            try {
-                mLatch.await();
-            } catch (InterruptedException e) {
-                Timber.e(e);
-            }
+            addToQueriesAsSingleValueEvent(Collections.singletonList(query));
         }
     }
 
@@ -59,20 +70,27 @@ public abstract class AbstractValueEventListener<R> implements ValueEventListene
         if (query != null) {
             mFbQuery = query;
 
-            addToQueryAsSingleValueEvent(query.getQuery());
+            addToQueriesAsSingleValueEvent(query.getQueries());
+        }
+    }
+
+    /**
+     * Add this listener to multiple queries, and wait for the responses to all of them
+     * @param queries   Queries to add to
+     */
+    private void addToQueriesAsSingleValueEvent(List<Query> queries) {
+        mQueries = new ArrayList<>(queries);
+        mLatch = new CountDownLatch(mCount * mQueries.size());
+
+        for (Query query : mQueries) {
+            query.addListenerForSingleValueEvent(this);
         }
+        await();
     }
 
     public void addToQueryAsValueEvent(Query query) {
         if (query != null) {
-            mQuery = query;
-
-            query.addValueEventListener(this);
-            try {
-                mLatch.await();
-            } catch (InterruptedException e) {
-                Timber.e(e);
-            }
+            addToQueriesAsValueEvent(Collections.singletonList(query));
         }
     }
 
@@ -80,13 +98,67 @@ public abstract class AbstractValueEventListener<R> implements ValueEventListene
         if (query != null) {
             mFbQuery = query;
 
-            addToQueryAsValueEvent(query.getQuery());
+            addToQueriesAsValueEvent(query.getQueries());
         }
     }
 
+    /**
+     * Add this listener to multiple queries, and wait for the initial responses to all of them
+     * @param queries   Queries to add to
+     */
+    private void addToQueriesAsValueEvent(List<Query> queries) {
+        mQueries = new ArrayList<>(queries);
+        mLatch = new CountDownLatch(mCount * mQueries.size());
+
+        for (Query query : mQueries) {
+            query.addValueEventListener(this);
+        }
+        await();
+    }
+
+    /**
+     * Wait for the response, for no longer than the timeout
+     */
+    private void await() {
+        try {
+            mTimedOut = !mLatch.await(mTimeoutMs, TimeUnit.MILLISECONDS);
+            if (mTimedOut) {
+                Timber.w("No response within %dms from %s", mTimeoutMs, mQueries);
+            }
+        } catch (InterruptedException e) {
+            Timber.e(e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Set the time to wait for a response
+     * @param timeoutMs Timeout in milliseconds
+     */
+    public void setTimeout(long timeoutMs) {
+        this.mTimeoutMs = timeoutMs;
+    }
+
+    /**
+     * Check if the wait for a response timed out, in which case the result is the default result
+     * @return  <code>true</code> if timed out
+     */
+    public boolean isTimedOut() {
+        return mTimedOut;
+    }
+
+    /**
+     * Check if all the responses have been received.<br>
+     * <b>Note:</b> to be called by subclasses after calling the super class event handler
+     * @return  <code>true</code> if complete
+     */
+    protected boolean isComplete() {
+        return (mLatch.getCount() == 0);
+    }
+
     public void removeFromQuery() {
-        if (mQuery != null) {
-            mQuery.removeEventListener(this);
+        for (Query query : mQueries) {
+            query.removeEventListener(this);
         }
     }
 
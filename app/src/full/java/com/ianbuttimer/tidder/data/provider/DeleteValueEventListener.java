@@ -26,21 +26,29 @@ import java.util.ArrayList;
 
 public class DeleteValueEventListener extends AbstractValueEventListener<Integer> {
 
+    private final FbBatch mBatch;
+    private final String mNode;
     private int mCount;
 
-    public DeleteValueEventListener() {
+    /**
+     * Constructor
+     * @param batch Batch to add removals to
+     * @param node  Node being queried
+     */
+    public DeleteValueEventListener(FbBatch batch, String node) {
         super();
+        mBatch = batch;
+        mNode = node;
         mCount = 0;
     }
 
     @Override
     public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-        mCount = 0;
 
         ArrayList<DataSnapshot> filtered = mFbQuery.filterChildren(dataSnapshot);
         for (DataSnapshot objSnapshot : filtered) {
             if (objSnapshot != null) {
-                objSnapshot.getRef().removeValue();
+                mBatch.remove(mNode, objSnapshot.getKey());
                 ++mCount;
             }
         }
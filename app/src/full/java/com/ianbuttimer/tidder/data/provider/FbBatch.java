@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.ianbuttimer.tidderish.data.provider;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+
+import com.ianbuttimer.tidderish.data.db.AbstractFbRow;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A batch of Firebase Realtime database writes, committed as a single atomic multi-location
+ * update.<br>
+ * Also collects the uris to notify of the changes, so each is notified once per batch rather than
+ * once per row.<br>
+ * <b>Note:</b> writes are not visible to queries until the batch is committed.<br>
+ * This class is thread safe, as rows may be added from database event listeners.
+ */
+public class FbBatch {
+
+    private final IFbNodeWriter mWriter;
+    private final HashMap<String, Object> mUpdates;
+    private final LinkedHashSet<Uri> mNotifyUris;
+
+    /**
+     * Constructor
+     * @param writer    Writer to commit to
+     */
+    public FbBatch(IFbNodeWriter writer) {
+        this.mWriter = writer;
+        this.mUpdates = new HashMap<>();
+        this.mNotifyUris = new LinkedHashSet<>();
+    }
+
+    /**
+     * Generate a path
+     * @param nodes Nodes of path
+     * @return  Path
+     */
+    public static String path(String... nodes) {
+        StringBuilder sb = new StringBuilder();
+        for (String node : nodes) {
+            if (sb.length() > 0) {
+                sb.append('/');
+            }
+            sb.append(node);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Add a new child to a list node
+     * @param node  Node name
+     * @param row   Row to add
+     * @return  Key of new child
+     */
+    public synchronized String insert(String node, AbstractFbRow row) {
+        String key = mWriter.newKey(node);
+        mUpdates.put(path(node, key), row.toMap());
+        return key;
+    }
+
+    /**
+     * Set the value of a child of a node
+     * @param node  Node name
+     * @param key   Child key
+     * @param row   New value
+     */
+    public synchronized void set(String node, String key, AbstractFbRow row) {
+        mUpdates.put(path(node, key), row.toMap());
+    }
+
+    /**
+     * Set the value of an object node
+     * @param node  Node name
+     * @param row   New value
+     */
+    public synchronized void set(String node, AbstractFbRow row) {
+        mUpdates.put(node, row.toMap());
+    }
+
+    /**
+     * Remove a child of a node
+     * @param node  Node name
+     * @param key   Child key
+     */
+    public synchronized void remove(String node, String key) {
+        mUpdates.put(path(node, key), null);
+    }
+
+    /**
+     * Add uris to notify once the batch is committed
+     * @param uris  Uris to notify
+     */
+    public synchronized void addNotifyUris(Uri... uris) {
+        Collections.addAll(mNotifyUris, uris);
+    }
+
+    /**
+     * Get the uris to notify once the batch is committed
+     * @return  Uris to notify, in the order added
+     */
+    @NonNull
+    public synchronized Set<Uri> getNotifyUris() {
+        return new LinkedHashSet<>(mNotifyUris);
+    }
+
+    /**
+     * Get the number of pending writes
+     * @return  count
+     */
+    public synchronized int getCount() {
+        return mUpdates.size();
+    }
+
+    /**
+     * Commit the pending writes
+     * @return  Number of writes
+     */
+    public synchronized int commit() {
+        int count = mUpdates.size();
+        if (count > 0) {
+            mWriter.update(new HashMap<>(mUpdates));
+            mUpdates.clear();
+        }
+        return count;
+    }
+}
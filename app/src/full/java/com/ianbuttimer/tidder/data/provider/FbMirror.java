@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.ianbuttimer.tidderish.data.provider;
+
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ianbuttimer.tidderish.data.db.IFbCursorable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import timber.log.Timber;
+
+/**
+ * In-memory mirror of Firebase Realtime database nodes.<br>
+ * A value listener is maintained on each node, so queries may be answered from memory rather than
+ * waiting for a database round trip. The last value of a node is retained if its listener is
+ * cancelled, and may be used as a stale fallback when the database does not respond.
+ */
+public class FbMirror {
+
+    /**
+     * Listener for changes to mirrored nodes
+     */
+    public interface MirrorListener {
+        /**
+         * The value of a node has changed since it was first synced
+         * @param node  Node name
+         */
+        void onMirrorChange(String node);
+    }
+
+    private final IFbNodeSource mSource;
+    private final HashMap<String, NodeMirror> mNodes;
+    private MirrorListener mListener;
+    private boolean mStarted;
+    private long mStartTime;
+
+    private final AtomicInteger mHits = new AtomicInteger();
+    private final AtomicInteger mStaleHits = new AtomicInteger();
+    private final AtomicInteger mMisses = new AtomicInteger();
+    private final AtomicInteger mUpdates = new AtomicInteger();
+    private final AtomicInteger mCancels = new AtomicInteger();
+
+    /**
+     * Constructor
+     * @param source    Source of node values
+     * @param nodes     Names of nodes to mirror
+     */
+    public FbMirror(IFbNodeSource source, String... nodes) {
+        this.mSource = source;
+        this.mNodes = new HashMap<>();
+        for (String node : nodes) {
+            mNodes.put(node, new NodeMirror(node));
+        }
+        this.mStarted = false;
+    }
+
+    public void setListener(@Nullable MirrorListener listener) {
+        this.mListener = listener;
+    }
+
+    /**
+     * Start mirroring the nodes
+     */
+    public synchronized void start() {
+        if (!mStarted) {
+            mStarted = true;
+            mStartTime = SystemClock.elapsedRealtime();
+            for (NodeMirror nodeMirror : mNodes.values()) {
+                mSource.addNodeListener(nodeMirror.mNode, nodeMirror);
+            }
+        }
+    }
+
+    /**
+     * Stop mirroring the nodes and discard their values
+     */
+    public synchronized void stop() {
+        if (mStarted) {
+            mStarted = false;
+            for (NodeMirror nodeMirror : mNodes.values()) {
+                mSource.removeNodeListener(nodeMirror.mNode, nodeMirror);
+                nodeMirror.clear();
+            }
+        }
+    }
+
+    /**
+     * Check if a node value is being kept up to date
+     * @param node  Node name
+     * @return  <code>true</code> if synced
+     */
+    public boolean isSynced(String node) {
+        NodeMirror nodeMirror = mNodes.get(node);
+        return (nodeMirror != null) && nodeMirror.mSynced;
+    }
+
+    /**
+     * Get the time since a node value was last updated
+     * @param node  Node name
+     * @return  age in milliseconds, or -1 if no value
+     */
+    public long getAge(String node) {
+        long age = -1;
+        NodeMirror nodeMirror = mNodes.get(node);
+        if ((nodeMirror != null) && (nodeMirror.mValue != null)) {
+            age = SystemClock.elapsedRealtime() - nodeMirror.mUpdateTime;
+        }
+        return age;
+    }
+
+    /**
+     * Query the children of a list node
+     * @param node          Node name
+     * @param fbCursorable  Cursorable object to generate results
+     * @param query         Query conditions
+     * @param allowStale    Answer from the last value if the node is not synced
+     * @return  Cursor or <code>null</code> if unable to answer
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public Cursor queryList(String node, IFbCursorable fbCursorable, @Nullable FbQuery query,
+                            boolean allowStale) {
+        Map<String, ?> value = getValue(node, allowStale);
+        MatrixCursor cursor = null;
+        if (value != null) {
+            ArrayList<Map.Entry<String, ?>> children;
+            if (query != null) {
+                children = query.filterChildren(value);
+            } else {
+                children = new ArrayList<Map.Entry<String, ?>>(value.entrySet());
+            }
+            cursor = fbCursorable.getCursor(children.size());
+            for (Map.Entry<String, ?> child : children) {
+                if (child.getValue() instanceof Map) {
+                    fbCursorable.fromMap(child.getKey(), (Map<String, ?>) child.getValue())
+                            .addToCursor(cursor);
+                }
+            }
+        }
+        return cursor;
+    }
+
+    /**
+     * Query an object node
+     * @param node          Node name
+     * @param fbCursorable  Cursorable object to generate results
+     * @param allowStale    Answer from the last value if the node is not synced
+     * @return  Cursor or <code>null</code> if unable to answer
+     */
+    @Nullable
+    public Cursor queryObject(String node, IFbCursorable fbCursorable, boolean allowStale) {
+        Map<String, ?> value = getValue(node, allowStale);
+        MatrixCursor cursor = null;
+        if (value != null) {
+            cursor = fbCursorable.getCursor(1);
+            if (!value.isEmpty()) {
+                fbCursorable.fromMap(node, value).addToCursor(cursor);
+            }
+        }
+        return cursor;
+    }
+
+    /**
+     * Get the value of a node
+     * @param node          Node name
+     * @param allowStale    Return the last value if the node is not synced
+     * @return  Value or <code>null</code> if not available
+     */
+    @Nullable
+    private Map<String, ?> getValue(String node, boolean allowStale) {
+        Map<String, ?> value = null;
+        NodeMirror nodeMirror = mNodes.get(node);
+        if (nodeMirror != null) {
+            value = nodeMirror.mValue;
+            if (value != null) {
+                if (nodeMirror.mSynced) {
+                    mHits.incrementAndGet();
+                } else if (allowStale) {
+                    mStaleHits.incrementAndGet();
+                    Timber.i("Stale %s answer, %dms old", node, getAge(node));
+                } else {
+                    value = null;
+                }
+            }
+        }
+        if (value == null) {
+            mMisses.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Get a summary of the mirror statistics
+     * @return  statistics
+     */
+    @NonNull
+    public String getStats() {
+        StringBuilder ages = new StringBuilder();
+        for (String node : mNodes.keySet()) {
+            ages.append(", ").append(node).append("Age=").append(getAge(node));
+        }
+        return "FbMirror{" +
+                "hits=" + mHits.get() +
+                ", staleHits=" + mStaleHits.get() +
+                ", misses=" + mMisses.get() +
+                ", updates=" + mUpdates.get() +
+                ", cancels=" + mCancels.get() +
+                ages +
+                '}';
+    }
+
+    /**
+     * Mirror of a single node
+     */
+    private class NodeMirror implements IFbNodeSource.NodeListener {
+
+        private final String mNode;
+        /** Last value; children or object fields */
+        private volatile Map<String, ?> mValue;
+        private volatile boolean mSynced;
+        private volatile long mUpdateTime;
+
+        NodeMirror(String node) {
+            this.mNode = node;
+            clear();
+        }
+
+        void clear() {
+            mValue = null;
+            mSynced = false;
+            mUpdateTime = 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onNodeChange(String node, @Nullable Object value) {
+            Map<String, ?> map;
+            if (value instanceof Map) {
+                // in key order, as children are returned by a query, i.e. insertion order for push keys
+                map = new TreeMap<String, Object>((Map<String, ?>) value);
+            } else {
+                if (value != null) {
+                    Timber.w("Unexpected %s value %s", node, value.getClass().getSimpleName());
+                }
+                map = Collections.emptyMap();   // node doesn't exist
+            }
+            boolean first = (mValue == null);
+
+            mValue = map;
+            mUpdateTime = SystemClock.elapsedRealtime();
+            mSynced = true;
+            mUpdates.incrementAndGet();
+
+            if (first) {
+                Timber.i("Mirrored %s in %dms", node, mUpdateTime - mStartTime);
+            } else {
+                MirrorListener listener = mListener;
+                if (listener != null) {
+                    listener.onMirrorChange(node);
+                }
+            }
+        }
+
+        @Override
+        public void onNodeCancelled(String node, String message) {
+            Timber.w("Mirror of %s cancelled: %s", node, message);
+            mSynced = false;
+            mCancels.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.ianbuttimer.tidderish.data.provider;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.HashMap;
+
+/**
+ * Source of node values from the children of a Firebase Realtime database reference
+ */
+public class FbNodeSource implements IFbNodeSource {
+
+    private final DatabaseReference mReference;
+    private final HashMap<NodeListener, ValueEventListener> mListeners;
+
+    /**
+     * Constructor
+     * @param reference Parent reference of nodes
+     */
+    public FbNodeSource(DatabaseReference reference) {
+        this.mReference = reference;
+        this.mListeners = new HashMap<>();
+    }
+
+    @Override
+    public synchronized void addNodeListener(final String node, final NodeListener listener) {
+        ValueEventListener valueListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
+                listener.onNodeChange(node, dataSnapshot.getValue());
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError databaseError) {
+                listener.onNodeCancelled(node, databaseError.getMessage());
+            }
+        };
+        mListeners.put(listener, valueListener);
+        mReference.child(node).addValueEventListener(valueListener);
+    }
+
+    @Override
+    public synchronized void removeNodeListener(String node, NodeListener listener) {
+        ValueEventListener valueListener = mListeners.remove(listener);
+        if (valueListener != null) {
+            mReference.child(node).removeEventListener(valueListener);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FbNodeSource{" + mReference + '}';
+    }
+}
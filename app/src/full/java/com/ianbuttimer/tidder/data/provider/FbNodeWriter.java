@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.ianbuttimer.tidderish.data.provider;
+
+import com.google.firebase.database.DatabaseReference;
+
+import java.util.Map;
+
+/**
+ * Writer of node values to the children of a Firebase Realtime database reference
+ */
+public class FbNodeWriter implements IFbNodeWriter {
+
+    private final DatabaseReference mReference;
+
+    /**
+     * Constructor
+     * @param reference Parent reference of nodes
+     */
+    public FbNodeWriter(DatabaseReference reference) {
+        this.mReference = reference;
+    }
+
+    @Override
+    public String newKey(String node) {
+        // push keys are generated locally, no network access is required
+        return mReference.child(node).push().getKey();
+    }
+
+    @Override
+    public void update(Map<String, Object> updates) {
+        mReference.updateChildren(updates);
+    }
+
+    @Override
+    public String toString() {
+        return "FbNodeWriter{" + mReference + '}';
+    }
+}
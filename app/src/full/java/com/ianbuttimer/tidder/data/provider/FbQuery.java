@@ -16,20 +16,22 @@
 
 package com.ianbuttimer.tidderish.data.provider;
 
+import android.provider.BaseColumns;
 import android.text.TextUtils;
 import android.util.Pair;
 
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.Query;
-import com.ianbuttimer.tidderish.data.ITester;
-import com.ianbuttimer.tidderish.utils.ArrayTester;
-import com.ianbuttimer.tidderish.utils.Quartet;
 import com.ianbuttimer.tidderish.utils.Utils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import timber.log.Timber;
 
@@ -38,26 +40,61 @@ import static com.ianbuttimer.tidderish.data.provider.BaseProvider.isColumnEqSel
 import static com.ianbuttimer.tidderish.data.provider.BaseProvider.isColumnInSelection;
 
 /**
- * A Firebase query class handling basic 'equals to' and 'in' queries.
+ * A Firebase query class handling basic 'equals to' and 'in' queries.<br>
+ * Firebase only allows one order by per query, so one condition is selected to be applied by
+ * Firebase, and any other conditions are applied in-app. An 'equals to' condition is preferred,
+ * otherwise an 'in' condition is split into an 'equals to' query per argument, so the amount of
+ * data downloaded is in proportion to the result rather than the node.
  */
 public class FbQuery {
 
+    /** Maximum number of arguments of an 'in' condition to split into separate queries */
+    public static final int MAX_IN_QUERIES = 32;
+
     private enum Type { NONE, EQUAL, IN, ALL };
 
-    private DatabaseReference mReference;
     /**
-     * List of where conditions;<br>
-     * <ul>
-     *     <li>Condition type</li>
-     *     <li>Condition field</li>
-     *     <li>Condition arguments</li>
-     *     <li>Number of arguments required by condition</li>
-     * </ul>
+     * A where condition
      */
-    private final ArrayList<Quartet<Type, String, String[], Integer>> mWhere;
+    private static class Condition {
+        /** Condition type */
+        final Type type;
+        /** Condition field */
+        final String field;
+        /** Condition arguments */
+        final String[] args;
+        /** Number of arguments required by condition */
+        final int argCount;
+        /** Set of required arguments, for 'in' conditions */
+        final Set<String> argSet;
+
+        Condition(Type type, String field, String[] args, int argCount) {
+            this.type = type;
+            this.field = field;
+            this.args = args;
+            this.argCount = argCount;
+            if (type == Type.IN) {
+                argSet = new LinkedHashSet<>(Arrays.asList(args).subList(0, argCount));
+            } else {
+                argSet = Collections.emptySet();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Condition{" + type + ", " + field + ", " + Arrays.toString(args) + ", " + argCount + '}';
+        }
+    }
+
+    private DatabaseReference mReference;
+    /** List of where conditions */
+    private final ArrayList<Condition> mWhere;
 
     private boolean mMade;
-    private Query mQuery;
+    /** Firebase queries; the result is the union of their results */
+    private final ArrayList<Query> mQueries;
+    /** Index of the condition applied by the Firebase queries, or -1 if none */
+    private int mApplied;
 
     public FbQuery(DatabaseReference reference) {
         this(reference, null, null);
@@ -65,7 +102,8 @@ public class FbQuery {
 
     public FbQuery(DatabaseReference reference, String selection, String[] selectionArgs) {
         this.mReference = reference;
-        this.mQuery = null;
+        this.mQueries = new ArrayList<>();
+        this.mApplied = -1;
         this.mMade = false;
         this.mWhere = new ArrayList<>();
         where(selection, selectionArgs);
@@ -109,49 +147,56 @@ public class FbQuery {
                     }
                 }
             }
-            mWhere.add(new Quartet<>(type, field, selectionArgs, argCount));
+            mWhere.add(new Condition(type, field, selectionArgs, argCount));
+            mMade = false;
         }
         return this;
     }
 
 
     public void makeQuery() {
-        Query query = null;
+        mQueries.clear();
+        mApplied = -1;
 
-        // can only have 1 order by in firebase, so generate query from 1st 'where'
-        if (mWhere.size() >= 1) {
-            Quartet<Type, String, String[], Integer> where = mWhere.get(0);
-            switch (where.first) {
-                case IN:
-                case EQUAL:
-                    query = mReference.orderByChild(where.second);
-                    if (where.first == Type.IN) {
-                        break;  // for an 'in' filtering is done in-app
-                    }
-                    // fall through
-                    query = query.equalTo(where.third[0]);
-                    break;
-                case ALL:
-                    // use default query, i.e. all
-                    break;
-                default:
-                    Timber.i("Ignored condition; %s, %s, %s, %d",
-                            where.first, where.second, Arrays.toString(where.third), where.fourth);
-                    break;
+        // can only have 1 order by in firebase, so generate queries from the most selective condition
+        for (int i = 0; i < mWhere.size(); ++i) {
+            Condition where = mWhere.get(i);
+            if (where.type == Type.EQUAL) {
+                mApplied = i;
+                break;
+            } else if ((where.type == Type.IN) && (mApplied < 0) &&
+                    (where.argSet.size() <= MAX_IN_QUERIES)) {
+                mApplied = i;   // keep looking for an equal
+            } else if (where.type == Type.NONE) {
+                Timber.i("Ignored condition; %s", where);
             }
-            mQuery = query;
         }
-        if (query == null) {
+        if (mApplied >= 0) {
+            Condition where = mWhere.get(mApplied);
+            Query ordered;
+            if (BaseColumns._ID.equals(where.field)) {
+                ordered = mReference.orderByKey();
+            } else {
+                ordered = mReference.orderByChild(where.field);
+            }
+            if (where.type == Type.EQUAL) {
+                mQueries.add(ordered.equalTo(where.args[0]));
+            } else {
+                for (String arg : where.argSet) {
+                    mQueries.add(ordered.equalTo(arg));
+                }
+            }
+        } else {
             // default, get all
-            query = mReference.orderByKey();
+            mQueries.add(mReference.orderByKey());
         }
         mMade = true;
-        mQuery = query;
     }
 
     public FbQuery clear() {
         this.mReference = null;
-        this.mQuery = null;
+        this.mQueries.clear();
+        this.mApplied = -1;
         this.mWhere.clear();
         this.mMade = false;
         return this;
@@ -167,11 +212,15 @@ public class FbQuery {
         return this;
     }
 
-    public Query getQuery() {
+    /**
+     * Get the Firebase queries, the result is the union of their results
+     * @return  List of queries
+     */
+    public List<Query> getQueries() {
         if (!mMade) {
             makeQuery();
         }
-        return mQuery;
+        return mQueries;
     }
 
     public boolean hasSelection() {
@@ -183,7 +232,7 @@ public class FbQuery {
         for (DataSnapshot objSnapshot : dataSnapshot.getChildren()) {
             boolean add = true;
             if (hasSelection()) {
-                add = isInSelectionArgs(objSnapshot);
+                add = isInSelectionArgs(objSnapshot.getKey(), objSnapshot.getValue(), false);
             }
             if (add) {
                 filtered.add(objSnapshot);
@@ -192,20 +241,50 @@ public class FbQuery {
         return filtered;
     }
 
-    protected boolean isInSelectionArgs(DataSnapshot data) {
+    /**
+     * Filter the children of a node held in-app, e.g. by {@link FbMirror}.<br>
+     * As no Firebase query has been applied, all conditions are evaluated.
+     * @param children  Node children, key to value as returned by <code>DataSnapshot.getValue()</code>
+     * @return  List of matching children
+     */
+    public ArrayList<Map.Entry<String, ?>> filterChildren(Map<String, ?> children) {
+        ArrayList<Map.Entry<String, ?>> filtered = new ArrayList<>();
+        for (Map.Entry<String, ?> child : children.entrySet()) {
+            boolean add = true;
+            if (hasSelection()) {
+                add = isInSelectionArgs(child.getKey(), child.getValue(), true);
+            }
+            if (add) {
+                filtered.add(child);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Check if a child is in the selection
+     * @param key   Child key
+     * @param value Child value
+     * @param all   Evaluate all conditions; <code>false</code> if the condition applied by the
+     *              Firebase queries may be skipped
+     * @return  <code>true</code> if in selection
+     */
+    protected boolean isInSelectionArgs(String key, Object value, boolean all) {
         boolean inSelection = true; // default, is in selection for basic query
 
         for (int i = 0; (i < mWhere.size()) && inSelection; ++i) {
-            Quartet<Type, String, String[], Integer> where = mWhere.get(i);
+            if (!all && (i == mApplied)) {
+                continue;   // handled by firebase queries
+            }
+            Condition where = mWhere.get(i);
 
-            switch (where.first) {
+            switch (where.type) {
                 case EQUAL:
-                    if (i > 0) {
-                        inSelection = where.second.equals(where.third[0]);
-                    }   // else 1st equal condition handled by original firebase query
+                    Object field = getField(key, value, where.field);
+                    inSelection = (field != null) && where.args[0].equals(String.valueOf(field));
                     break;
                 case IN:
-                    inSelection = isInSelectionArgs(data, where.second, where.third);
+                    inSelection = where.argSet.contains(getField(key, value, where.field));
                     break;
                 case ALL:
                     // all included
@@ -218,31 +297,21 @@ public class FbQuery {
         return inSelection;
     }
 
-    protected boolean isInSelectionArgs(DataSnapshot data, String selection, String[] selectionArgs) {
-        boolean inSelection = false;
-        ArrayTester<String> arrayTester = new ArrayTester<>(selectionArgs);
-        Object obj = data.getValue();
-
-        if (obj instanceof Map) {
-            Map<?, ?> map = ((Map<?, ?>) obj);
-            Object[] keys = map.keySet().toArray();
-            for (Object key : keys) {
-                if (selection.equals(key)) {
-                    final Object value = map.get(key);
-                    if ((value instanceof String)) {
-                        int index = arrayTester.findItemIndex(new ITester<String>() {
-                            @Override
-                            public boolean test(String obj) {
-                                return value.equals(obj);
-                            }
-                        });
-                        inSelection = (index >= 0);
-                    }
-                    break;
-                }
-            }
+    /**
+     * Get the value of a field of a child
+     * @param key   Child key
+     * @param value Child value
+     * @param field Field name
+     * @return  Field value or <code>null</code> if not present
+     */
+    private Object getField(String key, Object value, String field) {
+        Object fieldValue = null;
+        if (BaseColumns._ID.equals(field)) {
+            fieldValue = key;
+        } else if (value instanceof Map) {
+            fieldValue = ((Map<?, ?>) value).get(field);
         }
-        return inSelection;
+        return fieldValue;
     }
 
 }
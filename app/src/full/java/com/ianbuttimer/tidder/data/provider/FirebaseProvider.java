@@ -26,11 +26,15 @@ import android.content.OperationApplicationException;
 import android.content.UriMatcher;
 import android.database.Cursor;
 import android.net.Uri;
+import android.text.TextUtils;
 import android.util.Pair;
 
+import androidx.annotation.Nullable;
+
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.ianbuttimer.tidderish.BuildConfig;
+import com.ianbuttimer.tidderish.data.FollowRepository;
 import com.ianbuttimer.tidderish.data.db.AbstractFbRow;
 import com.ianbuttimer.tidderish.data.db.ConfigFb;
 import com.ianbuttimer.tidderish.data.db.FollowFb;
@@ -40,6 +44,7 @@ import com.ianbuttimer.tidderish.net.UriUtils;
 import com.ianbuttimer.tidderish.reddit.RedditClient;
 
 import java.util.ArrayList;
+import java.util.Set;
 
 import timber.log.Timber;
 
@@ -117,7 +122,20 @@ public class FirebaseProvider extends ContentProvider {
     }
 
 
+    /** Answer queries from an in-memory mirror of the user's nodes */
+    private static final boolean MIRROR_MODE = true;
+    /** Nodes to mirror */
+    private static final String[] MIRROR_NODES = new String[] {
+            Path.FOLLOW, Path.PINNED, Path.CONFIG
+    };
+    /** Time to wait for a query response when it can't be answered from the mirror */
+    private static final long QUERY_TIMEOUT_MS = 5000;
+
     private FirebaseDatabase mDatabase;
+    private FbMirror mMirror;
+    private String mMirrorUserId;
+    /** Batch of the batch operations in progress on the current thread */
+    private final ThreadLocal<FbBatch> mBatch = new ThreadLocal<>();
 
     @Override
     public boolean onCreate() {
@@ -141,15 +159,148 @@ public class FirebaseProvider extends ContentProvider {
         return ref;
     }
 
+    /**
+     * Get the mirror of the current user's nodes, starting it if necessary
+     * @return  Mirror or <code>null</code> if not available
+     */
+    @Nullable
+    private synchronized FbMirror getMirror() {
+        FbMirror mirror = null;
+        if (MIRROR_MODE) {
+            String userId = RedditClient.getClient().getUserId();
+            if (TextUtils.isEmpty(userId)) {
+                if (mMirror != null) {
+                    // logged out
+                    mMirror.stop();
+                    mMirror = null;
+                    mMirrorUserId = null;
+                }
+            } else {
+                if (!userId.equals(mMirrorUserId)) {
+                    if (mMirror != null) {
+                        mMirror.stop();
+                        // previous user's rows, and the first snapshot of a new mirror is not notified
+                        FollowRepository.getInstance().reset();
+                    }
+                    mMirror = new FbMirror(new FbNodeSource(mDatabase.getReference(userId)), MIRROR_NODES);
+                    mMirror.setListener(node -> {
+                        // changes from other devices, or local changes made after the write notification
+                        Uri uri = getNodeUri(node);
+                        if (uri != null) {
+                            notifyUris(BaseProvider.onUpdate(getContext(), uri, null, null));
+                        }
+                    });
+                    mMirror.start();
+                    mMirrorUserId = userId;
+                }
+                mirror = mMirror;
+            }
+        }
+        return mirror;
+    }
+
+    /**
+     * Get the content uri of a node
+     * @param node  Database node
+     * @return  Uri or <code>null</code> if unknown node
+     */
+    @Nullable
+    private static Uri getNodeUri(String node) {
+        Uri uri;
+        switch (node) {
+            case Path.FOLLOW:
+                uri = Follow.CONTENT_URI;
+                break;
+            case Path.PINNED:
+                uri = Pinned.CONTENT_URI;
+                break;
+            case Path.CONFIG:
+                uri = Config.CONTENT_URI;
+                break;
+            default:
+                uri = null;
+                break;
+        }
+        return uri;
+    }
+
+    /**
+     * Get a batch for database writes
+     * @return  Batch of the batch operations in progress on the current thread, or a new batch
+     */
+    private FbBatch startBatch() {
+        FbBatch batch = mBatch.get();
+        if (batch == null) {
+            batch = new FbBatch(new FbNodeWriter(getReference()));
+        }
+        return batch;
+    }
+
+    /**
+     * Finish database writes, committing the batch and notifying observers unless it is the
+     * batch of the batch operations in progress on the current thread
+     * @param batch Batch to finish
+     */
+    private void endBatch(FbBatch batch) {
+        if (batch != mBatch.get()) {
+            commitBatch(batch);
+        }
+    }
+
+    /**
+     * Commit a batch and notify observers
+     * @param batch Batch to commit
+     */
+    private void commitBatch(FbBatch batch) {
+        int count = batch.commit();
+        Set<Uri> notifyUris = batch.getNotifyUris();
+        Timber.i("Fb batch %d writes, %d notifications", count, notifyUris.size());
+        notifyUris(notifyUris.toArray(new Uri[0]));
+    }
+
     @Override
     public int bulkInsert(Uri uri, ContentValues[] values) {
-        throw new UnsupportedOperationException("Bulk insert not currently supported on " + getClass().getSimpleName());
+        FbBatch batch = startBatch();
+        String[] ids;
+        switch(MATCHER.match(uri)) {
+            case FOLLOW_CONTENT_URI:
+                ids = insertFollowValues(batch, values);
+                break;
+            case PINNED_CONTENT_URI:
+                ids = insertPinnedValues(batch, values);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown URI " + uri);
+        }
+        batch.addNotifyUris(BaseProvider.onBulkInsert(getContext(), uri, values, ids));
+        endBatch(batch);
+        return ids.length;
     }
 
+    /**
+     * Apply a batch of operations as a single atomic multi-location update, notifying each
+     * affected uri once.<br>
+     * <b>Note:</b> the changes made by the operations are not visible to the queries of
+     *  subsequent operations in the batch.
+     */
     @Override
     public ContentProviderResult[] applyBatch(ArrayList<ContentProviderOperation> ops) throws
             OperationApplicationException {
-        throw new UnsupportedOperationException("Batch operations not currently supported on " + getClass().getSimpleName());
+        FbBatch batch = startBatch();
+        boolean outer = (mBatch.get() == null);
+        ContentProviderResult[] results;
+        if (outer) {
+            mBatch.set(batch);
+        }
+        try {
+            results = super.applyBatch(ops);
+        } finally {
+            if (outer) {
+                mBatch.remove();
+            }
+        }
+        endBatch(batch);
+        return results;
     }
 
     // start copy from com.ianbuttimer.tidderish.data.db.gen.TidderProvider.java
@@ -234,22 +385,28 @@ public class FirebaseProvider extends ContentProvider {
     private Cursor fbQueryList(String node, IFbCursorable fbCursorable, Uri uri,
                                String[] projection, ArrayList<Pair<String, String[]>> whereList,
                                String sortOrder) {
-//        FbQuery query = makeFbQuery(node, whereList, sortOrder);
-//
-//        QueryValueEventListener listener = new QueryValueEventListener(fbCursorable);
-//
-//        listener.addToQueryAsSingleValueEvent(query);
-//
-//        Cursor cursor = listener.getResult();
-//
-//        listener.removeFromQuery();
-//
-//        setNotificationUri(cursor, uri);
-//
-//        return cursor;
-
-        return fbQuery(node, new QueryValueEventListener(fbCursorable), uri,
-                projection, whereList, sortOrder);
+        FbQuery query = makeFbFilter(whereList);
+        FbMirror mirror = getMirror();
+        Cursor cursor = null;
+        if (mirror != null) {
+            cursor = mirror.queryList(node, fbCursorable, query, false);
+        }
+        if (cursor == null) {
+            QueryValueEventListener listener = new QueryValueEventListener(fbCursorable);
+
+            cursor = fbQuery(node, listener, query, sortOrder);
+
+            if (listener.isTimedOut() && (mirror != null)) {
+                Cursor stale = mirror.queryList(node, fbCursorable, query, true);
+                if (stale != null) {
+                    cursor = stale;
+                }
+            }
+        }
+
+        setNotificationUri(cursor, uri);
+
+        return cursor;
     }
 
     /**
@@ -263,25 +420,42 @@ public class FirebaseProvider extends ContentProvider {
      */
     private Cursor fbQueryObject(String node, IFbCursorable fbCursorable, Uri uri,
                                String[] projection, ArrayList<Pair<String, String[]>> whereList) {
-        return fbQuery(node, new QueryObjectValueEventListener(fbCursorable), uri,
-                            projection, whereList, null);
+        FbMirror mirror = getMirror();
+        Cursor cursor = null;
+        if (mirror != null) {
+            cursor = mirror.queryObject(node, fbCursorable, false);
+        }
+        if (cursor == null) {
+            QueryObjectValueEventListener listener = new QueryObjectValueEventListener(fbCursorable);
+
+            cursor = fbQuery(node, listener, makeFbFilter(whereList), null);
+
+            if (listener.isTimedOut() && (mirror != null)) {
+                Cursor stale = mirror.queryObject(node, fbCursorable, true);
+                if (stale != null) {
+                    cursor = stale;
+                }
+            }
+        }
+
+        setNotificationUri(cursor, uri);
+
+        return cursor;
     }
 
     /**
      * Query the database
      * @param node          Database node
      * @param listener      Data event listener to use
-     * @param uri           Uri to query
-     * @param projection    Projection
-     * @param whereList     List of where conditions
+     * @param query         Query conditions
      * @param sortOrder     Sort order
      * @return
      */
-    private Cursor fbQuery(String node, AbstractValueEventListener<?> listener, Uri uri,
-                               String[] projection, ArrayList<Pair<String, String[]>> whereList,
-                               String sortOrder) {
-        FbQuery query = makeFbQuery(node, whereList, sortOrder);
+    private Cursor fbQuery(String node, AbstractValueEventListener<?> listener, FbQuery query,
+                           String sortOrder) {
+        query.setReference(getReference(node));
 
+        listener.setTimeout(QUERY_TIMEOUT_MS);
         listener.addToQueryAsSingleValueEvent(query);
 
         Cursor cursor = null;
@@ -292,8 +466,6 @@ public class FirebaseProvider extends ContentProvider {
 
         listener.removeFromQuery();
 
-        setNotificationUri(cursor, uri);
-
         return cursor;
     }
 
@@ -306,46 +478,57 @@ public class FirebaseProvider extends ContentProvider {
      */
     private FbQuery makeFbQuery(String node, ArrayList<Pair<String, String[]>> whereList,
                            String sortOrder) {
-        DatabaseReference ref = getReference(node);
-        FbQuery fbQuery = new FbQuery(ref);
+        FbQuery fbQuery = makeFbFilter(whereList);
+        fbQuery.setReference(getReference(node));
+        fbQuery.makeQuery();
+        return fbQuery;
+    }
+
+    /**
+     * Generate query conditions, without a database reference
+     * @param whereList List of where conditions
+     * @return  Query conditions
+     */
+    private FbQuery makeFbFilter(ArrayList<Pair<String, String[]>> whereList) {
+        FbQuery fbQuery = new FbQuery(null);
         for (Pair<String, String[]> where : whereList) {
             fbQuery.where(where.first, where.second);
         }
-        fbQuery.makeQuery();
         return fbQuery;
     }
 
     @Override
     public Uri insert(Uri uri, ContentValues values) {
         Uri result;
+        FbBatch batch = startBatch();
         switch(MATCHER.match(uri)) {
             case FOLLOW_CONTENT_URI: {
-                final String id = insertFollowValue(values);
-                notifyUris(BaseProvider.onInsert(uri, values));
+                final String id = insertFollowValue(batch, values);
+                batch.addNotifyUris(BaseProvider.onInsert(uri, values));
                 result = UriUtils.getWithIdUri(uri, id);
                 break;
             }
             case FOLLOW_follow_id: {
-                final String id = insertFollowValue(values);
-                notifyUri(uri);
+                final String id = insertFollowValue(batch, values);
+                batch.addNotifyUris(BaseProvider.onInsert(uri, values));
                 result = UriUtils.getWithIdUri(uri, id);
                 break;
             }
             case PINNED_CONTENT_URI: {
-                final String id = insertPinnedValue(values);
-                notifyUris(BaseProvider.onInsert(uri, values));
+                final String id = insertPinnedValue(batch, values);
+                batch.addNotifyUris(BaseProvider.onInsert(uri, values));
                 result = UriUtils.getWithIdUri(uri, id);
                 break;
             }
             case PINNED_pinned_id: {
-                final String id = insertPinnedValue(values);
-                notifyUri(uri);
+                final String id = insertPinnedValue(batch, values);
+                batch.addNotifyUris(BaseProvider.onInsert(uri, values));
                 result = UriUtils.getWithIdUri(uri, id);
                 break;
             }
             case CONFIG_CONTENT_URI:  {
-                final String id = insertConfigValue(values);
-                notifyUri(uri);
+                final String id = insertConfigValue(batch, values);
+                batch.addNotifyUris(uri);
                 result = UriUtils.getWithIdUri(uri, id);
                 break;
             }
@@ -353,6 +536,7 @@ public class FirebaseProvider extends ContentProvider {
                 throw new IllegalArgumentException("Unknown URI " + uri);
             }
         }
+        endBatch(batch);
         return result;
     }
 
@@ -360,40 +544,43 @@ public class FirebaseProvider extends ContentProvider {
     public int update(Uri uri, ContentValues values, String where, String[] whereArgs) {
         int count;
         ArrayList<Pair<String, String[]>> whereList = whereList(uri, where, whereArgs);
+        FbBatch batch = startBatch();
 
         switch(MATCHER.match(uri)) {
             case FOLLOW_follow_id:
             case FOLLOW_CONTENT_URI:
-                count = fbUpdate(Path.FOLLOW, whereList, values, FollowFb.class);
+                count = fbUpdate(batch, Path.FOLLOW, whereList, values, FollowFb.class);
                 break;
 
             case PINNED_pinned_id:
             case PINNED_CONTENT_URI:
-                count = fbUpdate(Path.PINNED, whereList, values, PinnedFb.class);
+                count = fbUpdate(batch, Path.PINNED, whereList, values, PinnedFb.class);
                 break;
             default:
                 throw new IllegalArgumentException("Unknown URI " + uri);
         }
         if (count > 0) {
-            notifyUri(uri);
+            batch.addNotifyUris(BaseProvider.onUpdate(getContext(), uri, where, whereArgs));
         }
+        endBatch(batch);
         return count;
     }
 
     /**
      * Update database content
+     * @param batch
      * @param node
      * @param whereList
      * @param value
      * @param objClass
      * @return
      */
-    private int fbUpdate(String node, ArrayList<Pair<String, String[]>> whereList,
+    private int fbUpdate(FbBatch batch, String node, ArrayList<Pair<String, String[]>> whereList,
                          ContentValues value, Class<? extends AbstractFbRow> objClass) {
 
         FbQuery query = makeFbQuery(node, whereList, null);
 
-        UpdateValueEventListener listener = new UpdateValueEventListener(objClass, value);
+        UpdateValueEventListener listener = new UpdateValueEventListener(batch, node, objClass, value);
 
         listener.addToQueryAsSingleValueEvent(query);
 
@@ -446,37 +633,40 @@ public class FirebaseProvider extends ContentProvider {
     public int delete(Uri uri, String where, String[] whereArgs) {
         int count;
         ArrayList<Pair<String, String[]>> whereList = whereList(uri, where, whereArgs);
+        FbBatch batch = startBatch();
 
         switch(MATCHER.match(uri)) {
             case FOLLOW_follow_id:
             case FOLLOW_CONTENT_URI:
-                count = fbDelete(Path.FOLLOW, whereList);
+                count = fbDelete(batch, Path.FOLLOW, whereList);
                 break;
 
             case PINNED_pinned_id:
             case PINNED_CONTENT_URI:
-                count = fbDelete(Path.PINNED, whereList);
+                count = fbDelete(batch, Path.PINNED, whereList);
                 break;
             default:
                 throw new IllegalArgumentException("Unknown URI " + uri);
         }
         if (count > 0) {
-            notifyUri(uri);
+            batch.addNotifyUris(BaseProvider.onDelete(getContext(), uri));
         }
+        endBatch(batch);
         return count;
     }
 
     /**
      * Remove data from the database
+     * @param batch
      * @param node
      * @param whereList
      * @return
      */
-    private int fbDelete(String node, ArrayList<Pair<String, String[]>> whereList) {
+    private int fbDelete(FbBatch batch, String node, ArrayList<Pair<String, String[]>> whereList) {
 
         FbQuery query = makeFbQuery(node, whereList, null);
 
-        DeleteValueEventListener listener = new DeleteValueEventListener();
+        DeleteValueEventListener listener = new DeleteValueEventListener(batch, node);
 
         listener.addToQueryAsSingleValueEvent(query);
 
@@ -489,70 +679,61 @@ public class FirebaseProvider extends ContentProvider {
 
     /**
      * Insert a new follow row into the database
+     * @param batch Batch to add insert to
      * @param value Data in insert
      * @return  Id for new row
      */
-    private String insertFollowValue(ContentValues value) {
-        FollowFb obj = FollowFb.generate(value);
-
-        // get list reference
-        DatabaseReference ref = getReference(Path.FOLLOW).push();
-        ref.setValue(obj);
-        return ref.getKey();
+    private String insertFollowValue(FbBatch batch, ContentValues value) {
+        return batch.insert(Path.FOLLOW, FollowFb.generate(value));
     }
 
     /**
      * Insert multiple new follow rows into the database
+     * @param batch Batch to add inserts to
      * @param values Data in insert
      * @return  Ids for new row
      */
-    private String[] insertFollowValues(ContentValues[] values) {
+    private String[] insertFollowValues(FbBatch batch, ContentValues[] values) {
         String[] ids = new String[values.length];
         for (int i = 0; i < values.length; i++) {
-            ids[i] = insertFollowValue(values[i]);
+            ids[i] = insertFollowValue(batch, values[i]);
         }
         return ids;
     }
 
     /**
      * Insert a new pinned row into the database
+     * @param batch Batch to add insert to
      * @param value Data in insert
      * @return  Id for new row
      */
-    private String insertPinnedValue(ContentValues value) {
-        PinnedFb obj = PinnedFb.generate(value);
-
-        // get list reference
-        DatabaseReference ref = getReference(Path.PINNED).push();
-        ref.setValue(obj);
-        return ref.getKey();
+    private String insertPinnedValue(FbBatch batch, ContentValues value) {
+        return batch.insert(Path.PINNED, PinnedFb.generate(value));
     }
 
     /**
      * Insert multiple new pinned rows into the database
+     * @param batch Batch to add inserts to
      * @param values Data in insert
      * @return  Ids for new row
      */
-    private String[] insertPinnedValues(ContentValues[] values) {
+    private String[] insertPinnedValues(FbBatch batch, ContentValues[] values) {
         String[] ids = new String[values.length];
         for (int i = 0; i < values.length; i++) {
-            ids[i] = insertPinnedValue(values[i]);
+            ids[i] = insertPinnedValue(batch, values[i]);
         }
         return ids;
     }
 
     /**
      * Insert new config data into the database
+     * @param batch Batch to add insert to
      * @param value Data in insert
      * @return  Id for object
      */
-    private String insertConfigValue(ContentValues value) {
-        ConfigFb obj = ConfigFb.generate(value);
-
-        // get object reference
-        DatabaseReference ref = getReference(Path.CONFIG);
-        ref.setValue(obj);
-        return ref.getKey();
+    private String insertConfigValue(FbBatch batch, ContentValues value) {
+        batch.set(Path.CONFIG, ConfigFb.generate(value));
+        return Path.CONFIG;
     }
 
     /**
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.ianbuttimer.tidderish.data.provider;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Interface for a source of Firebase Realtime database node values.<br>
+ * Decouples {@link FbMirror} from <code>DatabaseReference</code>, so it may be driven by an
+ * in-process source.
+ */
+public interface IFbNodeSource {
+
+    /**
+     * Listener for changes to the value of a node
+     */
+    interface NodeListener {
+
+        /**
+         * The value of a node has changed
+         * @param node  Node name
+         * @param value New value, as returned by <code>DataSnapshot.getValue()</code>
+         */
+        void onNodeChange(String node, @Nullable Object value);
+
+        /**
+         * The listener for a node has been cancelled, e.g. permission denied.
+         * No further changes will be reported.
+         * @param node      Node name
+         * @param message   Reason
+         */
+        void onNodeCancelled(String node, String message);
+    }
+
+    /**
+     * Add a listener for changes to a node, which is immediately called with the current value
+     * @param node      Node name
+     * @param listener  Listener to add
+     */
+    void addNodeListener(String node, NodeListener listener);
+
+    /**
+     * Remove a listener for changes to a node
+     * @param node      Node name
+     * @param listener  Listener to remove
+     */
+    void removeNodeListener(String node, NodeListener listener);
+}
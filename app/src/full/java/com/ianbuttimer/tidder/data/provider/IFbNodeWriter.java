@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.ianbuttimer.tidderish.data.provider;
+
+import java.util.Map;
+
+/**
+ * Interface for a writer of Firebase Realtime database node values.<br>
+ * Decouples {@link FbBatch} from <code>DatabaseReference</code>, so it may be committed to an
+ * in-process writer.
+ */
+public interface IFbNodeWriter {
+
+    /**
+     * Generate a new unique key for a child of a node
+     * @param node  Node name
+     * @return  New key
+     */
+    String newKey(String node);
+
+    /**
+     * Atomically write multiple values
+     * @param updates   Map of path, relative to the writer's reference, to new value;
+     *                  <code>null</code> values remove the path
+     */
+    void update(Map<String, Object> updates);
+}
@@ -32,19 +32,24 @@ public class QueryValueEventListener extends AbstractValueEventListener<Cursor>
 
     private final IFbCursorable mFbCursorable;
 
-    private MatrixCursor mCursor;
+    private volatile MatrixCursor mCursor;
+    /** Cursor being filled from the responses to the queries */
+    private MatrixCursor mRows;
 
     public QueryValueEventListener(IFbCursorable fbCursorable) {
         super();
         mFbCursorable = fbCursorable;
         mCursor = mFbCursorable.getCursor(0);
+        mRows = null;
     }
 
     @Override
     public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
 
-        mCursor = mFbCursorable.getCursor(
-                Long.valueOf(dataSnapshot.getChildrenCount()).intValue());
+        if (mRows == null) {
+            mRows = mFbCursorable.getCursor(
+                    Long.valueOf(dataSnapshot.getChildrenCount()).intValue());
+        }
 
         ArrayList<DataSnapshot> filtered = mFbQuery.filterChildren(dataSnapshot);
         for (DataSnapshot objSnapshot : filtered) {
@@ -52,12 +57,18 @@ public class QueryValueEventListener extends AbstractValueEventListener<Cursor>
                 IFbCursorable obj = objSnapshot.getValue(mFbCursorable.getClass());
                 if (obj != null) {
                     obj.setId(objSnapshot.getKey());
-                    obj.addToCursor(mCursor);
+                    obj.addToCursor(mRows);
                 }
             }
         }
 
         super.onDataChange(dataSnapshot);
+
+        if (isComplete()) {
+            // only publish once all the queries have responded, so a late response after a
+            // timeout doesn't alter the result
+            mCursor = mRows;
+        }
     }
 
     @Override
@@ -29,31 +29,50 @@ import java.util.ArrayList;
 
 public class UpdateValueEventListener extends AbstractValueEventListener<Integer> {
 
+    private final FbBatch mBatch;
+    private final String mNode;
     private Class<? extends AbstractFbRow> mClass;
     private ContentValues mValues;
     private int mCount;
 
-    public UpdateValueEventListener() {
+    /**
+     * Constructor
+     * @param batch Batch to add updates to
+     * @param node  Node being queried
+     */
+    public UpdateValueEventListener(FbBatch batch, String node) {
         super();
+        mBatch = batch;
+        mNode = node;
         mCount = 0;
     }
 
-    public UpdateValueEventListener(Class<? extends AbstractFbRow> objClass, ContentValues values) {
-        this();
+    /**
+     * Constructor
+     * @param batch     Batch to add updates to
+     * @param node      Node being queried
+     * @param objClass  Class of node children
+     * @param values    Values to update
+     */
+    public UpdateValueEventListener(FbBatch batch, String node,
+                                    Class<? extends AbstractFbRow> objClass, ContentValues values) {
+        this(batch, node);
         setClass(objClass);
         setValues(values);
     }
 
     @Override
     public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-        mCount = 0;
 
         ArrayList<DataSnapshot> filtered = mFbQuery.filterChildren(dataSnapshot);
         for (DataSnapshot objSnapshot : filtered) {
             if (objSnapshot != null) {
-                Object dbObj = objSnapshot.getValue(mClass);
-                mClass.cast(dbObj).update(mValues);
-                ++mCount;
+                AbstractFbRow dbObj = objSnapshot.getValue(mClass);
+                if (dbObj != null) {
+                    dbObj.update(mValues);
+                    mBatch.set(mNode, objSnapshot.getKey(), dbObj);
+                    ++mCount;
+                }
             }
         }
 
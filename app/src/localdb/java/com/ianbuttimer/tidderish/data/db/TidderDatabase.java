@@ -26,6 +26,9 @@ import net.simonvt.schematic.annotation.OnCreate;
 import net.simonvt.schematic.annotation.OnUpgrade;
 import net.simonvt.schematic.annotation.Table;
 
+import java.util.ArrayList;
+import java.util.Collections;
+
 import timber.log.Timber;
 
 /**
@@ -40,23 +43,39 @@ public final class TidderDatabase extends AbstractDatabase {
     private TidderDatabase() {
     }
 
-    public static final int VERSION = 1;
+    public static final int VERSION = 2;
 
-    private static final String RECREATE_MIGRATION;
+    /** Indexes for lookups by subreddit and fullname; unique as each may only be followed/pinned once */
+    static final String[] INDEXES = {
+        "CREATE UNIQUE INDEX IF NOT EXISTS " + TableNames.FOLLOW + "_" + FollowColumns.SUBREDDIT + "_idx" +
+                " ON " + TableNames.FOLLOW + " (" + FollowColumns.SUBREDDIT + ")",
+        "CREATE UNIQUE INDEX IF NOT EXISTS " + TableNames.PINNED + "_" + PinnedColumns.FULLNAME + "_idx" +
+                " ON " + TableNames.PINNED + " (" + PinnedColumns.FULLNAME + ")",
+    };
 
-    static {
-        RECREATE_MIGRATION = "recreate";
-    }
+    /** Remove duplicate rows, keeping the oldest, so unique indexes may be created */
+    private static final String[] REMOVE_DUPLICATES = {
+        "DELETE FROM " + TableNames.FOLLOW + " WHERE " + FollowColumns.ID + " NOT IN" +
+                " (SELECT MIN(" + FollowColumns.ID + ") FROM " + TableNames.FOLLOW +
+                " GROUP BY " + FollowColumns.SUBREDDIT + ")",
+        "DELETE FROM " + TableNames.PINNED + " WHERE " + PinnedColumns.ID + " NOT IN" +
+                " (SELECT MIN(" + PinnedColumns.ID + ") FROM " + TableNames.PINNED +
+                " GROUP BY " + PinnedColumns.FULLNAME + ")",
+    };
 
-    private static final String[] MIGRATIONS = {
-        // Put DDL/DML commands here, one string per VERSION increment
-        /* ver 1 - 2 */ RECREATE_MIGRATION,
-        /* ver 2 - 3 */ RECREATE_MIGRATION,
-        /* ver 3 - 4 */ RECREATE_MIGRATION,
-        /* ver 4 - 5 */ RECREATE_MIGRATION,
-        /* ver 5 - 6 */ RECREATE_MIGRATION,
+    private static final String[][] MIGRATIONS = {
+        // Put DDL/DML commands here, one array per VERSION increment
+        /* ver 1 - 2 */ concat(REMOVE_DUPLICATES, INDEXES),
     };
 
+    private static String[] concat(String[]... arrays) {
+        ArrayList<String> list = new ArrayList<>();
+        for (String[] array : arrays) {
+            Collections.addAll(list, array);
+        }
+        return list.toArray(new String[0]);
+    }
+
     public static class Tables {
         @Table(FollowColumns.class) @IfNotExists public static final String FOLLOW = TableNames.FOLLOW;
         @Table(PinnedColumns.class) @IfNotExists public static final String PINNED = TableNames.PINNED;
@@ -64,54 +83,34 @@ public final class TidderDatabase extends AbstractDatabase {
 
     @OnCreate
     public static void onCreate(Context context, SQLiteDatabase db) {
-        // no op
+        for (String ddlCmd : INDEXES) {
+            db.execSQL(ddlCmd);
+        }
     }
 
     @OnUpgrade
     public static void onUpgrade(Context context, SQLiteDatabase db, int oldVersion,
                                             int newVersion) {
-        boolean recreated = false;
         for (int i = oldVersion; i < newVersion; i++) {
-            String migration = MIGRATIONS[i - 2];   // array 0-based, version started at 1, so 1st upgrade is 2
-            if (RECREATE_MIGRATION.equals(migration)) {
-                if (!recreated) {
-                    recreateDatabase(context, db);
-                    recreated = true;
-                }
-            } else {
-                db.beginTransaction();
-                try {
-                    db.execSQL(migration);
-                    db.setTransactionSuccessful();
-                } catch (Exception e) {
-                    Timber.e(e, "Error executing database migration: %s", migration);
-                    break;
-                } finally {
-                    db.endTransaction();
-                }
-            }
-        }
-    }
-
-    private static void recreateDatabase(Context context, SQLiteDatabase db) {
-        for (String table : TABLE_NAMES) {
-            String ddlCmd = "DROP TABLE IF EXISTS " + table + ";";
+            String[] migration = MIGRATIONS[i - 1];   // array 0-based, version started at 1, so 1st upgrade is 1 - 2
             db.beginTransaction();
             try {
-                db.execSQL(ddlCmd);
+                for (String cmd : migration) {
+                    db.execSQL(cmd);
+                }
                 db.setTransactionSuccessful();
             } catch (Exception e) {
-                Timber.e(e, "Error executing database migration: %s", ddlCmd);
+                Timber.e(e, "Error executing database migration %d - %d", i, i + 1);
                 break;
             } finally {
                 db.endTransaction();
             }
         }
-        com.ianbuttimer.tidderish.data.db.gen.TidderDatabase.getInstance(context).onCreate(db);
     }
 
-
     @OnConfigure
     public static void onConfigure(SQLiteDatabase db) {
+        // readers don't block the writer, e.g. follow status checks while following
+        db.enableWriteAheadLogging();
     }
 }
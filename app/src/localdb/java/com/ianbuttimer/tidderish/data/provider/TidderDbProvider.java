@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.ianbuttimer.tidderish.data.provider;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.UriMatcher;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteStatement;
+import android.net.Uri;
+import android.provider.BaseColumns;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ianbuttimer.tidderish.data.db.AbstractDatabase.TableNames;
+import com.ianbuttimer.tidderish.data.db.FollowColumns;
+import com.ianbuttimer.tidderish.data.db.PinnedColumns;
+import com.ianbuttimer.tidderish.data.db.gen.TidderDatabase;
+import com.ianbuttimer.tidderish.net.UriUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Content provider for database.<br>
+ * Extends the generated provider to insert follow and pinned rows with reusable compiled
+ * statements. Inserts of an already followed subreddit or pinned post are ignored rather than
+ * violating the unique index, and return the existing row.
+ */
+public class TidderDbProvider extends com.ianbuttimer.tidderish.data.db.gen.TidderProvider {
+
+    private static final int FOLLOW_CONTENT_URI = 0;
+    private static final int PINNED_CONTENT_URI = 1;
+
+    private static final UriMatcher MATCHER = new UriMatcher(UriMatcher.NO_MATCH);
+
+    static {
+        MATCHER.addURI(TidderProvider.AUTHORITY, BaseProvider.Path.FOLLOW, FOLLOW_CONTENT_URI);
+        MATCHER.addURI(TidderProvider.AUTHORITY, BaseProvider.Path.PINNED, PINNED_CONTENT_URI);
+    }
+
+    /** Compiled statements, keyed by sql */
+    private final HashMap<String, SQLiteStatement> mStatements = new HashMap<>();
+
+    @Override
+    public Uri insert(@NonNull Uri uri, ContentValues values) {
+        Uri result;
+        int match = MATCHER.match(uri);
+        if ((match == FOLLOW_CONTENT_URI) || (match == PINNED_CONTENT_URI)) {
+            long id = insertRow(getDatabase(), match, values);
+            result = (id >= 0 ? UriUtils.getWithIdUri(uri, String.valueOf(id)) : null);
+            if (result != null) {
+                notifyUris(BaseProvider.onInsert(uri, values));
+            }
+        } else {
+            result = super.insert(uri, values);
+        }
+        return result;
+    }
+
+    /**
+     * Insert multiple rows in a single transaction
+     * @param uri       Uri to insert at
+     * @param values    Rows to insert
+     * @return  Number of rows inserted or already present
+     */
+    @Override
+    public int bulkInsert(@NonNull Uri uri, @NonNull ContentValues[] values) {
+        int count;
+        int match = MATCHER.match(uri);
+        if ((match == FOLLOW_CONTENT_URI) || (match == PINNED_CONTENT_URI)) {
+            SQLiteDatabase db = getDatabase();
+            long[] ids = new long[values.length];
+            count = 0;
+            db.beginTransaction();
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    ids[i] = insertRow(db, match, values[i]);
+                    if (ids[i] >= 0) {
+                        ++count;
+                    }
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            notifyUris(BaseProvider.onBulkInsert(getContext(), uri, values, ids));
+        } else {
+            count = super.bulkInsert(uri, values);
+        }
+        return count;
+    }
+
+    private SQLiteDatabase getDatabase() {
+        return TidderDatabase.getInstance(getContext()).getWritableDatabase();
+    }
+
+    /**
+     * Insert a row, or find the existing row if the subreddit/post is already in the table
+     * @param db        Database
+     * @param match     Table match
+     * @param values    Values to insert
+     * @return  Row id or -1 if unable to insert
+     */
+    private long insertRow(SQLiteDatabase db, int match, ContentValues values) {
+        String table;
+        String keyColumn;
+        if (match == FOLLOW_CONTENT_URI) {
+            table = TableNames.FOLLOW;
+            keyColumn = FollowColumns.SUBREDDIT;
+        } else {
+            table = TableNames.PINNED;
+            keyColumn = PinnedColumns.FULLNAME;
+        }
+
+        List<String> columns = new ArrayList<>(values.keySet());
+        Collections.sort(columns);  // consistent order for statement reuse
+
+        long id;
+        // take the connection before the statements lock, the same order as bulk inserts which
+        // hold a transaction across rows; nested within a bulk insert transaction
+        db.beginTransaction();
+        try {
+            synchronized (mStatements) {
+                SQLiteStatement insert = getStatement(db, insertSql(table, columns));
+                insert.clearBindings();
+                for (int i = 0; i < columns.size(); i++) {
+                    DatabaseUtils.bindObjectToProgram(insert, i + 1, values.get(columns.get(i)));
+                }
+                id = insert.executeInsert();
+
+                if ((id < 0) && values.containsKey(keyColumn)) {
+                    // ignored as already present
+                    SQLiteStatement select = getStatement(db, selectIdSql(table, keyColumn));
+                    select.clearBindings();
+                    DatabaseUtils.bindObjectToProgram(select, 1, values.get(keyColumn));
+                    try {
+                        id = select.simpleQueryForLong();
+                    } catch (SQLiteDoneException e) {
+                        id = -1;
+                    }
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return id;
+    }
+
+    /**
+     * Get a compiled statement, compiling it if necessary.<br>
+     * <b>Note:</b> must be called in a transaction, holding the statements lock
+     * @param db    Database
+     * @param sql   Statement sql
+     * @return  Compiled statement
+     */
+    private SQLiteStatement getStatement(SQLiteDatabase db, String sql) {
+        SQLiteStatement statement = mStatements.get(sql);
+        if (statement == null) {
+            statement = db.compileStatement(sql);
+            mStatements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    private static String insertSql(String table, List<String> columns) {
+        StringBuilder sb = new StringBuilder("INSERT OR IGNORE INTO ")
+                .append(table).append(" (");
+        StringBuilder params = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+                params.append(',');
+            }
+            sb.append(columns.get(i));
+            params.append('?');
+        }
+        return sb.append(") VALUES (").append(params).append(')').toString();
+    }
+
+    private static String selectIdSql(String table, String keyColumn) {
+        return "SELECT " + BaseColumns._ID + " FROM " + table + " WHERE " + keyColumn + "=?";
+    }
+
+    /**
+     * Notify registered observers that rows have changed
+     * @param notifyUris    Uris of the content that has changed
+     */
+    private void notifyUris(@Nullable Uri[] notifyUris) {
+        Context context = getContext();
+        if ((context != null) && (notifyUris != null)) {
+            ContentResolver contentResolver = context.getContentResolver();
+            for (Uri notifyUri : notifyUris) {
+                contentResolver.notifyChange(notifyUri, null);
+            }
+        }
+    }
+}
@@ -99,12 +99,12 @@ public final class TidderProvider {
             return BaseProvider.onBulkInsert(context, uri, values, ids);
         }
 
-        @NotifyUpdate(paths = Path.FOLLOW_FRAGMENT)
+        @NotifyUpdate(paths = {Path.FOLLOW, Path.FOLLOW_FRAGMENT})
         public static Uri[] onUpdate(Context context, Uri uri, String where, String[] whereArgs) {
             return BaseProvider.onUpdate(context, uri, where, whereArgs);
         }
 
-        @NotifyDelete(paths = Path.FOLLOW_FRAGMENT)
+        @NotifyDelete(paths = {Path.FOLLOW, Path.FOLLOW_FRAGMENT})
         public static Uri[] onDelete(Context context, Uri uri) {
             return BaseProvider.onDelete(context, uri);
         }
@@ -138,12 +138,12 @@ public final class TidderProvider {
             return BaseProvider.onBulkInsert(context, uri, values, ids);
         }
 
-        @NotifyUpdate(paths = Path.PINNED_FRAGMENT)
+        @NotifyUpdate(paths = {Path.PINNED, Path.PINNED_FRAGMENT})
         public static Uri[] onUpdate(Context context, Uri uri, String where, String[] whereArgs) {
             return BaseProvider.onUpdate(context, uri, where, whereArgs);
         }
 
-        @NotifyDelete(paths = Path.PINNED_FRAGMENT)
+        @NotifyDelete(paths = {Path.PINNED, Path.PINNED_FRAGMENT})
         public static Uri[] onDelete(Context context, Uri uri) {
             return BaseProvider.onDelete(context, uri);
         }
@@ -26,7 +26,9 @@ import android.util.Log;
 
 import com.ianbuttimer.tidderish.net.NetworkStatusReceiver;
 import com.ianbuttimer.tidderish.reddit.Api;
+import com.ianbuttimer.tidderish.reddit.CacheBudget;
 import com.ianbuttimer.tidderish.utils.DebugTree;
+import com.ianbuttimer.tidderish.utils.HtmlRenderer;
 
 import java.lang.ref.WeakReference;
 
@@ -75,6 +77,14 @@ public class TidderApplication extends MultiDexApplication {
         mConfigErrorMsg = Api.isConfigValid(context);
     }
 
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+
+        CacheBudget.onTrimMemory(level);
+        HtmlRenderer.getInstance().onTrimMemory(level);
+    }
+
     /**
      * Provide a weak reference to the application context for use by non-context classes<br>
      * @return  weak context reference
@@ -34,7 +34,7 @@ import java.net.URL;
 @SuppressWarnings("unused")
 public abstract class AbstractResultWrapper {
 
-    public enum ResultType { STRING, STRING_ARRAY, INTEGER, CURSOR, URI, BUNDLE, ERROR;
+    public enum ResultType { STRING, STRING_ARRAY, INTEGER, CURSOR, URI, BUNDLE, OBJECT, ERROR;
 
         public void addToBundle(Bundle bundle, String key) {
             bundle.putInt(key, ordinal() + 1);  // use +1 offset as ordinal starts at 0
@@ -65,6 +65,7 @@ public abstract class AbstractResultWrapper {
     protected Cursor mCursorResult;          // returned from query
     protected Uri mUriResult;                // returned from insert
     protected Bundle mBundleResult;          // returned from uri call
+    protected Object mObjectResult;          // returned from url call with parsed response
 
     // members for error resultText
     protected int mErrorCode;                // error resultText code
@@ -90,6 +91,21 @@ public abstract class AbstractResultWrapper {
         this.mResultType = ResultType.STRING;
     }
 
+    /**
+     * Constructor
+     * @param handler       Type of mHandler required to process this object
+     * @param urlRequest    Original request URL
+     * @param objectResult  Parsed response
+     * @param responseClass Class representing response
+     */
+    public AbstractResultWrapper(@NonNull ICallback.ResponseHandler handler,
+                                 @NonNull URL urlRequest, Object objectResult,
+                                 @Nullable Class<?> responseClass) {
+        initUrl(handler, urlRequest, responseClass);
+        this.mObjectResult = objectResult;
+        this.mResultType = ResultType.OBJECT;
+    }
+
     /**
      * Constructor
      * @param handler       Type of mHandler required to process this object
@@ -287,6 +303,13 @@ public abstract class AbstractResultWrapper {
         return mBundleResult;
     }
 
+    public Object getObjectResult() {
+        if (!isObject()) {
+            throw new IllegalStateException("Not object result");
+        }
+        return mObjectResult;
+    }
+
     public Pair<Integer, String> getErrorResult() {
         if (!isError()) {
             throw new IllegalStateException("Not error result");
@@ -380,6 +403,14 @@ public abstract class AbstractResultWrapper {
         return isResultType(ResultType.BUNDLE);
     }
 
+    /**
+     * Check if this object represents an object resultText
+     * @return  <code>true</code> if this object is an object resultText, <code>false</code> otherwise
+     */
+    public boolean isObject() {
+        return isResultType(ResultType.OBJECT);
+    }
+
     /**
      * Check if this object represents an error resultText
      * @return  <code>true</code> if this object is an error resultText, <code>false</code> otherwise
@@ -82,15 +82,19 @@ public class ApiResponseCallback<E extends AbstractEvent<E>> extends AsyncCallba
     @Override
     @Nullable public Response<? extends BaseObject<?>> processUriResponse(@Nullable AbstractResultWrapper response) {
         Response<? extends BaseObject<?>> newResponse = null;
-        if ((response != null) && response.isString()) {
+        if ((response != null) && (response.isString() || response.isObject())) {
             Class<?> responseClass = response.getResponseClass();
             if (responseClass != null) {
-                String stringResult = response.getStringResult();
                 E event = null;
 
                 try {
-                    newResponse = (Response<? extends BaseObject<?>>)responseClass.newInstance();
-                    newResponse.parseJson(stringResult);
+                    if (response.isObject()) {
+                        // already parsed from the response stream
+                        newResponse = (Response<? extends BaseObject<?>>)response.getObjectResult();
+                    } else {
+                        newResponse = (Response<? extends BaseObject<?>>)responseClass.newInstance();
+                        newResponse.parseJson(response.getStringResult());
+                    }
 
                     // SEARCH FLOW 3a. post subreddit interests search result
                     // SEARCH FLOW 3b. post subreddit name search result
@@ -33,6 +33,7 @@ import com.ianbuttimer.tidderish.net.NetworkUtils;
 import com.ianbuttimer.tidderish.reddit.ClientService;
 import com.ianbuttimer.tidderish.reddit.RedditClient;
 import com.ianbuttimer.tidderish.reddit.Request;
+import com.ianbuttimer.tidderish.reddit.ResponseParser;
 import com.ianbuttimer.tidderish.reddit.ResponseReceiver;
 import com.ianbuttimer.tidderish.reddit.post.PostRequest;
 
@@ -175,11 +176,36 @@ public abstract class AsyncCallback<T> implements ICallback<T>, LoaderManager.Lo
                 AbstractResultWrapper result;
 
                 if (resultCode == RESULT_OK) {
-                    result = new UrlResultWrapper(extractor.requestUrl(), mResultText,
-                            extractor.responseClass());
-                    result.setAdditionalInfo(extractor.additionalInfo());
+                    final URL requestUrl = extractor.requestUrl();
+                    final Class<?> responseClass = extractor.responseClass();
+                    final Bundle additionalInfo = extractor.additionalInfo();
+                    final String resultText = mResultText;
+                    if (mResponse != null) {
+                        // already parsed on request thread
+                        result = new UrlResultWrapper(requestUrl, (Object) mResponse, responseClass);
+                        result.setAdditionalInfo(additionalInfo);
+
+                        processUriResponse(result);
+                    } else if (responseClass != null) {
+                        // parse off the main thread, and process the finished response
+                        ResponseParser.getInstance().parse(responseClass, resultText,
+                                response -> {
+                                    AbstractResultWrapper parsed;
+                                    if (response != null) {
+                                        parsed = new UrlResultWrapper(requestUrl, (Object) response, responseClass);
+                                    } else {
+                                        parsed = new UrlResultWrapper(requestUrl, resultText, responseClass);
+                                    }
+                                    parsed.setAdditionalInfo(additionalInfo);
+
+                                    processUriResponse(parsed);
+                                });
+                    } else {
+                        result = new UrlResultWrapper(requestUrl, resultText, null);
+                        result.setAdditionalInfo(additionalInfo);
 
-                    processUriResponse(result);
+                        processUriResponse(result);
+                    }
                 } else if (resultCode == RESULT_CANCELED) {
 
                     onFailure(mHttpCode, mResultText);
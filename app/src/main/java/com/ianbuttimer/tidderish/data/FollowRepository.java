@@ -0,0 +1,401 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.ianbuttimer.tidderish.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ianbuttimer.tidderish.data.db.AbstractDatabase.TableNames;
+import com.ianbuttimer.tidderish.data.db.FollowColumns;
+import com.ianbuttimer.tidderish.data.db.PinnedColumns;
+import com.ianbuttimer.tidderish.data.provider.ProviderUri;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ianbuttimer.tidderish.reddit.Subreddit.DEFAULT_KEY_COLOUR;
+
+/**
+ * Process-wide in-memory copy of the followed subreddits and pinned posts.<br>
+ * The tables are loaded once, and kept up to date by the content provider change hooks in
+ * {@link com.ianbuttimer.tidderish.data.provider.BaseProvider}; inserts are applied directly,
+ * while updates and deletes, whose rows are not known, reload the table. Membership and list
+ * queries are answered synchronously; while a table is not loaded they return <code>null</code>
+ * and the content provider should be queried instead. As the tables are specific to the user,
+ * they are {@link #reset()} when the user changes.<br>
+ * This class is a singleton.
+ */
+public class FollowRepository {
+
+    private static FollowRepository sInstance = null;     // singleton instance
+
+    private final Executor mLoader;
+
+    private Context mContext;   // application context, set once loading is requested
+    /** Followed subreddits keyed by subreddit name, or <code>null</code> if not loaded */
+    private LinkedHashMap<String, Follow> mFollowing;
+    /** Pinned posts keyed by fullname, or <code>null</code> if not loaded */
+    private LinkedHashMap<String, Pinned> mPinned;
+    /** Generation of the tables, incremented on every change to detect changes during a load */
+    private int mFollowGeneration;
+    private int mPinnedGeneration;
+
+    private final AtomicInteger mHits = new AtomicInteger();
+    private final AtomicInteger mMisses = new AtomicInteger();
+    private final AtomicInteger mLoads = new AtomicInteger();
+    private final AtomicInteger mInserts = new AtomicInteger();
+
+    /**
+     * Constructor
+     */
+    private FollowRepository() {
+        mLoader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "FollowRepository");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the repository
+     * @return  Repository reference
+     */
+    public static synchronized FollowRepository getInstance() {
+        if (sInstance == null) {
+            sInstance = new FollowRepository();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Load the tables in the background, if not already requested
+     * @param context   The current context
+     */
+    public void load(@NonNull Context context) {
+        boolean request;
+        synchronized (this) {
+            request = (mContext == null);
+            if (request) {
+                mContext = context.getApplicationContext();
+            }
+        }
+        if (request) {
+            reload(TableNames.FOLLOW);
+            reload(TableNames.PINNED);
+        }
+    }
+
+    /**
+     * Get all the followed subreddits
+     * @return  list or <code>null</code> if not loaded
+     */
+    @Nullable
+    public synchronized ArrayList<Follow> getFollowing() {
+        ArrayList<Follow> list = null;
+        if (count(mFollowing != null)) {
+            list = new ArrayList<>(mFollowing.values());
+        }
+        return list;
+    }
+
+    /**
+     * Get the followed subreddits from a list of subreddits
+     * @param subreddits    Subreddit names to check
+     * @return  list or <code>null</code> if not loaded
+     */
+    @Nullable
+    public synchronized ArrayList<Follow> getFollowing(@NonNull List<String> subreddits) {
+        ArrayList<Follow> list = null;
+        if (count(mFollowing != null)) {
+            list = new ArrayList<>();
+            for (String subreddit : subreddits) {
+                Follow follow = mFollowing.get(subreddit);
+                if (follow != null) {
+                    list.add(follow);
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Get all the pinned posts
+     * @return  list or <code>null</code> if not loaded
+     */
+    @Nullable
+    public synchronized ArrayList<Pinned> getPinned() {
+        ArrayList<Pinned> list = null;
+        if (count(mPinned != null)) {
+            list = new ArrayList<>(mPinned.values());
+        }
+        return list;
+    }
+
+    /**
+     * Get a pinned post
+     * @param fullname  Fullname of post
+     * @return  list containing the post if pinned, or <code>null</code> if not loaded
+     */
+    @Nullable
+    public synchronized ArrayList<Pinned> getPinned(@NonNull String fullname) {
+        ArrayList<Pinned> list = null;
+        if (count(mPinned != null)) {
+            list = new ArrayList<>();
+            Pinned pinned = mPinned.get(fullname);
+            if (pinned != null) {
+                list.add(pinned);
+            }
+        }
+        return list;
+    }
+
+    private boolean count(boolean hit) {
+        (hit ? mHits : mMisses).incrementAndGet();
+        return hit;
+    }
+
+    /**
+     * A row has been inserted
+     * @param uri       Content uri of table
+     * @param values    Values of inserted row
+     */
+    public void onInsert(@NonNull Uri uri, @NonNull ContentValues values) {
+        onInsert(uri, new ContentValues[] { values }, new boolean[] { true });
+    }
+
+    /**
+     * Rows have been inserted
+     * @param uri       Content uri of table
+     * @param values    Values of rows
+     * @param inserted  Inserted flags corresponding to <code>values</code>; rows which the provider
+     *                  failed to insert are not applied
+     */
+    public void onInsert(@NonNull Uri uri, @NonNull ContentValues[] values, @NonNull boolean[] inserted) {
+        String table = getTable(uri);
+        if (TableNames.FOLLOW.equals(table)) {
+            synchronized (this) {
+                ++mFollowGeneration;
+                if (mFollowing != null) {
+                    for (int i = 0; i < values.length; i++) {
+                        if (inserted[i]) {
+                            Follow follow = newFollow(values[i]);
+                            if (!mFollowing.containsKey(follow.getSubreddit())) {
+                                mFollowing.put(follow.getSubreddit(), follow);  // duplicates are ignored
+                            }
+                            mInserts.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        } else if (TableNames.PINNED.equals(table)) {
+            synchronized (this) {
+                ++mPinnedGeneration;
+                if (mPinned != null) {
+                    for (int i = 0; i < values.length; i++) {
+                        if (inserted[i]) {
+                            Pinned pinned = newPinned(values[i]);
+                            if (!mPinned.containsKey(pinned.getFullname())) {
+                                mPinned.put(pinned.getFullname(), pinned);
+                            }
+                            mInserts.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rows have been updated or deleted
+     * @param uri   Content uri of table or row
+     */
+    public void onChange(@NonNull Uri uri) {
+        invalidate(getTable(uri));
+    }
+
+    /**
+     * Discard both tables and reload them, e.g. when the user changes or logs out
+     */
+    public void reset() {
+        invalidate(TableNames.FOLLOW);
+        invalidate(TableNames.PINNED);
+    }
+
+    /**
+     * Discard a table so it is unavailable until reloaded, and reload it if loading was requested
+     * @param table Table name
+     */
+    private void invalidate(@Nullable String table) {
+        boolean reload = false;
+        if (TableNames.FOLLOW.equals(table)) {
+            synchronized (this) {
+                ++mFollowGeneration;
+                mFollowing = null;  // changed rows unknown, so unavailable until reloaded
+                reload = (mContext != null);
+            }
+        } else if (TableNames.PINNED.equals(table)) {
+            synchronized (this) {
+                ++mPinnedGeneration;
+                mPinned = null;
+                reload = (mContext != null);
+            }
+        }
+        if (reload) {
+            reload(table);
+        }
+    }
+
+    /**
+     * Get the table a content uri refers to
+     * @param uri   Content uri
+     * @return  table name or <code>null</code> if unknown
+     */
+    @Nullable
+    private static String getTable(Uri uri) {
+        List<String> segments = uri.getPathSegments();
+        return (segments.isEmpty() ? null : segments.get(0));
+    }
+
+    /**
+     * Reload a table in the background
+     * @param table Table name
+     */
+    private void reload(final String table) {
+        mLoader.execute(() -> {
+            if (TableNames.FOLLOW.equals(table)) {
+                loadFollowing();
+            } else {
+                loadPinned();
+            }
+        });
+    }
+
+    private void loadFollowing() {
+        Context context;
+        int generation;
+        synchronized (this) {
+            context = mContext;
+            generation = mFollowGeneration;
+        }
+        Cursor cursor = context.getContentResolver()
+                .query(ProviderUri.FOLLOW_CONTENT_URI, null, null, null, null);
+        if (cursor != null) {
+            Follow[] array = FollowCursorProcessor.readArray(cursor);
+            LinkedHashMap<String, Follow> map = new LinkedHashMap<>();
+            if (array != null) {
+                for (Follow follow : array) {
+                    map.put(follow.getSubreddit(), follow);
+                }
+            }
+            boolean current;
+            synchronized (this) {
+                current = (generation == mFollowGeneration);
+                if (current) {
+                    mFollowing = map;
+                }
+            }
+            mLoads.incrementAndGet();
+            if (!current) {
+                reload(TableNames.FOLLOW);    // changed while loading
+            }
+        }
+    }
+
+    private void loadPinned() {
+        Context context;
+        int generation;
+        synchronized (this) {
+            context = mContext;
+            generation = mPinnedGeneration;
+        }
+        Cursor cursor = context.getContentResolver()
+                .query(ProviderUri.PINNED_CONTENT_URI, null, null, null, null);
+        if (cursor != null) {
+            Pinned[] array = PinnedCursorProcessor.readArray(cursor);
+            LinkedHashMap<String, Pinned> map = new LinkedHashMap<>();
+            if (array != null) {
+                for (Pinned pinned : array) {
+                    map.put(pinned.getFullname(), pinned);
+                }
+            }
+            boolean current;
+            synchronized (this) {
+                current = (generation == mPinnedGeneration);
+                if (current) {
+                    mPinned = map;
+                }
+            }
+            mLoads.incrementAndGet();
+            if (!current) {
+                reload(TableNames.PINNED);    // changed while loading
+            }
+        }
+    }
+
+    private static Follow newFollow(ContentValues cv) {
+        Follow follow = new Follow();
+        if (cv.containsKey(FollowColumns.UUID)) {
+            follow.setUuid(cv.getAsString(FollowColumns.UUID));
+        }
+        if (cv.containsKey(FollowColumns.SUBREDDIT)) {
+            follow.setSubreddit(cv.getAsString(FollowColumns.SUBREDDIT));
+        }
+        Integer colour = cv.getAsInteger(FollowColumns.KEY_COLOUR);
+        follow.setKeyColour(colour != null ? colour : DEFAULT_KEY_COLOUR);
+        if (cv.containsKey(FollowColumns.ICON_IMG)) {
+            follow.setIconImg(cv.getAsString(FollowColumns.ICON_IMG));
+        }
+        return follow;
+    }
+
+    private static Pinned newPinned(ContentValues cv) {
+        Pinned pinned = new Pinned();
+        if (cv.containsKey(PinnedColumns.UUID)) {
+            pinned.setUuid(cv.getAsString(PinnedColumns.UUID));
+        }
+        if (cv.containsKey(PinnedColumns.FULLNAME)) {
+            pinned.setFullname(cv.getAsString(PinnedColumns.FULLNAME));
+        }
+        return pinned;
+    }
+
+    /**
+     * Get a summary of the repository statistics
+     * @return  statistics
+     */
+    @NonNull
+    public synchronized String getStats() {
+        return "FollowRepository{" +
+                "following=" + (mFollowing != null ? mFollowing.size() : -1) +
+                ", pinned=" + (mPinned != null ? mPinned.size() : -1) +
+                ", hits=" + mHits.get() +
+                ", misses=" + mMisses.get() +
+                ", loads=" + mLoads.get() +
+                ", inserts=" + mInserts.get() +
+                '}';
+    }
+}
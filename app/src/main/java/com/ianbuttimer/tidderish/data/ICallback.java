@@ -295,6 +295,16 @@ public interface ICallback<T> extends Callback {
                                 @Nullable Class<?> responseClass) {
             super(ResponseHandler.URL_HANDLER, urlRequest, stringResult, responseClass);
         }
+        /**
+         * Constructor
+         * @param urlRequest    Original request URL
+         * @param objectResult  Parsed response
+         * @param responseClass Class representing response
+         */
+        public UrlResultWrapper(@NonNull URL urlRequest, Object objectResult,
+                                @Nullable Class<?> responseClass) {
+            super(ResponseHandler.URL_HANDLER, urlRequest, objectResult, responseClass);
+        }
     }
 
     /**
@@ -20,101 +20,211 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.MatrixCursor;
 import android.os.Bundle;
+import android.os.SystemClock;
+import android.text.TextUtils;
 
 import com.ianbuttimer.tidderish.reddit.Link;
+import com.ianbuttimer.tidderish.reddit.Projection;
 import com.ianbuttimer.tidderish.reddit.RedditClient;
 import com.ianbuttimer.tidderish.reddit.Request;
+import com.ianbuttimer.tidderish.reddit.ResponseParser;
 import com.ianbuttimer.tidderish.reddit.ResponseReceiver;
 import com.ianbuttimer.tidderish.reddit.get.SubredditLinkRequest;
 import com.ianbuttimer.tidderish.reddit.get.SubredditLinkResponse;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import timber.log.Timber;
 
-import static android.app.Activity.RESULT_CANCELED;
 import static android.app.Activity.RESULT_OK;
 import static com.ianbuttimer.tidderish.data.PostsWidgetViewsService.WIDGET_CURSOR_COLUMNS;
 import static com.ianbuttimer.tidderish.data.PostsWidgetViewsService.makeCursorRow;
-
+import static com.ianbuttimer.tidderish.net.RedditUriBuilder.SUBREDDIT_MULTI_SEPARATOR;
+import static com.ianbuttimer.tidderish.reddit.ListingRequest.QUERY_LIMIT_MAX;
+
+/**
+ * Collector of the latest post from each of a list of subreddits, for the app widget.<br>
+ * Posts are fetched using combined listings, i.e. <code>r/a+b+c</code>, and assigned back to
+ * their subreddits. Subreddits whose posts are crowded out of a combined listing by busier
+ * subreddits are then fetched individually. All requests share a timeout budget, so the widget
+ * is never blocked indefinitely.
+ */
 public class PostsCollector {
 
+    /** Maximum number of subreddits in a combined listing request */
+    private static final int BATCH_SIZE = 25;
+    /** Overall time budget for collecting posts */
+    private static final long TIMEOUT_MS = TimeUnit.SECONDS.toMillis(20);
+    /** Maximum number of individual requests for subreddits missing from the combined listings */
+    private static final int MAX_INDIVIDUAL = 10;
+    /** Source which returns a single random post, so can't be combined */
+    private static final String RANDOM_SOURCE = "random";
+
     protected ArrayList<String> mSubreddits;
     protected String mSource;
     protected WeakReference<Context> mContext;
 
-    protected CountDownLatch mLatch;
-    protected MatrixCursor mCursor;
+    protected final HashMap<String, Link> mPosts;   // latest post by lowercase subreddit name
 
     public PostsCollector(Context context, ArrayList<String> subreddits, String source) {
         this.mContext = new WeakReference<>(context);
         this.mSubreddits = subreddits;
         this.mSource = source;
+        this.mPosts = new HashMap<>();
     }
 
 
     public Cursor getPosts() {
         int count = mSubreddits.size();
-        mCursor = new MatrixCursor(WIDGET_CURSOR_COLUMNS, count);
+        MatrixCursor cursor = new MatrixCursor(WIDGET_CURSOR_COLUMNS, count);
 
         if (count > 0) {
-            mLatch = new CountDownLatch(count);
+            long deadline = SystemClock.elapsedRealtime() + TIMEOUT_MS;
+
+            ArrayList<Request> requests = new ArrayList<>();
+            boolean combine = !RANDOM_SOURCE.equals(mSource);
+            if (combine) {
+                // combined listings, each returning the latest posts from a batch of subreddits
+                for (int start = 0; start < count; start += BATCH_SIZE) {
+                    List<String> batch = mSubreddits.subList(start, Math.min(start + BATCH_SIZE, count));
+                    requests.add(makeRequest(TextUtils.join(SUBREDDIT_MULTI_SEPARATOR, batch), QUERY_LIMIT_MAX));
+                }
+                send(requests, deadline);
+                requests.clear();
+            }
 
-            for (String name : mSubreddits) {
-                Request request = SubredditLinkRequest.builder()
-                        .subreddit(name, mSource)
-                        .limit(1)
-                        .build();    // build request
-
-                RedditClient.getClient().startServiceForGet(mContext.get(),
-                        request,
-                        mResultReceiverToLinkResponse);
+            // individual requests for subreddits not in the combined listings
+            for (String name : getMissing()) {
+                if (!combine || (requests.size() < MAX_INDIVIDUAL)) {
+                    requests.add(makeRequest(name, 1));
+                }
+            }
+            send(requests, deadline);
+
+            synchronized (mPosts) {
+                for (String name : mSubreddits) {
+                    Link link = mPosts.get(getKey(name));
+                    if (link != null) {
+                        cursor.addRow(makeCursorRow(mContext.get(), link));
+                    }
+                }
+            }
+            Timber.i("Widget posts: %d of %d subreddits", cursor.getCount(), count);
+        }
+
+        return cursor;
+    }
+
+    /**
+     * Make a request for the latest posts
+     * @param subreddit Subreddit name, or combined names
+     * @param limit     Maximum number of posts
+     * @return  request
+     */
+    private Request makeRequest(String subreddit, int limit) {
+        return SubredditLinkRequest.builder()
+                .subreddit(subreddit, mSource)
+                .limit(limit)
+                .build()    // build request
+                .setProjection(Projection.WIDGET);  // only need the fields displayed
+    }
+
+    /**
+     * Send requests and wait for their responses, within the time budget
+     * @param requests  Requests to send
+     * @param deadline  Time by which to stop waiting, in {@link SystemClock#elapsedRealtime()} base
+     */
+    private void send(List<Request> requests, long deadline) {
+        long remaining = deadline - SystemClock.elapsedRealtime();
+        if (!requests.isEmpty() && (remaining > 0)) {
+            // late responses from a previous send are counted against their own latch
+            CountDownLatch latch = new CountDownLatch(requests.size());
+            ResponseReceiver receiver = newLinkResponseReceiver(latch);
+
+            for (Request request : requests) {
+                RedditClient.getClient().startServiceForGet(mContext.get(), request, receiver);
             }
 
             try {
                 // wait for all responses
-                mLatch.await();
+                if (!latch.await(remaining, TimeUnit.MILLISECONDS)) {
+                    Timber.w("Widget posts timed out, %d responses outstanding", latch.getCount());
+                }
             } catch (InterruptedException e) {
                 Timber.e(e);
             }
         }
+    }
+
+    /**
+     * Get the subreddits without a post
+     * @return  list of subreddits
+     */
+    private ArrayList<String> getMissing() {
+        ArrayList<String> missing = new ArrayList<>();
+        synchronized (mPosts) {
+            for (String name : mSubreddits) {
+                if (!mPosts.containsKey(getKey(name))) {
+                    missing.add(name);
+                }
+            }
+        }
+        return missing;
+    }
 
-        return mCursor;
+    private static String getKey(String subreddit) {
+        return subreddit.toLowerCase(Locale.US);
     }
 
 
-    protected void addPost(SubredditLinkResponse response) {
+    protected void addPosts(SubredditLinkResponse response, CountDownLatch latch) {
 
         if ((response != null) && !response.isEmpty()) {
-            Link link = response.getItem(0);  // only want one
-            if (link != null) {
-                mCursor.addRow(makeCursorRow(link));
+            synchronized (mPosts) {
+                for (Link link : response.getList()) {
+                    // listing is in source order so the first post for a subreddit is the one wanted
+                    String key = getKey(link.getSubreddit());
+                    if (!mPosts.containsKey(key)) {
+                        mPosts.put(key, link);
+                    }
+                }
             }
         }
-        mLatch.countDown();
+        latch.countDown();
     }
 
     /**
-     * ResponseReceiver to convert response from IntentService to a UrlResultWrapper
+     * Get a ResponseReceiver to add the posts from responses from IntentService
+     * @param latch Latch to count responses with
+     * @return  receiver
      */
-    private final ResponseReceiver mResultReceiverToLinkResponse =
-            new ResponseReceiver() {
-                @Override
-                protected void onReceiveResult(int resultCode, Bundle resultData) {
-                    super.onReceiveResult(resultCode, resultData);
-
-                    SubredditLinkResponse result = null;
-                    if (resultCode == RESULT_OK) {
-
-                        result = new SubredditLinkResponse();
-                        result.parseJson(mResultText);
-                    } else if (resultCode == RESULT_CANCELED) {
-                        // no op
+    private ResponseReceiver newLinkResponseReceiver(final CountDownLatch latch) {
+        return new ResponseReceiver() {
+            @Override
+            protected void onReceiveResult(int resultCode, Bundle resultData) {
+                super.onReceiveResult(resultCode, resultData);
+
+                if (resultCode == RESULT_OK) {
+                    if (mResponse instanceof SubredditLinkResponse) {
+                        // already parsed on request thread
+                        addPosts((SubredditLinkResponse) mResponse, latch);
+                    } else {
+                        // parse off the main thread
+                        ResponseParser.getInstance().parse(SubredditLinkResponse.class, mResultText,
+                                Projection.WIDGET,
+                                response -> addPosts((SubredditLinkResponse) response, latch));
                     }
-                    addPost(result);
+                } else {
+                    addPosts(null, latch);
                 }
-            };
+            }
+        };
+    }
 
 }
@@ -19,26 +19,29 @@ package com.ianbuttimer.tidderish.data;
 import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
+import android.content.res.Resources;
 import android.database.Cursor;
 import android.database.MatrixCursor;
+import android.graphics.Bitmap;
 import android.net.Uri;
 import android.os.Bundle;
 import androidx.annotation.LayoutRes;
+import androidx.annotation.Nullable;
 import android.text.TextUtils;
 import android.view.View;
 import android.widget.RemoteViews;
 import android.widget.RemoteViewsService;
 
 import com.ianbuttimer.tidderish.R;
-import com.ianbuttimer.tidderish.data.db.FollowColumns;
-import com.ianbuttimer.tidderish.data.provider.ProviderUri;
 import com.ianbuttimer.tidderish.net.NetworkUtils;
 import com.ianbuttimer.tidderish.reddit.Link;
 import com.ianbuttimer.tidderish.reddit.RedditClient;
-import com.ianbuttimer.tidderish.utils.PreferenceControl;
+import com.ianbuttimer.tidderish.reddit.util.ImageSourceSelector;
+import com.ianbuttimer.tidderish.widget.WidgetBitmapCache;
+import com.ianbuttimer.tidderish.widget.WidgetRefreshScheduler;
+import com.ianbuttimer.tidderish.widget.WidgetSnapshot;
 
 import java.lang.ref.WeakReference;
-import java.util.ArrayList;
 import java.util.Arrays;
 
 import timber.log.Timber;
@@ -61,6 +64,12 @@ public class PostsWidgetViewsService extends RemoteViewsService {
         return new PostsWidgetViewsFactory(this, layoutId, widgetId);
     }
 
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        WidgetBitmapCache.getInstance().onTrimMemory(level);
+    }
+
     /**
      * Get a launcher intent for this service
      * @param context   Current context
@@ -123,18 +132,26 @@ public class PostsWidgetViewsService extends RemoteViewsService {
     private static final String COLUMN_NAME = "name";
     private static final String COLUMN_PERMALINK = "permalink";
     private static final String COLUMN_THUMBNAIL = "thumbnail";
+    private static final String COLUMN_THUMBNAIL_FILE = "thumbnail_file";
 
     public static final String[] WIDGET_CURSOR_COLUMNS = new String[] {
         COLUMN_TITLE, COLUMN_SCORE, COLUMN_COMMENTS, COLUMN_SUBREDDIT,  // first 4 same order as sTextViewIds
-            COLUMN_NAME, COLUMN_PERMALINK, COLUMN_THUMBNAIL
+            COLUMN_NAME, COLUMN_PERMALINK, COLUMN_THUMBNAIL, COLUMN_THUMBNAIL_FILE
     };
 
     private static final int TITLE_INDEX = 0;       // index of title in WIDGET_CURSOR_COLUMNS
-    private static final int NAME_INDEX = 4;        // index of name in WIDGET_CURSOR_COLUMNS
+    public static final int NAME_INDEX = 4;         // index of name in WIDGET_CURSOR_COLUMNS
     private static final int PERMALINK_INDEX = 5;   // index of permalink in WIDGET_CURSOR_COLUMNS
-    private static final int THUMBNAIL_INDEX = 6;   // index of thumbnail in WIDGET_CURSOR_COLUMNS
+    public static final int THUMBNAIL_INDEX = 6;    // index of thumbnail in WIDGET_CURSOR_COLUMNS
+    public static final int THUMBNAIL_FILE_INDEX = 7;   // index of downsampled thumbnail file in WIDGET_CURSOR_COLUMNS
 
-    public static Object[] makeCursorRow(Link link) {
+    /**
+     * Make a widget cursor row
+     * @param context   The current context
+     * @param link      Link to make row for, or <code>null</code> for the empty row
+     * @return  row values
+     */
+    public static Object[] makeCursorRow(Context context, @Nullable Link link) {
         Object[] row = new Object[WIDGET_CURSOR_COLUMNS.length];
         if (link != null) {
             int index = 0;
@@ -145,13 +162,15 @@ public class PostsWidgetViewsService extends RemoteViewsService {
             row[index++] = link.getName();
             row[index++] = link.getPermalink();
             String thumbnail = "";
-            if (link.isLoadableThumbnail()) {
-                Uri uri = link.getThumbnail();
-                if (uri != null) {
-                    thumbnail = uri.toString();
-                }
+            Resources resources = context.getResources();
+            Uri uri = ImageSourceSelector.selectUri(resources, link,
+                    resources.getDimensionPixelSize(R.dimen.widget_img_thumbnail_width),
+                    resources.getDimensionPixelSize(R.dimen.widget_img_thumbnail_height));
+            if (uri != null) {
+                thumbnail = uri.toString();
             }
             row[index++] = thumbnail;
+            row[index++] = "";  // downsampled by widget refresh
         } else {
             Arrays.fill(row, "");
         }
@@ -201,35 +220,18 @@ public class PostsWidgetViewsService extends RemoteViewsService {
 
             Context context = mContext.get();
             if (RedditClient.getClient().isAuthorised()) {
-
-                Cursor cursor = context.getContentResolver()
-                        .query(ProviderUri.FOLLOW_CONTENT_URI, null, null, null, null);
-
-
-                if (cursor != null) {
-                    // create posts cursor
-                    int count = cursor.getCount();
-
-                    mCursor = new MatrixCursor(WIDGET_CURSOR_COLUMNS, count);
-
-                    if (count > 0) {
-                        int index = cursor.getColumnIndex(FollowColumns.SUBREDDIT);
-
-                        ArrayList<String> subreddits = new ArrayList<>(count);
-
-                        while (cursor.moveToNext()) {
-                            subreddits.add(cursor.getString(index));
-                        }
-
-                        mCursor = new PostsCollector(context, subreddits,
-                                PreferenceControl.getPostSourcePreference(context))
-                                .getPosts();
-                    }
-                    cursor.close();
+                // posts are collected in the background, so only need to read the latest snapshot
+                WidgetSnapshot snapshot = WidgetSnapshot.read(context);
+                if (snapshot != null) {
+                    mCursor = snapshot.toCursor();
+                } else {
+                    mCursor = new MatrixCursor(WIDGET_CURSOR_COLUMNS, 0);
+
+                    WidgetRefreshScheduler.refreshNow(context);
                 }
             } else {
                 MatrixCursor cursor = new MatrixCursor(WIDGET_CURSOR_COLUMNS, 1);
-                cursor.addRow(makeCursorRow(null));
+                cursor.addRow(makeCursorRow(context, null));
 
                 mCursor = cursor;
             }
@@ -275,7 +277,7 @@ public class PostsWidgetViewsService extends RemoteViewsService {
                         String title = "";
                         String name = "";
                         String permalink = "";
-                        String thumbnail = "";
+                        String thumbnailFile = "";
                         for (int i = 0; i < WIDGET_CURSOR_COLUMNS.length; i++) {
                             int index = mCursor.getColumnIndex(WIDGET_CURSOR_COLUMNS[i]);
                             String value = mCursor.getString(index);
@@ -289,30 +291,22 @@ public class PostsWidgetViewsService extends RemoteViewsService {
                                 case PERMALINK_INDEX:
                                     permalink = value;
                                     break;
-                                case THUMBNAIL_INDEX:
-                                    thumbnail = value;
+                                case THUMBNAIL_FILE_INDEX:
+                                    thumbnailFile = value;
                                     break;
                             }
                             if (i < sTextViewIds.length) {
                                 views.setTextViewText(sTextViewIds[i], value);
                             }
+                        }
 
-                            // FIXME: 23/05/2018 Using Glide to download images into the list items, results in everything bar the images 'disappearing'
-//                            if (!TextUtils.isEmpty(thumbnail)) {
-//                                Uri uri = Uri.parse(thumbnail);
-//
-//                                AppWidgetTarget appWidgetTarget;
-//                                appWidgetTarget = new AppWidgetTarget(context, R.id.img_thumbnail_link_item, views, mWidgetId) {
-//                                    @Override
-//                                    public void onResourceReady(Bitmap resource, Transition<? super Bitmap> transition) {
-//                                        super.onResourceReady(resource, transition);
-//                                    }
-//                                };
-//
-//                                Handler handler = new Handler(Looper.getMainLooper());
-//                                handler.post(
-//                                        new WidgetImageLoader(context, appWidgetTarget, views, uri));
-//                            }
+                        /* thumbnails are downloaded at row size by the widget refresh, so can be set
+                            synchronously; remote views are recycled so always reset the image */
+                        Bitmap bitmap = WidgetBitmapCache.getInstance().get(context, thumbnailFile);
+                        if (bitmap != null) {
+                            views.setImageViewBitmap(R.id.img_thumbnail_link_item, bitmap);
+                        } else {
+                            views.setImageViewResource(R.id.img_thumbnail_link_item, R.drawable.ic_link);
                         }
 
                         // set the template fill in intent
@@ -31,8 +31,7 @@ import com.ianbuttimer.tidderish.reddit.BaseObject;
 import com.ianbuttimer.tidderish.reddit.Response;
 import com.ianbuttimer.tidderish.event.AbstractEvent;
 import com.ianbuttimer.tidderish.ui.ICommonEvents;
-
-import org.greenrobot.eventbus.EventBus;
+import com.ianbuttimer.tidderish.ui.widgets.PostOffice;
 
 import java.lang.ref.WeakReference;
 
@@ -69,29 +68,37 @@ public class QueryCallback<T extends AbstractEvent<T>> extends
         if ((response != null) && response.isCursor()) {
             Cursor cursor = response.getCursorResult();
             Uri request = response.getUriRequest();
-            T event = null;
 
             // TODO content provider callback should use similar method to ApiResponseCallback, thus eliminating need for Uris here
 
             if (ProviderUri.FOLLOW_CONTENT_URI.equals(request)) {
                 // SEARCH FLOW 7. post following status of subreddit list result
                 // ALL FLOW 7. post following status of subreddit list result
-                event = mEventFactory.newCpResponseResult(new FollowQueryResponse(cursor));
+                postResponse(new FollowQueryResponse(cursor), response.getAdditionalInfo());
             } else if (ProviderUri.PINNED_CONTENT_URI.equals(request)) {
-                event = mEventFactory.newCpResponseResult(new PinnedQueryResponse(cursor));
+                postResponse(new PinnedQueryResponse(cursor), response.getAdditionalInfo());
             } else if (ProviderUri.CONFIG_CONTENT_URI.equals(request)) {
-                event = mEventFactory.newCpResponseResult(new ConfigQueryResponse(cursor));
+                postResponse(new ConfigQueryResponse(cursor), response.getAdditionalInfo());
             }
+        }
+    }
 
-            if (event != null) {
-                EventBus.getDefault().post(
-                        mEventFactory.infoExtractor(
-                                event,
-                                response.getAdditionalInfo())
-                                .all()    // add all info
-                                .done()
-                );
-            }
+    /**
+     * Post a query response, e.g. for a query answered without the content provider
+     * @param response          Query response
+     * @param additionalInfo    Additional info of request
+     */
+    public void postResponse(@NonNull QueryResponse<? extends AbstractDbRow> response,
+                             @Nullable Bundle additionalInfo) {
+        T event = mEventFactory.newCpResponseResult(response);
+        if (event != null) {
+            PostOffice.postEvent(
+                    mEventFactory.infoExtractor(
+                            event,
+                            additionalInfo)
+                            .all()    // add all info
+                            .done()
+            );
         }
     }
 
@@ -23,10 +23,9 @@ import android.text.TextUtils;
 import com.ianbuttimer.tidderish.R;
 import com.ianbuttimer.tidderish.event.EventType;
 import com.ianbuttimer.tidderish.event.RedditClientEvent;
+import com.ianbuttimer.tidderish.ui.widgets.PostOffice;
 import com.ianbuttimer.tidderish.utils.Dialog;
 
-import org.greenrobot.eventbus.EventBus;
-
 import java.lang.ref.WeakReference;
 import java.util.Date;
 
@@ -100,7 +99,7 @@ public abstract class ResponseHandler<T> implements Runnable {
                 Dialog.showAlertDialog(activity.get(), mErrorId);
                 builder.messageRes(mErrorId);
             }
-            EventBus.getDefault().post(builder.build());
+            PostOffice.postEvent(builder.build());
         }
     }
 
@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.data;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+
+import androidx.annotation.Nullable;
+
+import com.ianbuttimer.tidderish.event.StandardEvent;
+import com.ianbuttimer.tidderish.reddit.BaseObject;
+import com.ianbuttimer.tidderish.reddit.RedditClient;
+import com.ianbuttimer.tidderish.reddit.RedditObject;
+import com.ianbuttimer.tidderish.reddit.Response;
+import com.ianbuttimer.tidderish.reddit.ResponseParser;
+import com.ianbuttimer.tidderish.reddit.ResponseReceiver;
+import com.ianbuttimer.tidderish.reddit.get.ThingAboutRequest;
+import com.ianbuttimer.tidderish.reddit.get.ThingAboutResponse;
+import com.ianbuttimer.tidderish.ui.widgets.PostOffice;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+
+import timber.log.Timber;
+
+import static android.app.Activity.RESULT_OK;
+
+/**
+ * Coalescer for GET /api/info requests.<br>
+ * Ids requested within a short window are gathered into a single request, up to the api limit of
+ * {@link #MAX_IDS} ids per request. When the responses arrive, each requester receives a result
+ * event containing only the things it asked for. If none of the requests for a requester succeed,
+ * the failure is passed to its callback.<br>
+ * This class is a singleton, and should only be used from the main thread.
+ */
+public class ThingAboutCoalescer {
+
+    /** Maximum number of ids in a single /api/info request */
+    public static final int MAX_IDS = 100;
+    /** Window in which to gather ids, in milliseconds */
+    private static final long WINDOW_MS = 50;
+
+    private static ThingAboutCoalescer sInstance = null;     // singleton instance
+
+    private final Handler mHandler;
+    @Nullable private Batch mBatch;     // batch currently gathering ids
+    private Context mContext;           // application context for requests
+
+    private int mRequested;     // number of ids requested
+    private int mSent;          // number of ids sent to server
+
+    /**
+     * Constructor
+     */
+    private ThingAboutCoalescer() {
+        mHandler = new Handler(Looper.getMainLooper());
+        mBatch = null;
+    }
+
+    /**
+     * Get the coalescer
+     * @return  Coalescer reference
+     */
+    public static synchronized ThingAboutCoalescer getInstance() {
+        if (sInstance == null) {
+            sInstance = new ThingAboutCoalescer();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Request info about things
+     * @param context   The current context
+     * @param event     Thing about request event
+     * @param callback  Callback to notify of failure
+     */
+    public void request(Context context, StandardEvent event,
+                        @Nullable ICallback<Response<? extends BaseObject<?>>> callback) {
+        mContext = context.getApplicationContext();
+
+        Waiter waiter = new Waiter(StandardEvent.getFactory().additionalInfoAll(event), callback);
+        for (String name : event.getNames()) {
+            if (!TextUtils.isEmpty(name) && waiter.mNames.add(name)) {
+                ++mRequested;
+                if (mBatch == null) {
+                    mBatch = new Batch();
+                    mHandler.postDelayed(mFlush, WINDOW_MS);
+                }
+                mBatch.add(name, waiter);
+                if (mBatch.mIds.size() >= MAX_IDS) {
+                    flush();
+                }
+            }
+        }
+        if (waiter.mPending == 0) {
+            waiter.deliver();   // nothing valid requested
+        }
+    }
+
+    private final Runnable mFlush = this::flush;
+
+    /**
+     * Send the batch currently gathering ids
+     */
+    private void flush() {
+        mHandler.removeCallbacks(mFlush);
+
+        final Batch batch = mBatch;
+        mBatch = null;
+        if ((batch != null) && !batch.mIds.isEmpty() && (mContext != null)) {
+            mSent += batch.mIds.size();
+            Timber.d("ThingAboutCoalescer: %d id(s) for %d requester(s), %d/%d ids sent",
+                    batch.mIds.size(), batch.mWaiters.size(), mSent, mRequested);
+
+            // address request to all requesters so it is only cancelled when they all are
+            ArrayList<String> addresses = new ArrayList<>();
+            for (Waiter waiter : batch.mWaiters) {
+                String[] tags = StandardEvent.getAddresses(waiter.mAdditionalInfo);
+                for (String tag : tags) {
+                    if (!addresses.contains(tag)) {
+                        addresses.add(tag);
+                    }
+                }
+            }
+            String[] ids = batch.mIds.toArray(new String[0]);
+            StandardEvent addressEvent = StandardEvent.newThingAboutRequest(ids)
+                    .setAddress(addresses.toArray(new String[0]));
+
+            RedditClient.getClient().startServiceForGet(mContext,
+                    ThingAboutRequest.builder()
+                            .id(ids)
+                            .build()    // build request
+                            .setAdditionalInfo(
+                                    StandardEvent.getFactory().additionalInfoTag(addressEvent)),
+                    new ResponseReceiver() {
+                        @Override
+                        protected void onReceiveResult(int resultCode, Bundle resultData) {
+                            super.onReceiveResult(resultCode, resultData);
+
+                            if (resultCode == RESULT_OK) {
+                                if (mResponse instanceof ThingAboutResponse) {
+                                    // already parsed on request thread
+                                    batch.onResponse((ThingAboutResponse) mResponse);
+                                } else {
+                                    // parse off the main thread
+                                    ResponseParser.getInstance().parse(ThingAboutResponse.class, mResultText,
+                                            response -> batch.onResponse((ThingAboutResponse) response));
+                                }
+                            } else {
+                                Timber.w("ThingAboutCoalescer: request failed %d", mHttpCode);
+                                batch.onFailure(mHttpCode, mResultText);
+                            }
+                        }
+                    });
+        }
+    }
+
+
+    /**
+     * Class representing a group of ids to be requested together
+     */
+    private static class Batch {
+
+        final LinkedHashSet<String> mIds;
+        final ArrayList<Waiter> mWaiters;
+
+        Batch() {
+            mIds = new LinkedHashSet<>();
+            mWaiters = new ArrayList<>();
+        }
+
+        void add(String name, Waiter waiter) {
+            mIds.add(name);
+            if (!mWaiters.contains(waiter)) {
+                mWaiters.add(waiter);
+                ++waiter.mPending;
+            }
+        }
+
+        void onResponse(@Nullable ThingAboutResponse response) {
+            if (response != null) {
+                HashMap<String, RedditObject> things = new HashMap<>();
+                for (RedditObject<?, ?> obj : response.getList()) {
+                    things.put(obj.getName(), obj);
+                }
+                for (Waiter waiter : mWaiters) {
+                    waiter.onResponse(things);
+                }
+            } else {
+                onFailure(0, null);     // unable to parse, reported as no response
+            }
+        }
+
+        void onFailure(int code, String message) {
+            for (Waiter waiter : mWaiters) {
+                waiter.onFailure(code, message);
+            }
+        }
+    }
+
+    /**
+     * Class representing a requester waiting on one or more batches
+     */
+    private static class Waiter {
+
+        final Bundle mAdditionalInfo;
+        @Nullable final ICallback<Response<? extends BaseObject<?>>> mCallback;
+        final LinkedHashSet<String> mNames;
+        final HashMap<String, RedditObject> mThings;
+        int mPending;       // number of batches outstanding
+        boolean mReceived;  // at least one batch response received
+        int mFailCode;      // code and message of last failed batch
+        String mFailMessage;
+
+        Waiter(Bundle additionalInfo, @Nullable ICallback<Response<? extends BaseObject<?>>> callback) {
+            mAdditionalInfo = additionalInfo;
+            mCallback = callback;
+            mNames = new LinkedHashSet<>();
+            mThings = new HashMap<>();
+            mPending = 0;
+            mReceived = false;
+        }
+
+        void onResponse(HashMap<String, RedditObject> things) {
+            for (String name : mNames) {
+                RedditObject thing = things.get(name);
+                if (thing != null) {
+                    mThings.put(name, thing);
+                }
+            }
+            mReceived = true;
+            onBatchComplete();
+        }
+
+        void onFailure(int code, String message) {
+            mFailCode = code;
+            mFailMessage = message;
+            onBatchComplete();
+        }
+
+        private void onBatchComplete() {
+            if (--mPending == 0) {
+                if (mReceived) {
+                    deliver();  // deliver what was received from the successful batches
+                } else if (mCallback != null) {
+                    // same error handling as an individual request
+                    mCallback.onFailure(mFailCode, mFailMessage);
+                }
+            }
+        }
+
+        void deliver() {
+            // results in requested order
+            ArrayList<RedditObject> list = new ArrayList<>();
+            for (String name : mNames) {
+                RedditObject thing = mThings.get(name);
+                if (thing != null) {
+                    list.add(thing);
+                }
+            }
+            StandardEvent event = StandardEvent.getFactory().newResponseResult(new ThingAboutResponse(list));
+            if (event != null) {
+                PostOffice.postEvent(
+                        StandardEvent.getFactory().infoExtractor(event, mAdditionalInfo)
+                                .all()  // add all additional info
+                                .done());
+            }
+        }
+    }
+}
@@ -19,9 +19,13 @@ import android.content.Context;
 import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.viewbinding.ViewBinding;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Pair;
 import android.util.SparseIntArray;
 import android.view.LayoutInflater;
@@ -32,8 +36,10 @@ import com.ianbuttimer.tidderish.R;
 import com.ianbuttimer.tidderish.data.IAdapterHandler;
 import com.ianbuttimer.tidderish.data.ITester;
 import com.ianbuttimer.tidderish.reddit.BaseObject;
+import com.ianbuttimer.tidderish.reddit.RedditObject;
 import com.ianbuttimer.tidderish.utils.ArrayTester;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -41,6 +47,8 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import github.nisrulz.recyclerviewhelper.RVHAdapter;
 import timber.log.Timber;
@@ -68,6 +76,16 @@ public abstract class AbstractRecycleViewAdapter<T extends BaseObject<T>, B exte
 
     protected int mSelectedPos = RecyclerView.NO_POSITION;
 
+    /** Executor for computing list diffs, shared by all adapters */
+    private static final Executor sDiffExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "AdapterDiff");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    private int mDiffGeneration;    // generation of latest submitted list
+
     /**
      * Constructor
      * @param objects           The objects to represent in the list.
@@ -449,6 +467,132 @@ public abstract class AbstractRecycleViewAdapter<T extends BaseObject<T>, B exte
         return mList.addAll(collection);
     }
 
+    /**
+     * Adds the specified items at the end of the list, and notifies the inserted range.
+     * @param collection The Collection to add at the end of the list.
+     * @return <code>true</code> if the list changed as a result of the call
+     */
+    public boolean appendAll(Collection<? extends T> collection) {
+        int startPos = getItemCount();
+        boolean changed = addAll(collection);
+        if (changed) {
+            notifyItemRangeInserted(startPos, getItemCount() - startPos);
+        }
+        return changed;
+    }
+
+    /**
+     * Replace the list with the specified items.<br>
+     * The changes are computed in the background, keyed by {@link #getItemKey(BaseObject)}, and
+     * only the changed items are rebound. The list is not modified until the changes are applied,
+     * and if it is modified elsewhere in the meantime, the whole list is refreshed instead.
+     * @param collection The Collection to set the list.
+     */
+    @UiThread
+    public void submitList(Collection<? extends T> collection) {
+        final int generation = ++mDiffGeneration;
+        final List<T> oldList = new ArrayList<>(mList);
+        final List<T> newList = new ArrayList<>(collection);
+        sDiffExecutor.execute(() -> {
+            final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new KeyDiffCallback(oldList, newList));
+            sMainHandler.post(() -> {
+                if (generation == mDiffGeneration) {
+                    boolean unmodified = isSameList(oldList);
+                    mList.clear();
+                    mList.addAll(newList);
+                    if (unmodified) {
+                        result.dispatchUpdatesTo(this);
+                    } else {
+                        notifyDataSetChanged();
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Notify the changes made to the list since a copy was taken, keyed by
+     * {@link #getItemKey(BaseObject)}, so only the changed items are rebound.<br>
+     * <b>Note:</b> the changes are computed on the calling thread, so this is intended for lists
+     * modified in place with a small number of items. Use {@link #submitList(Collection)} for large lists.
+     * @param previous  Copy of the list before it was modified
+     */
+    @UiThread
+    public void notifyChangedFrom(List<T> previous) {
+        DiffUtil.calculateDiff(new KeyDiffCallback(previous, new ArrayList<>(mList)))
+                .dispatchUpdatesTo(this);
+    }
+
+    /**
+     * Get the key identifying an item across lists
+     * @param item  Item to get key for
+     * @return  key, or <code>null</code> if items are identified by reference
+     */
+    @Nullable
+    protected String getItemKey(T item) {
+        String key = null;
+        if (item instanceof RedditObject) {
+            key = ((RedditObject<?, ?>) item).getName();    // reddit fullname
+        }
+        return key;
+    }
+
+    /**
+     * Check if the list contains the same items as another list
+     * @param list  List to compare
+     * @return  <code>true</code> if same
+     */
+    private boolean isSameList(List<T> list) {
+        boolean same = (list.size() == mList.size());
+        for (int i = 0; same && (i < list.size()); i++) {
+            same = (list.get(i) == mList.get(i));
+        }
+        return same;
+    }
+
+    /**
+     * Diff callback identifying items by key.<br>
+     * Different instances with the same key are assumed to have changed, while the same instance
+     * is assumed unchanged; items modified in place must be notified separately.
+     */
+    private class KeyDiffCallback extends DiffUtil.Callback {
+
+        private final List<T> mOldList;
+        private final List<T> mNewList;
+
+        KeyDiffCallback(List<T> oldList, List<T> newList) {
+            mOldList = oldList;
+            mNewList = newList;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return mOldList.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return mNewList.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            T oldItem = mOldList.get(oldItemPosition);
+            T newItem = mNewList.get(newItemPosition);
+            boolean same = (oldItem == newItem);
+            if (!same) {
+                String key = getItemKey(oldItem);
+                same = (key != null) && !key.isEmpty() && key.equals(getItemKey(newItem));
+            }
+            return same;
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return (mOldList.get(oldItemPosition) == mNewList.get(newItemPosition));
+        }
+    }
+
     /**
      * Removes the element at the specified position in this list.
      * @param position   The index of the element to be removed.
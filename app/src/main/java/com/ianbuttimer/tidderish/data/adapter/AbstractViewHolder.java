@@ -16,25 +16,21 @@
 package com.ianbuttimer.tidderish.data.adapter;
 
 import android.content.Context;
-import android.text.Html;
-import android.text.Spannable;
-import android.text.SpannableString;
-import android.text.Spanned;
 import android.text.method.LinkMovementMethod;
 import android.text.method.MovementMethod;
 import android.text.style.URLSpan;
-import android.text.util.Linkify;
 import android.view.View;
 import android.widget.TextView;
 
 import androidx.annotation.ColorInt;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.viewbinding.ViewBinding;
 
 import com.ianbuttimer.tidderish.data.IAdapterHandler;
-import com.ianbuttimer.tidderish.net.NetworkUtils;
 import com.ianbuttimer.tidderish.reddit.BaseObject;
 import com.ianbuttimer.tidderish.utils.ColourUtils;
+import com.ianbuttimer.tidderish.utils.HtmlRenderer;
 
 import github.nisrulz.recyclerviewhelper.RVHViewHolder;
 import timber.log.Timber;
@@ -42,8 +38,6 @@ import timber.log.Timber;
 import static androidx.recyclerview.widget.ItemTouchHelper.ACTION_STATE_DRAG;
 import static androidx.recyclerview.widget.ItemTouchHelper.ACTION_STATE_IDLE;
 import static androidx.recyclerview.widget.ItemTouchHelper.ACTION_STATE_SWIPE;
-import static com.ianbuttimer.tidderish.net.RedditUriBuilder.BASE_URL;
-import static com.ianbuttimer.tidderish.net.RedditUriBuilder.SUBREDDIT_RELATIVE_START_URL;
 
 
 /**
@@ -162,56 +156,24 @@ public abstract class AbstractViewHolder<T extends BaseObject<T>, B extends View
     }
 
 
-    protected void setLinkMovement(TextView view) {
-
-        // Linkify.addLinks clears existing links
-        // get around this by merging the links based on
-        // https://stackoverflow.com/a/37853641/4054609
-        SpannableString existingLinks = new SpannableString(view.getText());
-
-        SpannableString webLinks = new SpannableString(view.getText());
-        Linkify.addLinks(webLinks, Linkify.WEB_URLS);
-
-        view.setText(mergeUrlSpans(webLinks, existingLinks));
+    /**
+     * Set the text of a view from html, with links enabled
+     * @param textView  TextView to set text
+     * @param name      Fullname of object the html belongs to, or <code>null</code> to not cache
+     * @param html      Html to display
+     */
+    protected void setHtmlText(TextView textView, @Nullable String name, String html) {
+        // rendered text is shared so set a copy, as link movement modifies the text
+        textView.setText(HtmlRenderer.getInstance().render(name, html), TextView.BufferType.SPANNABLE);
 
-        URLSpan[] urls = view.getUrls();
+        URLSpan[] urls = textView.getUrls();
         boolean hasUrl = (urls.length > 0);
         MovementMethod method = null;
         if (hasUrl) {
             method = LinkMovementMethod.getInstance();
         }
-        view.setMovementMethod(method);
-        view.setFocusable(hasUrl);
-    }
-
-    private SpannableString mergeUrlSpans(SpannableString span1, SpannableString span2) {
-        URLSpan[] spans = span2.getSpans(0, span2.length() , URLSpan.class);
-        for (URLSpan span : spans) {
-            span1.setSpan(span, span2.getSpanStart(span), span2.getSpanEnd(span), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
-        }
-        return span1;
-    }
-
-
-    protected void setText(TextView textView, String html) {
-        textView.setText(
-                Html.fromHtml(html),
-                TextView.BufferType.SPANNABLE
-        );
-        Spannable spannable = (Spannable) textView.getText();
-        URLSpan[] spans = spannable.getSpans(0, spannable.length(), URLSpan.class);
-        for (URLSpan span : spans) {
-            String url = span.getURL();
-            if (url.startsWith(SUBREDDIT_RELATIVE_START_URL)) {
-                // looks like a relative subreddit url, replace with http link
-                int start = spannable.getSpanStart(span);
-                int end = spannable.getSpanEnd(span);
-                int flags = spannable.getSpanFlags(span);
-                spannable.removeSpan(span);
-                URLSpan myUrlSpan = new URLSpan(NetworkUtils.joinUrlPaths(BASE_URL, url));
-                spannable.setSpan(myUrlSpan, start, end, flags);
-            }
-        }
+        textView.setMovementMethod(method);
+        textView.setFocusable(hasUrl);
     }
 
     /**
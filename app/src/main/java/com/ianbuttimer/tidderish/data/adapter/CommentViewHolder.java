@@ -88,9 +88,8 @@ public class CommentViewHolder extends AbstractViewHolder<Comment, CommentListIt
 
             hideProgress();
 
-            setText(tvText, info.getBodyHtml());
+            setHtmlText(tvText, info.getName(), info.getBodyHtml());
             setLinkColour(tvText, background);
-            setLinkMovement(tvText);
         }
         tvText.setVisibility(visibility);
 
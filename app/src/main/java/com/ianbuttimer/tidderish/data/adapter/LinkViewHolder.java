@@ -16,18 +16,24 @@
 
 package com.ianbuttimer.tidderish.data.adapter;
 
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.DecodeFormat;
 import com.ianbuttimer.tidderish.R;
 import com.ianbuttimer.tidderish.data.IAdapterHandler;
 import com.ianbuttimer.tidderish.databinding.LinkListItemBinding;
 import com.ianbuttimer.tidderish.net.GlideApp;
-import com.ianbuttimer.tidderish.net.NetworkUtils;
+import com.ianbuttimer.tidderish.net.GlideRequest;
+import com.ianbuttimer.tidderish.net.GlideRequests;
 import com.ianbuttimer.tidderish.reddit.Link;
-import com.ianbuttimer.tidderish.reddit.util.RedditMisc;
+import com.ianbuttimer.tidderish.reddit.util.ImageSourceSelector;
 import com.ianbuttimer.tidderish.ui.UiUtils;
 import com.ianbuttimer.tidderish.ui.widgets.BasicStatsView;
 
@@ -73,20 +79,50 @@ public class LinkViewHolder extends AbstractViewHolder<Link, LinkListItemBinding
 
         bsvView.setViewInfo(mLink);
 
-        if (mLink.isLoadableThumbnail()) {
-            Uri thumbnail = RedditMisc.convertDefaultThumbnailUri(getContext().getResources(), mLink.getThumbnail());
+        Resources resources = getContext().getResources();
+        Uri thumbnail = getThumbnailUri(resources, mLink);
+        if (thumbnail != null) {
+            loadThumbnail(GlideApp.with(getContext()), resources, thumbnail)
+                    .into(imgThumbnail);
+        }
+    }
 
-            if (thumbnail != null) {
-                thumbnail = NetworkUtils.unescapeUri(thumbnail);
+    /**
+     * Get the size list thumbnails are displayed at
+     * @param resources Resources
+     * @return  size in pixels
+     */
+    public static int getThumbnailSize(Resources resources) {
+        return resources.getDimensionPixelSize(R.dimen.link_img_thumbnail_size);
+    }
 
-                GlideApp.with(getContext())
-                        .load(thumbnail)
-                        .placeholder(R.drawable.ic_picture)
-                        .centerInside()
-                        //                    .fitCenter()
-                        .into(imgThumbnail);
-            }
-        }
+    /**
+     * Get the thumbnail to display for a link, the smallest image covering the list thumbnail size
+     * @param resources Resources
+     * @param link      Link
+     * @return  thumbnail uri or <code>null</code> if none
+     */
+    @Nullable
+    public static Uri getThumbnailUri(Resources resources, Link link) {
+        int size = getThumbnailSize(resources);
+        return ImageSourceSelector.selectUri(resources, link, size, size);
+    }
+
+    /**
+     * Get the request to load a list thumbnail.<br>
+     * <b>Note:</b> preloads must use the same request in order to be retrieved from the memory cache
+     * @param requests  Request manager
+     * @param resources Resources
+     * @param thumbnail Thumbnail uri
+     * @return  request
+     */
+    public static GlideRequest<Drawable> loadThumbnail(GlideRequests requests, Resources resources, Uri thumbnail) {
+        return requests
+                .load(thumbnail)
+                .placeholder(R.drawable.ic_picture)
+                .format(DecodeFormat.PREFER_RGB_565)    // thumbnails are opaque
+                .override(getThumbnailSize(resources))
+                .centerInside();
     }
 
     @Override
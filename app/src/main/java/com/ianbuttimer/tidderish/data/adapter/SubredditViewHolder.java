@@ -85,7 +85,7 @@ public class SubredditViewHolder<B extends ViewBinding> extends AbstractViewHold
         tvName.setText(mSubreddit.getDisplayName());
         tvTitle.setText(mSubreddit.getTitle());
 
-        setText(tvDescription, mSubreddit.getDescriptionHtml());
+        setHtmlText(tvDescription, mSubreddit.getName(), mSubreddit.getDescriptionHtml());
 
         Utils.setCountIndication(tvFollowers, mSubreddit.getSuscribers(), R.string.item_follower, R.string.item_followers);
 
@@ -109,7 +109,6 @@ public class SubredditViewHolder<B extends ViewBinding> extends AbstractViewHold
         }
 
         setLinkColour(tvDescription, keyColour);
-        setLinkMovement(tvDescription);
     }
 
     private void setFollowing(boolean following) {
@@ -23,6 +23,7 @@ import androidx.annotation.Nullable;
 import android.text.TextUtils;
 import android.util.Pair;
 
+import com.ianbuttimer.tidderish.data.FollowRepository;
 import com.ianbuttimer.tidderish.data.db.AbstractDatabase;
 import com.ianbuttimer.tidderish.net.NetworkUtils;
 
@@ -103,30 +104,43 @@ public class BaseProvider {
 
 
     public static Uri[] onInsert(Uri uri, ContentValues values) {
+        FollowRepository.getInstance().onInsert(uri, values);
         return new Uri[] {
                 uri,
         };
     }
 
     public static Uri[] onBulkInsert(Context context, Uri uri, ContentValues[] values, long[] ids) {
+        boolean[] inserted = new boolean[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            inserted[i] = (ids[i] >= 0);
+        }
+        FollowRepository.getInstance().onInsert(uri, values, inserted);
         return new Uri[] {
                 uri
         };
     }
 
     public static Uri[] onBulkInsert(Context context, Uri uri, ContentValues[] values, String[] ids) {
+        boolean[] inserted = new boolean[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            inserted[i] = !TextUtils.isEmpty(ids[i]);
+        }
+        FollowRepository.getInstance().onInsert(uri, values, inserted);
         return new Uri[] {
                 uri
         };
     }
 
     public static Uri[] onUpdate(Context context, Uri uri, String where, String[] whereArgs) {
+        FollowRepository.getInstance().onChange(uri);
         return new Uri[] {
                 uri
         };
     }
 
     public static Uri[] onDelete(Context context, Uri uri) {
+        FollowRepository.getInstance().onChange(uri);
         return new Uri[] {
                 uri
         };
@@ -173,6 +173,25 @@ public abstract class AbstractEvent<E extends AbstractEvent<?>> {
         return tags;
     }
 
+    /**
+     * Get the destination address(es) from an additional info bundle
+     * @param additionalInfo    Additional info bundle
+     * @return  array of addresses
+     */
+    public static String[] getAddresses(@Nullable Bundle additionalInfo) {
+        String[] tags;
+        String destination = null;
+        if (additionalInfo != null) {
+            destination = additionalInfo.getString(DESTINATION_INFO);
+        }
+        if (!TextUtils.isEmpty(destination)) {
+            tags = destination.split(TAG_SEPARATOR);
+        } else {
+            tags = new String[0];
+        }
+        return tags;
+    }
+
     public E addAddress(String tag) {
         if (!TextUtils.isEmpty(tag)) {
             String destination = getAddress();
@@ -16,24 +16,29 @@
 
 package com.ianbuttimer.tidderish.event;
 
-import android.os.Bundle;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.FragmentActivity;
 import android.text.TextUtils;
 
+import com.ianbuttimer.tidderish.data.Follow;
+import com.ianbuttimer.tidderish.data.FollowQueryResponse;
+import com.ianbuttimer.tidderish.data.FollowRepository;
 import com.ianbuttimer.tidderish.data.ICallback;
+import com.ianbuttimer.tidderish.data.Pinned;
+import com.ianbuttimer.tidderish.data.PinnedQueryResponse;
 import com.ianbuttimer.tidderish.data.QueryCallback;
+import com.ianbuttimer.tidderish.data.ThingAboutCoalescer;
 import com.ianbuttimer.tidderish.data.provider.BaseProvider;
 import com.ianbuttimer.tidderish.data.provider.ProviderUri;
 import com.ianbuttimer.tidderish.reddit.BaseObject;
 import com.ianbuttimer.tidderish.reddit.Response;
 import com.ianbuttimer.tidderish.reddit.Subreddit;
 import com.ianbuttimer.tidderish.reddit.get.SubredditAboutRequest;
-import com.ianbuttimer.tidderish.reddit.get.ThingAboutRequest;
 import com.ianbuttimer.tidderish.ui.widgets.PostOffice;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import static com.ianbuttimer.tidderish.data.db.FollowColumns.SUBREDDIT;
@@ -90,6 +95,10 @@ public class StandardEventProcessor implements IStandardEventProcessor {
 
         this.mTag = TAG + ":" + mAddress;
         this.mExtensions = new ArrayList<>();
+
+        if (activity != null) {
+            FollowRepository.getInstance().load(activity);
+        }
     }
 
     /**
@@ -113,62 +122,82 @@ public class StandardEventProcessor implements IStandardEventProcessor {
                     for (int i = 0; i < length; i++) {
                         selectionArgs[i] = list.get(i).getDisplayName();
                     }
-                    String selection;
-                    if (length == 1) {
-                        selection = SUBREDDIT_EQ_SELECTION;
+                    ArrayList<Follow> following =
+                            FollowRepository.getInstance().getFollowing(Arrays.asList(selectionArgs));
+                    if (following != null) {
+                        mCpStdEventHandler.postResponse(new FollowQueryResponse(following),
+                                StandardEvent.getFactory().additionalInfoAll(event));
                     } else {
-                        selection = BaseProvider.columnInSelection(SUBREDDIT, length);
+                        String selection;
+                        if (length == 1) {
+                            selection = SUBREDDIT_EQ_SELECTION;
+                        } else {
+                            selection = BaseProvider.columnInSelection(SUBREDDIT, length);
+                        }
+                        mCpStdEventHandler.query(mActivity.get(),
+                                getLoaderId(event),
+                                QueryCallback.getBuilder()
+                                        .putUri(ProviderUri.FOLLOW_CONTENT_URI)
+                                        .putProjection(SUBREDDIT_PROJECTION)
+                                        .putSelection(selection)
+                                        .putSelectionArgs(selectionArgs)
+                                        .putAdditionalInfo(
+                                                StandardEvent.getFactory().additionalInfoAll(event))
+                                        .build()
+                        );
                     }
-                    mCpStdEventHandler.query(mActivity.get(),
-                            getLoaderId(event),
-                            QueryCallback.getBuilder()
-                                    .putUri(ProviderUri.FOLLOW_CONTENT_URI)
-                                    .putProjection(SUBREDDIT_PROJECTION)
-                                    .putSelection(selection)
-                                    .putSelectionArgs(selectionArgs)
-                                    .putAdditionalInfo(
-                                            StandardEvent.getFactory().additionalInfoAll(event))
-                                    .build()
-                    );
                 }
             } else if (event.isFollowingListRequest()) {
                 // LIST FLOW 2. request following subreddit list
                 // NEW POST FLOW 2. request following subreddit list
                 if (mCpStdEventHandler != null) {
-                    mCpStdEventHandler.queryList(mActivity.get(),
-                            getLoaderId(event),
-                            event,
-                            ProviderUri.FOLLOW_CONTENT_URI);
+                    ArrayList<Follow> following = FollowRepository.getInstance().getFollowing();
+                    if (following != null) {
+                        mCpStdEventHandler.postResponse(new FollowQueryResponse(following),
+                                StandardEvent.getFactory().additionalInfoAll(event));
+                    } else {
+                        mCpStdEventHandler.queryList(mActivity.get(),
+                                getLoaderId(event),
+                                event,
+                                ProviderUri.FOLLOW_CONTENT_URI);
+                    }
                 }
             } else if (event.isPinnedListRequest()) {
                 if (mCpStdEventHandler != null) {
                     String fullname = event.getName();
-                    String selection = null;
-                    String[] selectionArgs = null;
-                    if (!TextUtils.isEmpty(fullname)) {
-                        selection = BaseProvider.PinnedBase.NAME_EQ_SELECTION;
-                        selectionArgs = new String[]{fullname};
+                    ArrayList<Pinned> pinned;
+                    if (TextUtils.isEmpty(fullname)) {
+                        pinned = FollowRepository.getInstance().getPinned();
+                    } else {
+                        pinned = FollowRepository.getInstance().getPinned(fullname);
+                    }
+                    if (pinned != null) {
+                        mCpStdEventHandler.postResponse(new PinnedQueryResponse(pinned),
+                                StandardEvent.getFactory().additionalInfoAll(event));
+                    } else {
+                        String selection = null;
+                        String[] selectionArgs = null;
+                        if (!TextUtils.isEmpty(fullname)) {
+                            selection = BaseProvider.PinnedBase.NAME_EQ_SELECTION;
+                            selectionArgs = new String[]{fullname};
+                        }
+                        mCpStdEventHandler.queryList(mActivity.get(),
+                                getLoaderId(event),
+                                event,
+                                ProviderUri.PINNED_CONTENT_URI,
+                                selection,
+                                selectionArgs);
                     }
-                    mCpStdEventHandler.queryList(mActivity.get(),
-                            getLoaderId(event),
-                            event,
-                            ProviderUri.PINNED_CONTENT_URI,
-                            selection,
-                            selectionArgs);
                 }
             } else if (event.isSubredditInfoRequest()) {
                 // LIST FLOW 5. request subreddit info
                 // NEW POST FLOW 9. request subreddit info
                 requestSubredditInfo(event);
             } else if (event.isThingAboutRequest()) {
-                if (mApiResponseHandler != null) {
-                    Bundle additionalInfo = StandardEvent.getFactory().additionalInfoAll(event);
-                    mApiResponseHandler.requestGetService(
-                            ThingAboutRequest.builder()
-                                    .id(event.getNames())
-                                    .build()    // build request
-                                    .setAdditionalInfo(additionalInfo)  // add additional info
-                    );
+                FragmentActivity activity = mActivity.get();
+                if (activity != null) {
+                    // batched with other requests, results are posted to the event address
+                    ThingAboutCoalescer.getInstance().request(activity, event, mApiResponseHandler);
                 }
             } else {
                 handled = false;
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.net;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import timber.log.Timber;
+
+import static java.net.HttpURLConnection.HTTP_GATEWAY_TIMEOUT;
+
+/**
+ * Interceptor implementing the app-level http cache policies.<br>
+ * Requests tagged with a {@link HttpCachePolicy} are first answered from the cache. A fresh cached
+ * response is returned as is, while a stale cached response is returned and revalidated in the
+ * background. Otherwise the request goes to the network, and the response is stored according to
+ * its policy by the {@link FreshnessInterceptor}.
+ */
+public class HttpCacheInterceptor implements Interceptor {
+
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String PRAGMA = "Pragma";
+    private static final String EXPIRES = "Expires";
+
+    private final Cache mCache;
+    private volatile boolean mEnabled;
+
+    private final HashSet<String> mRevalidating;    // urls being revalidated
+
+    private final AtomicInteger mFreshHits = new AtomicInteger();
+    private final AtomicInteger mStaleHits = new AtomicInteger();
+    private final AtomicInteger mMisses = new AtomicInteger();
+    private final AtomicInteger mRevalidations = new AtomicInteger();
+
+    public HttpCacheInterceptor(Cache cache, boolean enabled) {
+        mCache = cache;
+        mEnabled = enabled;
+        mRevalidating = new HashSet<>();
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        HttpCachePolicy policy = getPolicy(request);
+
+        Response response;
+        if (!mEnabled) {
+            // bypass cache
+            response = chain.proceed(request.newBuilder()
+                    .cacheControl(CacheControl.FORCE_NETWORK)
+                    .build());
+        } else if (!policy.isCached() || request.cacheControl().noCache()) {
+            // not cached or forced refresh
+            response = chain.proceed(request);
+        } else {
+            Request cacheRequest = request.newBuilder()
+                    .cacheControl(new CacheControl.Builder()
+                            .onlyIfCached()
+                            .maxStale(policy.getStaleSecs(), TimeUnit.SECONDS)
+                            .build())
+                    .build();
+            response = chain.proceed(cacheRequest);
+            if (response.code() != HTTP_GATEWAY_TIMEOUT) {
+                long ageSecs = TimeUnit.MILLISECONDS.toSeconds(
+                        System.currentTimeMillis() - response.receivedResponseAtMillis());
+                if (ageSecs > policy.getFreshSecs()) {
+                    mStaleHits.incrementAndGet();
+                    revalidate(request);
+                } else {
+                    mFreshHits.incrementAndGet();
+                }
+            } else {
+                // not in cache
+                response.close();
+                mMisses.incrementAndGet();
+                response = chain.proceed(request);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Refresh the cached response for a request in the background
+     * @param request   Request to refresh
+     */
+    private void revalidate(Request request) {
+        final String url = request.url().toString();
+        synchronized (mRevalidating) {
+            if (!mRevalidating.add(url)) {
+                return; // already in progress
+            }
+        }
+        mRevalidations.incrementAndGet();
+
+        Request networkRequest = request.newBuilder()
+                .cacheControl(CacheControl.FORCE_NETWORK)
+                .build();
+        NetworkUtils.getClient().newCall(networkRequest).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                Timber.w(e, "Revalidation failed %s", url);
+                done();
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                try {
+                    // the body must be fully read for the response to be cached
+                    if (response.body() != null) {
+                        response.body().source().readByteString();
+                    }
+                } catch (IOException e) {
+                    Timber.w(e, "Revalidation failed %s", url);
+                } finally {
+                    response.close();
+                    done();
+                }
+            }
+
+            private void done() {
+                synchronized (mRevalidating) {
+                    mRevalidating.remove(url);
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the cache policy for a request
+     * @param request   Request
+     * @return  Policy
+     */
+    private static HttpCachePolicy getPolicy(Request request) {
+        HttpCachePolicy policy = request.tag(HttpCachePolicy.class);
+        if ((policy == null) || !"GET".equals(request.method())) {
+            policy = HttpCachePolicy.NONE;
+        }
+        return policy;
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (mEnabled != enabled) {
+            mEnabled = enabled;
+            if (!enabled) {
+                clear();
+            }
+        }
+    }
+
+    /**
+     * Remove all responses from the cache
+     */
+    public void clear() {
+        try {
+            mCache.evictAll();
+        } catch (IOException e) {
+            Timber.w(e, "Unable to clear http cache");
+        }
+    }
+
+    /**
+     * Get a summary of the cache statistics
+     * @return  statistics
+     */
+    @NonNull
+    public String getStats() {
+        int fresh = mFreshHits.get();
+        int stale = mStaleHits.get();
+        int total = fresh + stale + mMisses.get();
+        return "HttpCache{" +
+                "enabled=" + mEnabled +
+                ", size=" + getSize() +
+                ", freshHits=" + fresh +
+                ", staleHits=" + stale +
+                ", misses=" + mMisses.get() +
+                ", hitRate=" + (total > 0 ? ((fresh + stale) * 100) / total : 0) + "%" +
+                ", revalidations=" + mRevalidations.get() +
+                ", requests=" + mCache.requestCount() +
+                ", networkRequests=" + mCache.networkCount() +
+                '}';
+    }
+
+    private long getSize() {
+        long size;
+        try {
+            size = mCache.size();
+        } catch (IOException e) {
+            size = -1;
+        }
+        return size;
+    }
+
+
+    /**
+     * Network interceptor to apply the cache policy to responses before they are stored
+     */
+    public class FreshnessInterceptor implements Interceptor {
+
+        @NonNull
+        @Override
+        public Response intercept(@NonNull Chain chain) throws IOException {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+
+            HttpCachePolicy policy = getPolicy(request);
+            if (mEnabled && policy.isCached() && response.isSuccessful()) {
+                response = response.newBuilder()
+                        .removeHeader(PRAGMA)
+                        .removeHeader(EXPIRES)
+                        .header(CACHE_CONTROL, "max-age=" + policy.getFreshSecs())
+                        .build();
+            }
+            return response;
+        }
+    }
+}
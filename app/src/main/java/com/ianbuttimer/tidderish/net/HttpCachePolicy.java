@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.net;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * App-level http cache freshness policies.<br>
+ * Reddit's own cache headers are unreliable, so responses for requests with a policy are cached
+ * according to the policy. A cached response is fresh for the fresh period, after which it may still
+ * be served, while it is revalidated in the background, until the end of the stale period.
+ */
+public enum HttpCachePolicy {
+
+    /** Not cached */
+    NONE(0, 0),
+    /** Subreddit about info, changes rarely */
+    SUBREDDIT_ABOUT(TimeUnit.HOURS.toSeconds(1), TimeUnit.DAYS.toSeconds(1)),
+    /** Subreddit post listings */
+    SUBREDDIT_LINKS(TimeUnit.MINUTES.toSeconds(2), TimeUnit.HOURS.toSeconds(1)),
+    /** Comment trees */
+    COMMENT_TREE(TimeUnit.MINUTES.toSeconds(1), TimeUnit.MINUTES.toSeconds(30));
+
+    private final int mFreshSecs;
+    private final int mStaleSecs;
+
+    HttpCachePolicy(long freshSecs, long staleSecs) {
+        mFreshSecs = (int) freshSecs;
+        mStaleSecs = (int) staleSecs;
+    }
+
+    /**
+     * Get the period for which a cached response is fresh
+     * @return  period in seconds
+     */
+    public int getFreshSecs() {
+        return mFreshSecs;
+    }
+
+    /**
+     * Get the period after the fresh period for which a stale response may be served
+     * @return  period in seconds
+     */
+    public int getStaleSecs() {
+        return mStaleSecs;
+    }
+
+    /**
+     * Check if responses are cached under this policy
+     * @return  <code>true</code> if cached
+     */
+    public boolean isCached() {
+        return (mFreshSecs > 0);
+    }
+}
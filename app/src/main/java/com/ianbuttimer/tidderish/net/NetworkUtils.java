@@ -35,17 +35,21 @@ import com.ianbuttimer.tidderish.utils.PreferenceControl;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.UnknownHostException;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import okhttp3.Cache;
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.Headers;
+import okhttp3.Interceptor;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -69,17 +73,27 @@ public class NetworkUtils {
     public static final MediaType MEDIA_TEXT = MediaType.parse("text/plain; charset=utf-8");
     public static final MediaType MEDIA_FORM = MediaType.parse("application/x-www-form-urlencoded");    // form content type
 
+    /** Maximum size of the http cache */
+    private static final long HTTP_CACHE_SIZE = 10 * 1024 * 1024;
+    private static final String HTTP_CACHE_DIR = "http";
+
     private static final String sHttpLogKey;
     private static final boolean sHttpLogDfltValue;
+    private static final String sHttpCacheKey;
+    private static final boolean sHttpCacheDfltValue;
 
     static {
         Context context = TidderApplication.getWeakApplicationContext().get();
         sHttpLogKey = context.getString(R.string.pref_log_http_key);
         sHttpLogDfltValue = context.getResources().getBoolean(R.bool.pref_log_http_dflt_value);
+        sHttpCacheKey = context.getString(R.string.pref_http_cache_key);
+        sHttpCacheDfltValue = context.getResources().getBoolean(R.bool.pref_http_cache_dflt_value);
     }
 
     private final OkHttpClient mClient;
+    private OkHttpClient mImageClient;
     private final LoggingInterceptor mLogger;
+    private final HttpCacheInterceptor mCacheInterceptor;
 
     private static NetworkUtils mInstance;
 
@@ -91,10 +105,17 @@ public class NetworkUtils {
 
         mLogger = new LoggingInterceptor(PreferenceControl.getLogHttpPreference(context));
 
+        Cache cache = new Cache(new File(context.getCacheDir(), HTTP_CACHE_DIR), HTTP_CACHE_SIZE);
+        mCacheInterceptor = new HttpCacheInterceptor(cache,
+                                    PreferenceControl.getHttpCachePreference(context));
+
         OkHttpClient.Builder builder = new OkHttpClient.Builder()
                 .connectTimeout(10, TimeUnit.SECONDS)
                 .writeTimeout(10, TimeUnit.SECONDS)
                 .readTimeout(20, TimeUnit.SECONDS)
+                .cache(cache)
+                .addInterceptor(mCacheInterceptor)
+                .addNetworkInterceptor(mCacheInterceptor.new FreshnessInterceptor())
                 .addNetworkInterceptor(mLogger);
 
         INetInit netInit = new NetInit();
@@ -110,6 +131,9 @@ public class NetworkUtils {
                 if (sHttpLogKey.equals(key)) {
                     boolean value = sharedPreferences.getBoolean(key, sHttpLogDfltValue);
                     mLogger.setLogging(value);
+                } else if (sHttpCacheKey.equals(key)) {
+                    boolean value = sharedPreferences.getBoolean(key, sHttpCacheDfltValue);
+                    mCacheInterceptor.setEnabled(value);
                 }
             }
         };
@@ -131,10 +155,47 @@ public class NetworkUtils {
      * Get OkHttpClient
      * @return  OkHttpClient object
      */
-    private static OkHttpClient getClient() {
+    static OkHttpClient getClient() {
         return getInstance().mClient;
     }
 
+    /**
+     * Get OkHttpClient for image loading.<br>
+     * The client shares the connection pool and dispatcher of the api client, but bypasses the
+     * http cache as images are cached by Glide.
+     * @return  OkHttpClient object
+     */
+    static synchronized OkHttpClient getImageClient() {
+        NetworkUtils instance = getInstance();
+        if (instance.mImageClient == null) {
+            OkHttpClient.Builder builder = instance.mClient.newBuilder()
+                    .cache(null);
+            builder.interceptors().remove(instance.mCacheInterceptor);
+            for (Iterator<Interceptor> iter = builder.networkInterceptors().iterator(); iter.hasNext(); ) {
+                if (iter.next() instanceof HttpCacheInterceptor.FreshnessInterceptor) {
+                    iter.remove();
+                }
+            }
+            instance.mImageClient = builder.build();
+        }
+        return instance.mImageClient;
+    }
+
+    /**
+     * Remove all responses from the http cache, e.g. on logout
+     */
+    public static void clearHttpCache() {
+        getInstance().mCacheInterceptor.clear();
+    }
+
+    /**
+     * Get a summary of the http cache statistics
+     * @return  statistics
+     */
+    public static String getHttpCacheStats() {
+        return getInstance().mCacheInterceptor.getStats();
+    }
+
     /**
      * This method synchronously returns a HTTP response.
      * <b>Note:</b> It is the callee's responsibility to close the response to prevent memory leaks
@@ -150,7 +211,26 @@ public class NetworkUtils {
      */
     public static Response httpResponseSync(URL url, Method method, Headers headers,
                                                 @Nullable MediaType type, @Nullable String data) throws IOException {
-        Request request = httpRequest(url, method, headers, type, data);
+        return httpResponseSync(url, method, headers, type, data, HttpCachePolicy.NONE);
+    }
+
+    /**
+     * This method synchronously returns a HTTP response.
+     * <b>Note:</b> It is the callee's responsibility to close the response to prevent memory leaks
+     * @param url       The URL to fetch the HTTP response from.
+     * @param headers   request headers
+     * @param type      content type of HTTP request
+     * @param data      content data
+     * @param policy    http cache policy
+     * @return The HTTP response
+     * @throws IOException if the request could not be executed due to cancellation, a connectivity
+     * problem or timeout.
+     * @throws HttpException If the response was not successfully received, understood, and accepted.
+     */
+    public static Response httpResponseSync(URL url, Method method, Headers headers,
+                                                @Nullable MediaType type, @Nullable String data,
+                                                HttpCachePolicy policy) throws IOException {
+        Request request = httpRequest(url, method, headers, type, data, policy);
         Call call = getClient().newCall(request);
         Response response = call.execute();
 
@@ -176,11 +256,30 @@ public class NetworkUtils {
     @Nullable
     public static String httpResponseStringSync(URL url, Method method, Headers headers,
                                                 @Nullable MediaType type, @Nullable String data) throws IOException {
+        return httpResponseStringSync(url, method, headers, type, data, HttpCachePolicy.NONE);
+    }
+
+    /**
+     * This method synchronously returns the entire resultText from a HTTP response.
+     * @param url       The URL to fetch the HTTP response from.
+     * @param headers   request headers
+     * @param type      content type of HTTP request
+     * @param data      content data
+     * @param policy    http cache policy
+     * @return The contents of the HTTP response as a string, or <code>null</code>
+     * @throws IOException if the request could not be executed due to cancellation, a connectivity
+     * problem or timeout.
+     * @throws HttpException If the response was not successfully received, understood, and accepted.
+     */
+    @Nullable
+    public static String httpResponseStringSync(URL url, Method method, Headers headers,
+                                                @Nullable MediaType type, @Nullable String data,
+                                                HttpCachePolicy policy) throws IOException {
         Response response = null;
         String body;
 
         try {
-            response = httpResponseSync(url, method, headers, type, data);
+            response = httpResponseSync(url, method, headers, type, data, policy);
 
             body = getResponseBodyString(response);
         }
@@ -295,8 +394,25 @@ public class NetworkUtils {
      */
     private static Request httpRequest(URL url, Method method, Headers headers,
                                         @Nullable MediaType type, @Nullable String data) {
+        return httpRequest(url, method, headers, type, data, HttpCachePolicy.NONE);
+    }
+
+    /**
+     * Generate a HTTP request with body content
+     * @param url       The URL to fetch the HTTP response from
+     * @param method    http method
+     * @param headers   request headers
+     * @param type      content type of HTTP request
+     * @param data      content data
+     * @param policy    http cache policy
+     * @return Http request
+     */
+    private static Request httpRequest(URL url, Method method, Headers headers,
+                                        @Nullable MediaType type, @Nullable String data,
+                                        HttpCachePolicy policy) {
         Request.Builder builder = new Request.Builder()
-                                        .url(url.toString());
+                                        .url(url.toString())
+                                        .tag(HttpCachePolicy.class, policy);
         if (headers != null) {
             builder.headers(headers);
         }
@@ -80,6 +80,8 @@ public class RedditUriBuilder {
 
     public static final String SUBREDDIT_URL_R = "/r";
     public static final String SUBREDDIT_RELATIVE_START_URL = SUBREDDIT_URL_R + "/";
+    /** Separator for subreddit names in a combined listing, e.g. /r/news+pics */
+    public static final String SUBREDDIT_MULTI_SEPARATOR = "+";
 
     /**
      * Return information about the subreddit
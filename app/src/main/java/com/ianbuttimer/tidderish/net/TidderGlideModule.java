@@ -16,14 +16,71 @@
 
 package com.ianbuttimer.tidderish.net;
 
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
 import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.integration.okhttp3.OkHttpUrlLoader;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.load.model.GlideUrl;
 import com.bumptech.glide.module.AppGlideModule;
 
+import java.io.InputStream;
+
 /**
- * AppGlideModule implementation to generate API<br>
+ * AppGlideModule implementation to generate API and configure Glide<br>
+ * Memory caches are sized in screens of the device by {@link MemorySizeCalculator}, and the disk
+ * cache in proportion to the free space available. Images are loaded using the app's OkHttp
+ * client, so share its connection pool.
  * @see <a href="http://bumptech.github.io/glide/doc/generatedapi.html">Generated API</a>
+ * @see <a href="http://bumptech.github.io/glide/doc/configuration.html">Configuration</a>
  */
 @GlideModule
 public class TidderGlideModule extends AppGlideModule {
 
-}
\ No newline at end of file
+    /** Screens of images held in the memory cache; lists are mostly small thumbnails */
+    private static final float MEMORY_CACHE_SCREENS = 3;
+    /** Screens of bitmaps held for reuse */
+    private static final float BITMAP_POOL_SCREENS = 2;
+
+    /** Percentage of the free space to use for the disk cache */
+    private static final int DISK_CACHE_PERCENT = 2;
+    private static final long DISK_CACHE_MIN_SIZE = 20 * 1024 * 1024;
+    private static final long DISK_CACHE_MAX_SIZE = 100 * 1024 * 1024;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(MEMORY_CACHE_SCREENS)
+                .setBitmapPoolScreens(BITMAP_POOL_SCREENS)
+                .build();
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setBitmapPool(new LruBitmapPool(calculator.getBitmapPoolSize()));
+
+        long diskCacheSize = context.getCacheDir().getUsableSpace() / 100 * DISK_CACHE_PERCENT;
+        diskCacheSize = Math.max(DISK_CACHE_MIN_SIZE, Math.min(DISK_CACHE_MAX_SIZE, diskCacheSize));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, diskCacheSize));
+
+        builder.setLogLevel(Log.ERROR);
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        // replace the okhttp integration's default client
+        registry.replace(GlideUrl.class, InputStream.class,
+                new OkHttpUrlLoader.Factory(NetworkUtils.getImageClient()));
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
@@ -44,7 +44,7 @@ public abstract class AbstractProxy<T extends RedditObject, P extends AbstractPr
 
     @Nullable
     public T getFromCache() {
-        return getCache().get(getCacheKey());
+        return getCache().get(getCacheKey(), null);
     }
 
     @Override
@@ -63,7 +63,7 @@ public abstract class AbstractProxy<T extends RedditObject, P extends AbstractPr
         P proxy = getInstance();
         if (proxy != null) {
             proxy.setAsProxyFor(object);
-            getCache().put(getCacheKey(), object);
+            getCache().add(getCacheKey(), object);
         }
         return proxy;
     }
@@ -25,11 +25,15 @@ import android.util.JsonToken;
 import android.util.Pair;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
+import okio.BufferedSource;
 import timber.log.Timber;
 
 /**
@@ -266,6 +270,26 @@ public abstract class BaseObject<T> {
         }
     }
 
+    /**
+     * Parse json directly from a source
+     * @param source  source to parse
+     * @throws IOException if the source could not be read, e.g. the connection was dropped, or
+     *                      does not contain valid json
+     */
+    public void parseJson(BufferedSource source) throws IOException {
+        init();
+
+        InputStreamReader streamReader = new InputStreamReader(source.inputStream(), StandardCharsets.UTF_8);
+        JsonReader jsonReader = null;
+        try {
+            jsonReader = new JsonReader(streamReader);
+
+            parseJson(jsonReader);
+        } finally {
+            close(streamReader, jsonReader);
+        }
+    }
+
     /**
      * Parse a json object
      * @param jsonReader  reader to parse
@@ -355,20 +379,20 @@ public abstract class BaseObject<T> {
 
     /**
      * Tidy up after json read
-     * @param strReader     String reader
+     * @param strReader     Reader
      * @param jsonReader    JSON reader
      */
-    public void close(StringReader strReader, JsonReader jsonReader) {
+    public void close(Reader strReader, JsonReader jsonReader) {
         try {
             if (jsonReader != null) {
                 jsonReader.close();
             }
+            if (strReader != null) {
+                strReader.close();
+            }
         } catch (IOException e) {
             Timber.e(e);
         }
-        if (strReader != null) {
-            strReader.close();
-        }
     }
 
     /**
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.reddit;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.ianbuttimer.tidderish.TidderApplication;
+
+import java.util.ArrayList;
+
+import timber.log.Timber;
+
+/**
+ * Memory budget shared by the Reddit object caches.<br>
+ * The budget is a fraction of the application's memory class. Each cache is assigned a share of
+ * the budget, but may grow beyond its share while the total is within budget. When the total is
+ * exceeded, entries are evicted from the caches furthest over their share, so a large comment
+ * thread can't evict the links the user has just come from.
+ */
+public class CacheBudget {
+
+    /** Fraction of the memory class to use for caches */
+    private static final int MEMORY_CLASS_DIVISOR = 16;
+    /** Minimum budget in bytes */
+    private static final int MIN_BUDGET = 1024 * 1024;
+
+    private static int sBudget = 0;
+    private static final ArrayList<RedditCache<?>> sCaches = new ArrayList<>();
+
+    /**
+     * Constructor
+     */
+    private CacheBudget() {
+        // no op
+    }
+
+    /**
+     * Get the total cache budget
+     * @return  budget in bytes
+     */
+    public static synchronized int getBudget() {
+        if (sBudget == 0) {
+            long memory = 0;
+            Context context = TidderApplication.getWeakApplicationContext() != null ?
+                    TidderApplication.getWeakApplicationContext().get() : null;
+            if (context != null) {
+                ActivityManager activityManager =
+                        (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+                if (activityManager != null) {
+                    memory = activityManager.getMemoryClass() * 1024L * 1024L;
+                }
+            }
+            if (memory == 0) {
+                memory = Runtime.getRuntime().maxMemory();
+            }
+            sBudget = (int) Math.max(MIN_BUDGET, Math.min(Integer.MAX_VALUE, memory / MEMORY_CLASS_DIVISOR));
+            Timber.i("Reddit cache budget %dkB", sBudget / 1024);
+        }
+        return sBudget;
+    }
+
+    /**
+     * Register a cache with the budget
+     * @param cache Cache to register
+     */
+    static synchronized void register(RedditCache<?> cache) {
+        if (!sCaches.contains(cache)) {
+            sCaches.add(cache);
+        }
+    }
+
+    /**
+     * Get the share of the budget for a cache
+     * @param cache Cache
+     * @return  share in bytes
+     */
+    private static int getShare(RedditCache<?> cache) {
+        return (int) (getBudget() * cache.getBudgetShare());
+    }
+
+    /**
+     * Get the total size of all caches
+     * @return  size in bytes
+     */
+    public static synchronized int getTotalSize() {
+        int total = 0;
+        for (RedditCache<?> cache : sCaches) {
+            total += cache.size();
+        }
+        return total;
+    }
+
+    /**
+     * Evict entries until the total size of all caches is within the specified limit
+     * @param limit Limit in bytes
+     */
+    private static void trimTo(int limit) {
+        int total = getTotalSize();
+        while (total > limit) {
+            // trim the cache furthest over its share
+            RedditCache<?> target = null;
+            int maxExcess = Integer.MIN_VALUE;
+            for (RedditCache<?> cache : sCaches) {
+                int excess = cache.size() - (int) (getShare(cache) * ((float) limit / getBudget()));
+                if ((cache.size() > 0) && (excess > maxExcess)) {
+                    maxExcess = excess;
+                    target = cache;
+                }
+            }
+            if (target == null) {
+                break;
+            }
+            int over = total - limit;
+            int size = target.size();
+            target.trimToSize(Math.max(0, size - Math.max(over, 1)));
+            total = getTotalSize();
+        }
+    }
+
+    /**
+     * Evict entries until the total size of all caches is within budget
+     */
+    static synchronized void balance() {
+        trimTo(getBudget());
+    }
+
+    /**
+     * Trim caches in response to a memory trim request
+     * @param level Trim level
+     * @see ComponentCallbacks2#onTrimMemory(int)
+     */
+    public static synchronized void onTrimMemory(int level) {
+        int before = getTotalSize();
+        if ((level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) ||
+                (level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL)) {
+            for (RedditCache<?> cache : sCaches) {
+                cache.evictAll();
+            }
+        } else if ((level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) ||
+                (level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW)) {
+            trimTo(getBudget() / 4);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            trimTo(getBudget() / 2);
+        }
+        Timber.d("Reddit cache trim level %d: %dkB -> %dkB", level, before / 1024, getTotalSize() / 1024);
+    }
+
+    /**
+     * Get a summary of the cache statistics
+     * @return  statistics
+     */
+    @NonNull
+    public static synchronized String getStats() {
+        StringBuilder sb = new StringBuilder("CacheBudget{budget=")
+                .append(getBudget())
+                .append(", size=")
+                .append(getTotalSize());
+        for (RedditCache<?> cache : sCaches) {
+            sb.append(", ")
+                    .append(cache.getClass().getSimpleName())
+                    .append("{size=").append(cache.size())
+                    .append(", hits=").append(cache.hitCount())
+                    .append(", misses=").append(cache.missCount())
+                    .append(", evictions=").append(cache.evictionCount())
+                    .append('}');
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -21,12 +21,15 @@ import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.ResultReceiver;
+import android.os.SystemClock;
 import androidx.annotation.Nullable;
 import android.text.TextUtils;
 
 import com.ianbuttimer.tidderish.data.AbstractIntentService;
 import com.ianbuttimer.tidderish.exception.HttpException;
+import com.ianbuttimer.tidderish.net.HttpCachePolicy;
 import com.ianbuttimer.tidderish.net.NetworkUtils;
+import com.ianbuttimer.tidderish.utils.HtmlRenderer;
 import com.ianbuttimer.tidderish.utils.PreferenceControl;
 
 import java.io.IOException;
@@ -35,6 +38,7 @@ import java.util.HashMap;
 
 import okhttp3.Headers;
 import okhttp3.MediaType;
+import okio.BufferedSource;
 import timber.log.Timber;
 
 import static android.app.Activity.RESULT_CANCELED;
@@ -51,6 +55,7 @@ public class ClientService extends AbstractIntentService {
     public static final String RESULT_HTTP_CODE = "resultHttpCode";
     public static final String RESULT_TEXT = "resultText";
     public static final String REQUEST_URL = "requestURL";
+    public static final String RESULT_RESPONSE = "resultResponse";
 
     public static final String ACTION_POST = "action_post";
     public static final String ACTION_GET = "action_get";
@@ -62,6 +67,9 @@ public class ClientService extends AbstractIntentService {
     public static final String EXTRA_MEDIA_TYPE = "media_type";
     public static final String EXTRA_BODY_DATA = "body_data";
     public static final String EXTRA_ADDITIONAL_INFO = "additional_info";
+    public static final String EXTRA_PRIORITY = "priority";
+    public static final String EXTRA_CACHE_POLICY = "cache_policy";
+    public static final String EXTRA_PROJECTION = "projection";
 
     private static final HashMap<String, NetworkUtils.Method> ACTION_METHOD_MAP;
 
@@ -86,9 +94,24 @@ public class ClientService extends AbstractIntentService {
             return; // nothing to do
         }
 
+        ResultReceiver resultReceiver = getRequestExtractor(intent).resultReceiver();
+        Bundle bundle = processRequest(getApplicationContext(), intent);
+        if ((resultReceiver != null) && (bundle != null)) {
+            resultReceiver.send(bundle.getInt(RESULT_CODE), bundle);
+        }
+    }
+
+    /**
+     * Process a request intent.<br>
+     * <b>Note:</b> this method performs network access so must not be called on the main thread
+     * @param context   The current context
+     * @param intent    Request intent
+     * @return Bundle containing response or <code>null</code> if not a valid request
+     */
+    @Nullable
+    public static Bundle processRequest(Context context, Intent intent) {
         RequestExtractor extractor = getRequestExtractor(intent);
         URL url = extractor.url();
-        ResultReceiver resultReceiver = extractor.resultReceiver();
         Bundle bundle = null;
 
         String action = intent.getAction();
@@ -98,23 +121,22 @@ public class ClientService extends AbstractIntentService {
                 case ACTION_GET:
                 case ACTION_PUT:
                 case ACTION_DELETE:
-                    bundle = httpRequest(url, action, extractor);
+                    bundle = httpRequest(context, url, action, extractor);
                     break;
             }
         }
-        if ((resultReceiver != null) && (bundle != null)) {
-            resultReceiver.send(bundle.getInt(RESULT_CODE), bundle);
-        }
+        return bundle;
     }
 
     /**
      * Process a http request
+     * @param context   The current context
      * @param url       Request url
      * @param action    Request action; one of ACTION_POST etc.
      * @param extractor Request data extractor
      * @return Bundle containing response
      */
-    private Bundle httpRequest(URL url, String action, RequestExtractor extractor) {
+    private static Bundle httpRequest(Context context, URL url, String action, RequestExtractor extractor) {
 
         ResponseBuilder responseBuilder = getResponseBuilder()
                 .requestUrl(url)
@@ -124,10 +146,26 @@ public class ClientService extends AbstractIntentService {
         String result;
         int code = HTTP_OK;
         if ((url != null) && (method != null)) {
+            boolean logHttp = PreferenceControl.getLogHttpPreference(context);
             try {
                 Headers headers = RedditClient.getClient().getHeaders();
-                result = NetworkUtils.httpResponseStringSync(
-                        url, method, headers, extractor.mediaType(), extractor.bodyData());
+                Response<? extends BaseObject<?>> response = null;
+                if (!logHttp) {
+                    // body only needed as a string if it is to be logged
+                    response = newResponse(extractor.responseClass());
+                }
+                if (response != null) {
+                    // stream the response body straight into the parser
+                    response.setProjection(extractor.projection());
+                    httpResponseParseSync(url, method, headers, extractor, response);
+                    HtmlRenderer.getInstance().prerender(response);
+                    responseBuilder.parsedResponse(response);
+                    result = null;
+                } else {
+                    result = NetworkUtils.httpResponseStringSync(
+                            url, method, headers, extractor.mediaType(), extractor.bodyData(),
+                            extractor.cachePolicy());
+                }
                 resultCode = RESULT_OK;
             } catch (HttpException e) {
                 code = e.getCode();
@@ -140,7 +178,7 @@ public class ClientService extends AbstractIntentService {
             responseBuilder.httpCode(code)
                             .resultText(result);
 
-            if (PreferenceControl.getLogHttpPreference(getApplicationContext())) {
+            if (logHttp) {
                 // log response body
                 String bodyText = result;
 //                // prettify for log but results in a lot of lines
@@ -162,10 +200,73 @@ public class ClientService extends AbstractIntentService {
 
         return responseBuilder.resultCode(resultCode)
                 .additionalInfo(extractor.additionalInfo()) // echo back additional info
-                .dump(PreferenceControl.getLogHttpPreference(getApplicationContext()))
+                .dump(PreferenceControl.getLogHttpPreference(context))
                 .build();
     }
 
+    /**
+     * Synchronously make a http request and parse the response body directly from the response
+     * stream, avoiding the need to read the entire body into a string
+     * @param url       Request url
+     * @param method    Request method
+     * @param headers   Request headers
+     * @param extractor Request data extractor
+     * @param response  Response object to parse into
+     * @throws IOException if the request could not be executed due to cancellation, a connectivity
+     * problem or timeout, or the response body could not be parsed.
+     * @throws HttpException If the response was not successfully received, understood, and accepted.
+     */
+    private static void httpResponseParseSync(URL url, NetworkUtils.Method method, Headers headers,
+                                              RequestExtractor extractor,
+                                              Response<? extends BaseObject<?>> response)
+                                                throws IOException {
+        okhttp3.Response httpResponse = null;
+        try {
+            httpResponse = NetworkUtils.httpResponseSync(
+                    url, method, headers, extractor.mediaType(), extractor.bodyData(),
+                    extractor.cachePolicy());
+
+            BufferedSource source = NetworkUtils.getResponseBodySource(httpResponse);
+            if (source != null) {
+                long start = SystemClock.elapsedRealtimeNanos();
+
+                try {
+                    response.parseJson(source);
+                } catch (RuntimeException e) {
+                    // JsonReader reports unexpected content with unchecked exceptions
+                    throw new IOException("Malformed response: " + e.getMessage(), e);
+                }
+
+                ResponseParser.getInstance().recordTiming(
+                        response.getClass(), SystemClock.elapsedRealtimeNanos() - start);
+            }
+        } finally {
+            //  must close the response body to prevent resource leaks
+            if (httpResponse != null) {
+                httpResponse.close();
+            }
+        }
+    }
+
+    /**
+     * Create a new response object
+     * @param responseClass     Class of response
+     * @return  Response object or <code>null</code> if not possible
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private static Response<? extends BaseObject<?>> newResponse(@Nullable Class<?> responseClass) {
+        Response<? extends BaseObject<?>> response = null;
+        if ((responseClass != null) && Response.class.isAssignableFrom(responseClass)) {
+            try {
+                response = (Response<? extends BaseObject<?>>) responseClass.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                Timber.e(e);
+            }
+        }
+        return response;
+    }
+
     /**
      * Get a launcher intent for this service
      * @param context   Current context
@@ -229,6 +330,27 @@ public class ClientService extends AbstractIntentService {
             return this;
         }
 
+        public RequestBuilder priority(RequestExecutor.Priority priority) {
+            if (priority != null) {
+                mIntent.putExtra(EXTRA_PRIORITY, priority.ordinal());
+            }
+            return this;
+        }
+
+        public RequestBuilder cachePolicy(HttpCachePolicy policy) {
+            if (policy != null) {
+                mIntent.putExtra(EXTRA_CACHE_POLICY, policy.ordinal());
+            }
+            return this;
+        }
+
+        public RequestBuilder projection(Projection projection) {
+            if (projection != null) {
+                mIntent.putExtra(EXTRA_PROJECTION, projection.ordinal());
+            }
+            return this;
+        }
+
         @Override
         public RequestBuilder resultReceiver(ResultReceiver resultReceiver) {
             super.resultReceiver(resultReceiver);
@@ -308,6 +430,36 @@ public class ClientService extends AbstractIntentService {
             }
             return additionalInfo;
         }
+
+        public RequestExecutor.Priority priority() {
+            RequestExecutor.Priority[] values = RequestExecutor.Priority.values();
+            int ordinal = getInt(EXTRA_PRIORITY, RequestExecutor.Priority.NORMAL.ordinal());
+            RequestExecutor.Priority priority = RequestExecutor.Priority.NORMAL;
+            if ((ordinal >= 0) && (ordinal < values.length)) {
+                priority = values[ordinal];
+            }
+            return priority;
+        }
+
+        public HttpCachePolicy cachePolicy() {
+            HttpCachePolicy[] values = HttpCachePolicy.values();
+            int ordinal = getInt(EXTRA_CACHE_POLICY, HttpCachePolicy.NONE.ordinal());
+            HttpCachePolicy policy = HttpCachePolicy.NONE;
+            if ((ordinal >= 0) && (ordinal < values.length)) {
+                policy = values[ordinal];
+            }
+            return policy;
+        }
+
+        public Projection projection() {
+            Projection[] values = Projection.values();
+            int ordinal = getInt(EXTRA_PROJECTION, Projection.DETAIL.ordinal());
+            Projection projection = Projection.DETAIL;
+            if ((ordinal >= 0) && (ordinal < values.length)) {
+                projection = values[ordinal];
+            }
+            return projection;
+        }
     }
 
     public static RequestExtractor getRequestExtractor(Intent intent) {
@@ -321,6 +473,11 @@ public class ClientService extends AbstractIntentService {
             super();
         }
 
+        public ResponseBuilder(Bundle bundle) {
+            super();
+            mBundle.putAll(bundle);
+        }
+
         public ResponseBuilder resultCode(int resultCode) {
             mBundle.putInt(RESULT_CODE, resultCode);
             return this;
@@ -350,12 +507,21 @@ public class ClientService extends AbstractIntentService {
             mBundle.putParcelable(EXTRA_ADDITIONAL_INFO, additionalInfo);
             return this;
         }
+
+        public ResponseBuilder parsedResponse(Response<? extends BaseObject<?>> response) {
+            mBundle.putLong(RESULT_RESPONSE, ResponseStore.put(response));
+            return this;
+        }
     }
 
     public static ResponseBuilder getResponseBuilder() {
         return new ResponseBuilder();
     }
 
+    public static ResponseBuilder getResponseBuilder(Bundle bundle) {
+        return new ResponseBuilder(bundle);
+    }
+
     /** ClientService response extractor class */
     public static class ResponseExtractor extends BundleExtractor {
 
@@ -386,6 +552,20 @@ public class ClientService extends AbstractIntentService {
             return getInt(RESULT_HTTP_CODE, 0);
         }
 
+        /**
+         * Claim the parsed response. <b>Note:</b> the response may only be claimed once
+         * @return  Response or <code>null</code> if not available
+         */
+        @SuppressWarnings("ConstantConditions")
+        @Nullable
+        public Response<? extends BaseObject<?>> parsedResponse() {
+            Response<? extends BaseObject<?>> response = null;
+            if (containsKey(RESULT_RESPONSE)) {
+                response = ResponseStore.take(mBundle.getLong(RESULT_RESPONSE));
+            }
+            return response;
+        }
+
         @SuppressWarnings("ConstantConditions")
         @Nullable
         public Class responseClass() {
@@ -56,6 +56,36 @@ public class Comment extends RedditObject<Comment, CommentProxy> implements Basi
     public static final String SUBREDDIT_NAME_PREFIXED = "subreddit_name_prefixed";
     public static final String DEPTH = "depth";
 
+    /** Handlers for comment tokens, including the common reddit object tokens */
+    protected static final TokenTable<Comment> COMMENT_TOKENS = new TokenTable<Comment>(REDDIT_OBJECT_TOKENS)
+            .add(SUBREDDIT_ID, (jsonReader, obj) -> obj.setSubredditId(nextString(jsonReader, "")))
+            .add(LINK_ID, (jsonReader, obj) -> obj.setLinkId(nextString(jsonReader, "")))
+            .add(AUTHOR, (jsonReader, obj) -> obj.setAuthor(nextString(jsonReader, "")))
+            .add(PARENT_ID, (jsonReader, obj) -> obj.setParentId(nextString(jsonReader, "")))
+            .add(BODY, (jsonReader, obj) -> obj.setBody(nextString(jsonReader, "")))
+            .add(BODY_HTML, (jsonReader, obj) -> obj.setBodyHtml(nextStringFromHtml(jsonReader, "")))
+            .add(SUBREDDIT, (jsonReader, obj) -> obj.setSubreddit(nextString(jsonReader, "")))
+            .add(PERMALINK, (jsonReader, obj) -> obj.setPermalink(nextString(jsonReader, "")))
+            .add(SUBREDDIT_NAME_PREFIXED, (jsonReader, obj) ->
+                    obj.setSubredditNamePrefixed(nextString(jsonReader, "")))
+            .add(SCORE, (jsonReader, obj) -> obj.setScore(nextInt(jsonReader, 0)))
+            .add(DEPTH, (jsonReader, obj) -> obj.setDepth(nextInt(jsonReader, 0)))
+            .add(STICKIED, (jsonReader, obj) -> obj.setStickied(nextBoolean(jsonReader, false)))
+            .add(SCORE_HIDDEN, (jsonReader, obj) -> obj.setScoreHidden(nextBoolean(jsonReader, false)))
+            .add(REPLIES, (jsonReader, obj) -> {
+                if (jsonReader.peek() == JsonToken.BEGIN_OBJECT) {
+                    // have replies to process
+                    CommentResponse commentResponse = new CommentResponse();
+                    commentResponse.parseJson(jsonReader);
+                    ArrayList<Comment> mList = commentResponse.getList();
+                    obj.setReplies(mList.toArray(new Comment[0]));
+                } else {
+                    // should be an empty string so skip
+                    obj.setReplies(new Comment[0]);
+                    jsonReader.skipValue();
+                }
+            });
+
     protected String mSubredditId;
     protected String mLinkId;         // fullname of link to which this comment belongs
     protected Comment[] mReplies;
@@ -131,52 +161,8 @@ public class Comment extends RedditObject<Comment, CommentProxy> implements Basi
                                         throws IOException, IllegalArgumentException {
         checkObject(obj, getClass());
 
-        boolean consumed = super.parseToken(jsonReader, name, obj);
-        if (!consumed) {
-            consumed = true;
-            if (SUBREDDIT_ID.equals(name)) {
-                obj.setSubredditId(nextString(jsonReader, ""));
-            } else if (LINK_ID.equals(name)) {
-                obj.setLinkId(nextString(jsonReader, ""));
-            } else if (AUTHOR.equals(name)) {
-                obj.setAuthor(nextString(jsonReader, ""));
-            } else if (PARENT_ID.equals(name)) {
-                obj.setParentId(nextString(jsonReader, ""));
-            } else if (BODY.equals(name)) {
-                obj.setBody(nextString(jsonReader, ""));
-            } else if (BODY_HTML.equals(name)) {
-                obj.setBodyHtml(nextStringFromHtml(jsonReader, ""));
-            } else if (SUBREDDIT.equals(name)) {
-                obj.setSubreddit(nextString(jsonReader, ""));
-            } else if (PERMALINK.equals(name)) {
-                obj.setPermalink(nextString(jsonReader, ""));
-            } else if (SUBREDDIT_NAME_PREFIXED.equals(name)) {
-                obj.setSubredditNamePrefixed(nextString(jsonReader, ""));
-            } else if (SCORE.equals(name)) {
-                obj.setScore(nextInt(jsonReader, 0));
-            } else if (DEPTH.equals(name)) {
-                obj.setDepth(nextInt(jsonReader, 0));
-            } else if (STICKIED.equals(name)) {
-                obj.setStickied(nextBoolean(jsonReader, false));
-            } else if (SCORE_HIDDEN.equals(name)) {
-                obj.setScoreHidden(nextBoolean(jsonReader, false));
-            } else if (REPLIES.equals(name)) {
-                if (jsonReader.peek() == JsonToken.BEGIN_OBJECT) {
-                    // have replies to process
-                    CommentResponse commentResponse = new CommentResponse();
-                    commentResponse.parseJson(jsonReader);
-                    ArrayList<Comment> mList = commentResponse.getList();
-                    obj.setReplies(mList.toArray(new Comment[0]));
-                } else {
-                    // should be an empty string so skip
-                    obj.setReplies(new Comment[0]);
-                    jsonReader.skipValue();
-                }
-            } else {
-                consumed = false;
-            }
-        }
-        return consumed;
+        // single lookup also covers the common reddit object tokens
+        return COMMENT_TOKENS.parse(jsonReader, name, obj);
     }
 
     public String getSubredditId() {
@@ -16,17 +16,32 @@
 
 package com.ianbuttimer.tidderish.reddit;
 
+import android.os.Parcel;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+import timber.log.Timber;
+
+import static android.text.format.DateUtils.HOUR_IN_MILLIS;
+
 /**
  * A Least-Recently-Used Cache for Reddit comments
  */
 public class CommentCache extends RedditCache<Comment> {
 
-    public static final int CACHE_SIZE = 150;
+    /** Time to live of disk cache entries */
+    public static final long DISK_TTL = 6 * HOUR_IN_MILLIS;
+    /** Share of the cache budget */
+    public static final float BUDGET_SHARE = 0.5f;
+    /** Estimated size of a reference to a reply */
+    private static final int REFERENCE_SIZE = 8;
 
     private static CommentCache mInstance;
 
     private CommentCache() {
-        super(CACHE_SIZE);
+        super(BUDGET_SHARE, DISK_TTL);
     }
 
 
@@ -35,6 +50,89 @@ public class CommentCache extends RedditCache<Comment> {
         return new Comment();
     }
 
+    @Override
+    protected int estimateSize(Comment object) {
+        return stringSize(object.mSubredditId, object.mLinkId, object.mAuthor, object.mParentId,
+                        object.mBody, object.mBodyHtml, object.mSubreddit, object.mPermalink,
+                        object.mSubredditNamePrefixed)
+                + (object.mReplies != null ? object.mReplies.length * REFERENCE_SIZE : 0);
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * Comments are encoded without their parent and with their replies as fullnames, otherwise each
+     * entry would contain the whole comment tree.
+     */
+    @Nullable
+    @Override
+    protected byte[] encode(Comment object) {
+        Comment[] replies = object.mReplies;
+        String[] replyNames = new String[replies != null ? replies.length : 0];
+        for (int i = 0; i < replyNames.length; i++) {
+            replyNames[i] = replies[i].getName();
+        }
+
+        Comment shallow = new Comment();
+        shallow.copy(object);
+        shallow.mReplies = new Comment[0];
+        shallow.mParent = null;
+
+        byte[] data = null;
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeStringArray(replyNames);
+            byte[] comment = super.encode(shallow);
+            if (comment != null) {
+                parcel.writeByteArray(comment);
+                data = parcel.marshall();
+            }
+        } finally {
+            parcel.recycle();
+        }
+        return data;
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * Replies are restored from the cache and linked to the comment, any replies which are no longer
+     * available are omitted.
+     */
+    @Nullable
+    @Override
+    protected Comment decode(byte[] data) {
+        Comment object = null;
+        String[] replyNames = null;
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.unmarshall(data, 0, data.length);
+            parcel.setDataPosition(0);
+            replyNames = parcel.createStringArray();
+            byte[] comment = parcel.createByteArray();
+            if (comment != null) {
+                object = super.decode(comment);
+            }
+        } catch (RuntimeException e) {
+            Timber.w(e, "Unable to decode cache entry");
+        } finally {
+            parcel.recycle();
+        }
+
+        if ((object != null) && (replyNames != null)) {
+            ArrayList<Comment> replies = new ArrayList<>();
+            for (String name : replyNames) {
+                Comment reply = get(name);
+                if (reply.isCacheInstantiated()) {
+                    remove(name);   // not available, don't leave a placeholder
+                } else {
+                    reply.setParent(object);
+                    replies.add(reply);
+                }
+            }
+            object.mReplies = replies.toArray(new Comment[0]);
+        }
+        return object;
+    }
+
     public static CommentCache getInstance() {
         if (mInstance == null) {
             mInstance = new CommentCache();
@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.reddit;
+
+import android.content.Context;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ianbuttimer.tidderish.BuildConfig;
+import com.ianbuttimer.tidderish.TidderApplication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import timber.log.Timber;
+
+/**
+ * Persistent second tier for the Reddit object caches.<br>
+ * Entries are stored as individual files in the application cache directory, with a header
+ * containing the format version and expiry time. Writes are performed on a background thread, and
+ * the total size of the cache is bounded by evicting the least recently written entries.<br>
+ * This class is a singleton.
+ */
+public class DiskCache {
+
+    /** Maximum total size of the cache in bytes */
+    private static final long MAX_SIZE = 8 * 1024 * 1024;
+    /** Size to trim to when the maximum is exceeded */
+    private static final long TRIM_SIZE = (MAX_SIZE * 3) / 4;
+
+    private static final String DIRECTORY = "reddit";
+    private static final String TMP_EXT = ".tmp";
+    private static final int MAGIC = 0x54445243;    // "TDRC"
+    /* parcel encoding may change between platform versions, so entries are only valid for the
+        app and platform versions which wrote them */
+    private static final int APP_VERSION = BuildConfig.VERSION_CODE;
+    private static final int PLATFORM_VERSION = Build.VERSION.SDK_INT;
+
+    private static DiskCache sInstance = null;     // singleton instance
+
+    @Nullable private final File mDirectory;
+    private final ExecutorService mWriter;
+    private final HashMap<String, Long> mChecksums;   // checksums of entries written this session
+    private long mSize;                               // total size of entries, -1 if unknown
+
+    private final AtomicInteger mHits = new AtomicInteger();
+    private final AtomicInteger mMisses = new AtomicInteger();
+    private final AtomicInteger mExpired = new AtomicInteger();
+    private final AtomicInteger mWrites = new AtomicInteger();
+    private final AtomicInteger mEvictions = new AtomicInteger();
+
+    /**
+     * Constructor
+     */
+    private DiskCache() {
+        Context context = TidderApplication.getWeakApplicationContext() != null ?
+                TidderApplication.getWeakApplicationContext().get() : null;
+        File directory = null;
+        if (context != null) {
+            directory = new File(context.getCacheDir(), DIRECTORY);
+            if (!directory.exists() && !directory.mkdirs()) {
+                Timber.w("Unable to create disk cache directory");
+                directory = null;
+            }
+        }
+        mDirectory = directory;
+        mWriter = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DiskCache");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        mChecksums = new HashMap<>();
+        mSize = -1;
+    }
+
+    /**
+     * Get the cache
+     * @return  Cache reference
+     */
+    public static synchronized DiskCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new DiskCache();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Check if the cache is available
+     * @return  <code>true</code> if available
+     */
+    public boolean isAvailable() {
+        return (mDirectory != null);
+    }
+
+    /**
+     * Get the file for a key
+     * @param key   Cache key, a reddit fullname
+     * @return  file
+     */
+    private File getFile(String key) {
+        // fullnames are alphanumeric plus '_' so are safe as file names
+        return new File(mDirectory, key);
+    }
+
+    /**
+     * Read an entry from the cache
+     * @param key   Cache key
+     * @return  Entry data or <code>null</code> if not available or expired
+     */
+    @Nullable
+    public byte[] read(String key) {
+        byte[] data = null;
+        if (isAvailable()) {
+            File file = getFile(key);
+            if (file.exists()) {
+                boolean valid = false;
+                DataInputStream in = null;
+                try {
+                    in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                    if ((in.readInt() == MAGIC) && (in.readInt() == APP_VERSION) &&
+                            (in.readInt() == PLATFORM_VERSION)) {
+                        long expiry = in.readLong();
+                        if (expiry > System.currentTimeMillis()) {
+                            data = new byte[in.readInt()];
+                            in.readFully(data);
+                            valid = true;
+                        } else {
+                            mExpired.incrementAndGet();
+                        }
+                    }
+                } catch (IOException e) {
+                    Timber.w(e, "Unable to read disk cache entry %s", key);
+                    data = null;
+                } finally {
+                    close(in);
+                }
+                if (!valid) {
+                    remove(key);
+                }
+            }
+        }
+        if (data != null) {
+            mHits.incrementAndGet();
+        } else {
+            mMisses.incrementAndGet();
+        }
+        return data;
+    }
+
+    /**
+     * Write an entry to the cache, in the background
+     * @param key   Cache key
+     * @param data  Entry data
+     * @param ttl   Time to live in milliseconds
+     */
+    public void write(final String key, final byte[] data, final long ttl) {
+        if (isAvailable()) {
+            final long expiry = System.currentTimeMillis() + ttl;
+
+            mWriter.execute(() -> {
+                CRC32 crc = new CRC32();
+                crc.update(data);
+                long checksum = crc.getValue();
+
+                Long previous = mChecksums.get(key);
+                if ((previous != null) && (previous == checksum) && getFile(key).exists()) {
+                    return; // unchanged since last written
+                }
+                ensureSize();   // before writing, so the total doesn't include the new entry
+                File file = getFile(key);
+                File tmp = new File(mDirectory, key + TMP_EXT);
+                DataOutputStream out = null;
+                boolean written = false;
+                try {
+                    out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+                    out.writeInt(MAGIC);
+                    out.writeInt(APP_VERSION);
+                    out.writeInt(PLATFORM_VERSION);
+                    out.writeLong(expiry);
+                    out.writeInt(data.length);
+                    out.write(data);
+                    out.close();
+                    out = null;
+
+                    long oldLength = file.length();
+                    written = tmp.renameTo(file);
+                    if (written) {
+                        mChecksums.put(key, checksum);
+                        mWrites.incrementAndGet();
+                        mSize += file.length() - oldLength;
+                        trim();
+                    }
+                } catch (IOException e) {
+                    Timber.w(e, "Unable to write disk cache entry %s", key);
+                } finally {
+                    close(out);
+                    if (!written) {
+                        //noinspection ResultOfMethodCallIgnored
+                        tmp.delete();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Run a task on the cache thread, after any pending writes, e.g. to restore entries off the
+     * main thread
+     * @param task  Task to run
+     */
+    public void execute(Runnable task) {
+        mWriter.execute(task);
+    }
+
+    /**
+     * Remove an entry from the cache, in the background
+     * @param key   Cache key
+     */
+    public void remove(final String key) {
+        if (isAvailable()) {
+            mWriter.execute(() -> {
+                File file = getFile(key);
+                long length = file.length();
+                if (file.delete() && (mSize >= 0)) {
+                    mSize -= length;
+                }
+                mChecksums.remove(key);
+            });
+        }
+    }
+
+    /**
+     * Remove all entries from the cache, in the background
+     */
+    public void clear() {
+        if (isAvailable()) {
+            mWriter.execute(() -> {
+                File[] files = mDirectory.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        //noinspection ResultOfMethodCallIgnored
+                        file.delete();
+                    }
+                }
+                mChecksums.clear();
+                mSize = 0;
+            });
+        }
+    }
+
+    /**
+     * Calculate the total size of the cache if not already known.
+     * <b>Note:</b> must be called on the writer thread
+     */
+    private void ensureSize() {
+        if (mSize < 0) {
+            mSize = 0;
+            File[] files = mDirectory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    mSize += file.length();
+                }
+            }
+        }
+    }
+
+    /**
+     * Evict the least recently written entries if the cache exceeds its maximum size.
+     * <b>Note:</b> must be called on the writer thread
+     */
+    private void trim() {
+        if (mSize > MAX_SIZE) {
+            File[] files = mDirectory.listFiles();
+            if (files != null) {
+                Arrays.sort(files, new Comparator<File>() {
+                    @Override
+                    public int compare(File file1, File file2) {
+                        return Long.compare(file1.lastModified(), file2.lastModified());
+                    }
+                });
+                for (int i = 0; (i < files.length) && (mSize > TRIM_SIZE); i++) {
+                    long length = files[i].length();
+                    if (files[i].delete()) {
+                        mSize -= length;
+                        mChecksums.remove(files[i].getName());
+                        mEvictions.incrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    private static void close(@Nullable Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                Timber.w(e);
+            }
+        }
+    }
+
+    /**
+     * Get a summary of the cache statistics
+     * @return  statistics
+     */
+    @NonNull
+    public String getStats() {
+        return "DiskCache{" +
+                "size=" + mSize +
+                ", hits=" + mHits.get() +
+                ", misses=" + mMisses.get() +
+                ", expired=" + mExpired.get() +
+                ", writes=" + mWrites.get() +
+                ", evictions=" + mEvictions.get() +
+                '}';
+    }
+}
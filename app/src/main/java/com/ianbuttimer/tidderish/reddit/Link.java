@@ -48,6 +48,8 @@ public class Link extends RedditObject<Link, LinkProxy>
     protected static final String PERMALINK = "permalink";
     protected static final String URL = "url";
     protected static final String THUMBNAIL = "thumbnail";
+    protected static final String THUMBNAIL_WIDTH = "thumbnail_width";
+    protected static final String THUMBNAIL_HEIGHT = "thumbnail_height";
     protected static final String TITLE = "title";
     protected static final String SUBREDDIT_NAME_PREFIXED = "subreddit_name_prefixed";
     protected static final String NUM_COMMENTS = "num_comments";
@@ -66,6 +68,46 @@ public class Link extends RedditObject<Link, LinkProxy>
 
     protected static final Uri SELF_URI = Uri.parse("self");
 
+    /** Handlers for link tokens, including the common reddit object tokens. Tokens without a
+        projection are displayed by the app widget so are always parsed */
+    protected static final TokenTable<Link> LINK_TOKENS = new TokenTable<Link>(REDDIT_OBJECT_TOKENS)
+            .add(URL, Projection.LIST_ROW, (jsonReader, obj) -> obj.setUrl(nextUri(jsonReader)))
+            .add(THUMBNAIL, (jsonReader, obj) -> obj.setThumbnail(nextUri(jsonReader)))
+            .add(THUMBNAIL_WIDTH, (jsonReader, obj) -> obj.setThumbnailWidth(nextInt(jsonReader, 0)))
+            .add(THUMBNAIL_HEIGHT, (jsonReader, obj) -> obj.setThumbnailHeight(nextInt(jsonReader, 0)))
+            .add(LIKES, Projection.LIST_ROW, (jsonReader, obj) -> obj.setLikes(nextInt(jsonReader, 0)))
+            .add(SCORE, (jsonReader, obj) -> obj.setScore(nextInt(jsonReader, 0)))
+            .add(NUM_COMMENTS, (jsonReader, obj) -> obj.setNumComments(nextInt(jsonReader, 0)))
+            .add(OVER_18, (jsonReader, obj) -> obj.setOver18(nextBoolean(jsonReader, false)))
+            .add(IS_VIDEO, Projection.LIST_ROW, (jsonReader, obj) -> obj.setVideo(nextBoolean(jsonReader, false)))
+            .add(HIDE_SCORE, Projection.LIST_ROW, (jsonReader, obj) -> obj.setHideScore(nextBoolean(jsonReader, false)))
+            .add(DOMAIN, Projection.LIST_ROW, (jsonReader, obj) -> obj.setDomain(nextString(jsonReader, "")))
+            .add(SUBREDDIT, (jsonReader, obj) -> obj.setSubreddit(nextString(jsonReader, "")))
+            .add(AUTHOR, Projection.LIST_ROW, (jsonReader, obj) -> obj.setAuthor(nextString(jsonReader, "")))
+            .add(SUBREDDIT_ID, Projection.LIST_ROW, (jsonReader, obj) -> obj.setSubredditId(nextString(jsonReader, "")))
+            .add(PERMALINK, (jsonReader, obj) -> obj.setPermalink(nextString(jsonReader, "")))
+            .add(SELFTEXT, Projection.DETAIL, (jsonReader, obj) -> obj.setSelfText(nextString(jsonReader, "")))
+            .add(SELFTEXT_HTML, Projection.DETAIL, (jsonReader, obj) -> obj.setSelfTextHtml(nextStringFromHtml(jsonReader, "")))
+            .add(TITLE, (jsonReader, obj) -> obj.setTitle(nextStringFromHtml(jsonReader, "")))
+            .add(SUBREDDIT_NAME_PREFIXED, (jsonReader, obj) ->
+                    obj.setSubredditNamePrefixed(nextString(jsonReader, "")))
+            .add(SECURE_MEDIA, Projection.DETAIL, (jsonReader, obj) -> {
+                if (!skipNull(jsonReader)) {
+                    SecureMedia secureMedia = new SecureMedia();
+                    secureMedia.parseJson(jsonReader);
+                    obj.setSecureMedia(secureMedia);
+                }
+            })
+            .add(SECURE_MEDIA_EMBED, Projection.DETAIL, (jsonReader, obj) -> obj.setSecureMediaEmbed(obj.readMedisEmbed(jsonReader)))
+            .add(MEDIA_EMBED, Projection.DETAIL, (jsonReader, obj) -> obj.setMediaEmbed(obj.readMedisEmbed(jsonReader)))
+            .add(PREVIEW, Projection.LIST_ROW, (jsonReader, obj) -> {
+                if (!skipNull(jsonReader)) {
+                    Preview preview = new Preview();
+                    preview.parseJson(jsonReader);
+                    obj.setPreview(preview);
+                }
+            });
+
     protected String mDomain;
     protected String mSubreddit;
     protected int mLikes;
@@ -76,6 +118,8 @@ public class Link extends RedditObject<Link, LinkProxy>
     protected String mPermalink;
     protected Uri mUrl;
     protected Uri mThumbnail;
+    protected int mThumbnailWidth;
+    protected int mThumbnailHeight;
     protected String mTitle;
     protected String mSubredditNamePrefixed;        // prefixed name of subreddit, e.g. "r/news"
     protected String mSelfText;
@@ -87,6 +131,7 @@ public class Link extends RedditObject<Link, LinkProxy>
     protected MediaEmbed mMediaEmbed;
     protected MediaEmbed mSecureMediaEmbed;
     protected Preview mPreview;
+    protected Projection mProjection = Projection.DETAIL;   // fields parsed
 
 
     /**
@@ -117,6 +162,8 @@ public class Link extends RedditObject<Link, LinkProxy>
         mPermalink = "";
         mUrl = null;
         mThumbnail = null;
+        mThumbnailWidth = 0;
+        mThumbnailHeight = 0;
         mTitle = "";
         mSubredditNamePrefixed = "";
         mSelfText = "";
@@ -128,6 +175,7 @@ public class Link extends RedditObject<Link, LinkProxy>
         mMediaEmbed = null;
         mSecureMediaEmbed = null;
         mPreview = null;
+        mProjection = Projection.DETAIL;
     }
 
     public boolean copy(Link link) {
@@ -163,65 +211,8 @@ public class Link extends RedditObject<Link, LinkProxy>
                                         throws IOException, IllegalArgumentException {
         checkObject(obj, getClass());
 
-        boolean consumed = super.parseToken(jsonReader, name, obj);
-        if (!consumed) {
-            consumed = true;
-            // process required fields
-            if (URL.equals(name)) {
-                obj.setUrl(nextUri(jsonReader));
-            } else if (THUMBNAIL.equals(name)) {
-                obj.setThumbnail(nextUri(jsonReader));
-            } else if (LIKES.equals(name)) {
-                obj.setLikes(nextInt(jsonReader, 0));
-            } else if (SCORE.equals(name)) {
-                obj.setScore(nextInt(jsonReader, 0));
-            } else if (NUM_COMMENTS.equals(name)) {
-                obj.setNumComments(nextInt(jsonReader, 0));
-            } else if (OVER_18.equals(name)) {
-                obj.setOver18(nextBoolean(jsonReader, false));
-            } else if (IS_VIDEO.equals(name)) {
-                obj.setVideo(nextBoolean(jsonReader, false));
-            } else if (HIDE_SCORE.equals(name)) {
-                obj.setHideScore(nextBoolean(jsonReader, false));
-            } else if (DOMAIN.equals(name)) {
-                obj.setDomain(nextString(jsonReader, ""));
-            } else if (SUBREDDIT.equals(name)) {
-                obj.setSubreddit(nextString(jsonReader, ""));
-            } else if (AUTHOR.equals(name)) {
-                obj.setAuthor(nextString(jsonReader, ""));
-            } else if (SUBREDDIT_ID.equals(name)) {
-                obj.setSubredditId(nextString(jsonReader, ""));
-            } else if (PERMALINK.equals(name)) {
-                obj.setPermalink(nextString(jsonReader, ""));
-            } else if (SELFTEXT.equals(name)) {
-                obj.setSelfText(nextString(jsonReader, ""));
-            } else if (SELFTEXT_HTML.equals(name)) {
-                obj.setSelfTextHtml(nextStringFromHtml(jsonReader, ""));
-            } else if (TITLE.equals(name)) {
-                obj.setTitle(nextStringFromHtml(jsonReader, ""));
-            } else if (SUBREDDIT_NAME_PREFIXED.equals(name)) {
-                obj.setSubredditNamePrefixed(nextString(jsonReader, ""));
-            } else if (SECURE_MEDIA.equals(name)) {
-                if (!skipNull(jsonReader)) {
-                    SecureMedia secureMedia = new SecureMedia();
-                    secureMedia.parseJson(jsonReader);
-                    obj.setSecureMedia(secureMedia);
-                }
-            } else if (SECURE_MEDIA_EMBED.equals(name)) {
-                obj.setSecureMediaEmbed(readMedisEmbed(jsonReader));
-            } else if (MEDIA_EMBED.equals(name)) {
-                obj.setMediaEmbed(readMedisEmbed(jsonReader));
-            } else if (PREVIEW.equals(name)) {
-                if (!skipNull(jsonReader)) {
-                    Preview preview = new Preview();
-                    preview.parseJson(jsonReader);
-                    obj.setPreview(preview);
-                }
-            } else {
-                consumed = false;
-            }
-        }
-        return consumed;
+        // single lookup also covers the common reddit object tokens
+        return LINK_TOKENS.parse(jsonReader, name, obj, obj.mProjection);
     }
 
 
@@ -325,6 +316,22 @@ public class Link extends RedditObject<Link, LinkProxy>
         this.mThumbnail = thumbnail;
     }
 
+    public int getThumbnailWidth() {
+        return mThumbnailWidth;
+    }
+
+    public void setThumbnailWidth(int thumbnailWidth) {
+        this.mThumbnailWidth = thumbnailWidth;
+    }
+
+    public int getThumbnailHeight() {
+        return mThumbnailHeight;
+    }
+
+    public void setThumbnailHeight(int thumbnailHeight) {
+        this.mThumbnailHeight = thumbnailHeight;
+    }
+
     public boolean isSelfThumbnail() {
         boolean self = false;
         if (mThumbnail != null) {
@@ -421,6 +428,31 @@ public class Link extends RedditObject<Link, LinkProxy>
         this.mSecureMediaEmbed = secureMediaEmbed;
     }
 
+    /**
+     * Get the set of fields parsed for this link
+     * @return  projection
+     */
+    public Projection getProjection() {
+        return mProjection;
+    }
+
+    /**
+     * Set the set of fields to parse for this link
+     * @param projection    Projection
+     */
+    public void setProjection(Projection projection) {
+        this.mProjection = projection;
+    }
+
+    /**
+     * Check if this link has all its fields, i.e. a screen needing fields outside the projection
+     * it was parsed with should request the full link
+     * @return  <code>true</code> if all fields parsed
+     */
+    public boolean isComplete() {
+        return Projection.DETAIL.equals(mProjection);
+    }
+
     @Nullable public Preview getPreview() {
         return mPreview;
     }
@@ -16,17 +16,26 @@
 
 package com.ianbuttimer.tidderish.reddit;
 
+import static android.text.format.DateUtils.HOUR_IN_MILLIS;
+
 /**
  * A Least-Recently-Used Cache for Reddit links
  */
 public class LinkCache extends RedditCache<Link> {
 
-    public static final int CACHE_SIZE = 100;
+    /** Time to live of disk cache entries */
+    public static final long DISK_TTL = 6 * HOUR_IN_MILLIS;
+    /** Share of the cache budget */
+    public static final float BUDGET_SHARE = 0.3f;
+    /** Estimated size of media objects */
+    private static final int MEDIA_SIZE = 1024;
+    /** Estimated size of a preview, including its resolutions */
+    private static final int PREVIEW_SIZE = 4096;
 
     private static LinkCache mInstance;
 
     private LinkCache() {
-        super(CACHE_SIZE);
+        super(BUDGET_SHARE, DISK_TTL);
     }
 
 
@@ -35,6 +44,19 @@ public class LinkCache extends RedditCache<Link> {
         return new Link();
     }
 
+    @Override
+    protected int estimateSize(Link object) {
+        return stringSize(object.mDomain, object.mSubreddit, object.mAuthor, object.mSubredditId,
+                        object.mPermalink, object.mTitle, object.mSubredditNamePrefixed,
+                        object.mSelfText, object.mSelfTextHtml)
+                + objectSize(object.mUrl, URI_SIZE)
+                + objectSize(object.mThumbnail, URI_SIZE)
+                + objectSize(object.mSecureMedia, MEDIA_SIZE)
+                + objectSize(object.mMediaEmbed, MEDIA_SIZE)
+                + objectSize(object.mSecureMediaEmbed, MEDIA_SIZE)
+                + objectSize(object.mPreview, PREVIEW_SIZE);
+    }
+
     public static LinkCache getInstance() {
         if (mInstance == null) {
             mInstance = new LinkCache();
@@ -128,6 +128,12 @@ public abstract class ListingResponse<T, C>
         return true;
     }
 
+    @Override
+    protected void detachLists() {
+        super.detachLists();
+        mList = new ArrayList<>(mList);
+    }
+
     @Override
     protected boolean isExpectedListingType(String type) {
         return KIND_LISTING.equals(type);
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.reddit;
+
+/**
+ * Set of fields to parse from a response.<br>
+ * Each projection includes the fields of the projections before it, so fields a screen never
+ * reads are skipped rather than converted to objects.
+ */
+public enum Projection {
+    /** Fields displayed by the app widget */
+    WIDGET,
+    /** Fields displayed in a post list, and used by the detail screen before its full link arrives */
+    LIST_ROW,
+    /** All fields */
+    DETAIL;
+
+    /**
+     * Check if this projection includes the fields of another
+     * @param required  Projection to check
+     * @return  <code>true</code> if included
+     */
+    public boolean includes(Projection required) {
+        return (ordinal() >= required.ordinal());
+    }
+}
@@ -16,22 +16,276 @@
 
 package com.ianbuttimer.tidderish.reddit;
 
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcel;
+import android.os.Parcelable;
 import androidx.annotation.Nullable;
 import android.util.LruCache;
 import android.util.Pair;
 
+import org.parceler.Parcels;
+
+import java.util.HashMap;
+import java.util.List;
+
+import timber.log.Timber;
+
+/**
+ * Base class for Least-Recently-Used caches of Reddit objects.<br>
+ * Budgeted caches are sized in bytes, using an estimate of the size of each object, and share the
+ * memory budget managed by {@link CacheBudget}. Persistent caches are backed by the
+ * {@link DiskCache}, so objects may be restored after process death. Objects are only restored
+ * from disk off the main thread; on the main thread a miss creates a placeholder which may be
+ * replaced using {@link #restore(List, IRestoreListener)}.
+ */
 public abstract class RedditCache<T extends RedditObject> extends LruCache<String, T> {
 
+    /** Estimated size of an object excluding variable length content */
+    protected static final int OBJECT_OVERHEAD = 256;
+    /** Estimated size of a string excluding its characters */
+    protected static final int STRING_OVERHEAD = 40;
+    /** Estimated size of a uri */
+    protected static final int URI_SIZE = 256;
+
+    private final float mBudgetShare;   // share of the cache budget, or 0 if not budgeted
+    private final long mDiskTtl;        // disk cache time to live, or 0 if not persistent
 
+    /**
+     * Constructor for a cache with a fixed number of entries
+     * @param size  Maximum number of entries
+     */
     public RedditCache(int size) {
         super(size);
+        mBudgetShare = 0;
+        mDiskTtl = 0;
+    }
+
+    /**
+     * Constructor for a cache sharing the cache budget
+     * @param share Share of the budget, 0 to 1
+     */
+    public RedditCache(float share) {
+        this(share, 0);
+    }
+
+    /**
+     * Constructor for a cache sharing the cache budget and backed by the disk cache
+     * @param share     Share of the budget, 0 to 1
+     * @param diskTtl   Time to live of disk cache entries in milliseconds, or 0 if not persistent
+     */
+    public RedditCache(float share, long diskTtl) {
+        super(CacheBudget.getBudget());
+        mBudgetShare = share;
+        mDiskTtl = diskTtl;
+        CacheBudget.register(this);
+    }
+
+    /**
+     * Check if this cache is backed by the disk cache
+     * @return  <code>true</code> if persistent
+     */
+    public boolean isPersistent() {
+        return (mDiskTtl > 0);
     }
 
+    /**
+     * Get the share of the cache budget for this cache
+     * @return  Share of the budget, 0 to 1, or 0 if not budgeted
+     */
+    public float getBudgetShare() {
+        return mBudgetShare;
+    }
+
+    /**
+     * Check if this cache shares the cache budget
+     * @return  <code>true</code> if budgeted
+     */
+    public boolean isBudgeted() {
+        return (mBudgetShare > 0);
+    }
+
+    @Override
+    protected int sizeOf(String key, T value) {
+        int size;
+        if (isBudgeted()) {
+            size = OBJECT_OVERHEAD + stringSize(key, value.mName, value.mId)
+                    + estimateSize(value);
+        } else {
+            size = 1;
+        }
+        return size;
+    }
+
+    /**
+     * Estimate the size of the type-specific content of an object
+     * @param object    Object to estimate
+     * @return  Size in bytes
+     */
+    protected int estimateSize(T object) {
+        return 0;
+    }
+
+    /**
+     * Estimate the size of strings
+     * @param strings   Strings to estimate
+     * @return  Size in bytes
+     */
+    protected static int stringSize(String... strings) {
+        int size = 0;
+        for (String string : strings) {
+            if (string != null) {
+                size += STRING_OVERHEAD + (string.length() * 2);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Estimate the size of an object reference
+     * @param object    Object
+     * @param size      Estimated size of object
+     * @return  Size in bytes, or 0 if object is <code>null</code>
+     */
+    protected static int objectSize(Object object, int size) {
+        return (object != null ? size : 0);
+    }
+
+    /**
+     * Add an object to the cache, evicting entries if the cache budget is exceeded
+     * @param key       Key
+     * @param object    Object to add
+     * @return  The previous value mapped by key
+     */
+    public T add(String key, T object) {
+        T previous = put(key, object);
+        if (isBudgeted()) {
+            CacheBudget.balance();
+        }
+        if (isPersistent() && !object.isCacheInstantiated()) {
+            // marshal now, as the object may be modified before the write is performed
+            byte[] data = encode(object);
+            if (data != null) {
+                DiskCache.getInstance().write(key, data, mDiskTtl);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Encode an object for the disk cache
+     * @param object    Object to encode
+     * @return  Encoded object or <code>null</code> if unable to encode
+     */
+    @Nullable
+    protected byte[] encode(T object) {
+        byte[] data = null;
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeParcelable(Parcels.wrap(object), 0);
+            data = parcel.marshall();
+        } catch (RuntimeException e) {
+            Timber.w(e, "Unable to encode %s", object.getName());
+        } finally {
+            parcel.recycle();
+        }
+        return data;
+    }
+
+    /**
+     * Decode an object from the disk cache
+     * @param data  Encoded object
+     * @return  Object or <code>null</code> if unable to decode
+     */
+    @Nullable
+    protected T decode(byte[] data) {
+        T object = null;
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.unmarshall(data, 0, data.length);
+            parcel.setDataPosition(0);
+            Parcelable parcelable = parcel.readParcelable(getClass().getClassLoader());
+            object = Parcels.unwrap(parcelable);
+        } catch (RuntimeException e) {
+            Timber.w(e, "Unable to decode cache entry");
+        } finally {
+            parcel.recycle();
+        }
+        return object;
+    }
+
+    /**
+     * Restore an object from the disk cache
+     * @param key   Key
+     * @return  Object or <code>null</code> if not available
+     */
+    @Nullable
+    private T restore(String key) {
+        T object = null;
+        byte[] data = DiskCache.getInstance().read(key);
+        if (data != null) {
+            object = decode(data);
+            if (object != null) {
+                object.tagIfNotTagged();
+                object.clearCacheInstantiated();
+                object.clearRequestInProgress();
+                object.setRestored();   // may be stale, so revalidate
+            } else {
+                DiskCache.getInstance().remove(key);
+            }
+        }
+        return object;
+    }
+
+
+    /**
+     * Restore objects from the disk cache in the background, replacing any placeholders created
+     * for them
+     * @param keys      Keys of objects to restore
+     * @param listener  Callback, on the main thread, with the restored objects keyed by key
+     */
+    public void restore(final List<String> keys, final IRestoreListener<T> listener) {
+        final Handler handler = new Handler(Looper.getMainLooper());
+        DiskCache.getInstance().execute(() -> {
+            final HashMap<String, T> restored = new HashMap<>();
+            if (isPersistent()) {
+                for (String key : keys) {
+                    T current = get(key);   // off main thread so restores if not in memory
+                    if (current.isCacheInstantiated()) {
+                        T object = restore(key);
+                        if (object != null) {
+                            put(key, object);
+                            current = object;
+                        }
+                    }
+                    if (!current.isCacheInstantiated()) {
+                        restored.put(key, current);
+                    }
+                }
+                if (isBudgeted()) {
+                    CacheBudget.balance();
+                }
+            }
+            handler.post(() -> listener.onRestore(restored));
+        });
+    }
+
+    private static boolean isMainThread() {
+        return (Looper.myLooper() == Looper.getMainLooper());
+    }
 
     protected abstract T getObject();
 
     @Override
     protected T create(String key) {
+        // restoring may read a tree of objects from disk, so never on the main thread
+        if (isPersistent() && !isMainThread()) {
+            T restored = restore(key);
+            if (restored != null) {
+                return restored;
+            }
+        }
+
         T object = getObject();
         object.tagIfNotTagged();
         object.setCacheInstantiated();
@@ -61,9 +315,14 @@ public abstract class RedditCache<T extends RedditObject> extends LruCache<Strin
     @Nullable
     public T get(String key, @Nullable ICacheListener<T> listener) {
         T object = get(key);
-        if (object.isCacheInstantiated() && (listener != null)) {
+        if ((object != null) && object.isCacheInstantiated()) {
             // created by the cache
-            listener.onCreate(key, object);
+            if (isBudgeted()) {
+                CacheBudget.balance();
+            }
+            if (listener != null) {
+                listener.onCreate(key, object);
+            }
         }
         return object;
     }
@@ -79,6 +338,17 @@ public abstract class RedditCache<T extends RedditObject> extends LruCache<Strin
          */
         String getCacheKey();
     }
+    /**
+     * Callback interface for restoring objects from the disk cache
+     */
+    public interface IRestoreListener<T extends RedditObject> {
+        /**
+         * Called when objects have been restored
+         * @param restored  Restored objects keyed by cache key
+         */
+        void onRestore(HashMap<String, T> restored);
+    }
+
     /**
      * Callback interface to be implemented by cache users
      */
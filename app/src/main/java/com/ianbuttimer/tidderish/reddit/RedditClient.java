@@ -27,6 +27,7 @@ import android.util.ArrayMap;
 import android.util.Base64;
 
 import com.ianbuttimer.tidderish.TidderApplication;
+import com.ianbuttimer.tidderish.data.FollowRepository;
 import com.ianbuttimer.tidderish.event.RedditClientEvent;
 import com.ianbuttimer.tidderish.net.NetworkUtils;
 import com.ianbuttimer.tidderish.net.RedditUriBuilder;
@@ -274,6 +275,9 @@ public class RedditClient {
                     @Override
                     protected void onReceiveResult(int resultCode, Bundle resultData) {
                         if (resultCode == RESULT_OK) {
+                            // cached responses may be specific to the user
+                            NetworkUtils.clearHttpCache();
+                            FollowRepository.getInstance().reset();
                             setStatus(UNAUTHORISED, true);
                             init();
                         } else if (resultCode == RESULT_CANCELED) {
@@ -343,6 +347,7 @@ public class RedditClient {
                                 request.getDataMap(), "&", "="))
                 .responseClass(request.getResponseClass())
                 .additionalInfo(request.getAdditionalInfo())
+                .priority(request.getPriority())
                 .build();
 
         startService(context, intent);
@@ -358,6 +363,9 @@ public class RedditClient {
         Intent intent = getLaunchBuilder(context, ACTION_GET, request.getUri(), receiver)
                 .responseClass(request.getResponseClass())
                 .additionalInfo(request.getAdditionalInfo())
+                .priority(request.getPriority())
+                .cachePolicy(request.getCachePolicy())
+                .projection(request.getProjection())
                 .build();
 
         startService(context, intent);
@@ -369,13 +377,28 @@ public class RedditClient {
 
             refreshToken(context);
         } else {
-            context.startService(intent);
+            RequestExecutor.getInstance().execute(context, intent);
         }
     }
 
     private void startServiceForToken(Context context, ArrayMap<String, String> map) {
-        startServiceForPost(context, RedditUriBuilder.getTokenRetrievalUri(),
-                        map, new TokenDelayMethodReceiver(new Handler(), context));
+        // token requests take precedence as all other requests depend on them
+        Intent intent = getLaunchBuilder(context, ACTION_POST, RedditUriBuilder.getTokenRetrievalUri(),
+                                new TokenDelayMethodReceiver(new Handler(), context))
+                .mediaType(MEDIA_FORM)
+                .bodyData(NetworkUtils.makeKeyValuePairString(map, "&", "="))
+                .priority(RequestExecutor.Priority.HIGH)
+                .build();
+
+        RequestExecutor.getInstance().execute(context, intent);
+    }
+
+    /**
+     * Cancel any outstanding requests for the specified address
+     * @param address   Address of requester
+     */
+    public void cancelRequests(String address) {
+        RequestExecutor.getInstance().cancel(address);
     }
 
     public void appOnlyToken(Context context) {
@@ -538,7 +561,7 @@ public class RedditClient {
     private void processMethodQueue(Context context) {
         if (!sMethodQueue.isEmpty()) {
             Intent intent = sMethodQueue.pop();
-            context.startService(intent);
+            RequestExecutor.getInstance().execute(context, intent);
         }
     }
 
@@ -40,6 +40,14 @@ public abstract class RedditObject<T, P> extends BaseObject<T>
     protected static final String FULLNAME = "name";
     protected static final String CREATED = "created_utc";
 
+    /** Handlers for the tokens common to all reddit objects */
+    protected static final TokenTable<RedditObject<?, ?>> REDDIT_OBJECT_TOKENS =
+            new TokenTable<RedditObject<?, ?>>()
+                    .add(ID, (jsonReader, obj) -> obj.mId = nextString(jsonReader, ""))
+                    .add(FULLNAME, (jsonReader, obj) -> obj.mName = nextString(jsonReader, ""))
+                    // created date is in epoch seconds
+                    .add(CREATED, (jsonReader, obj) -> obj.mCreated = nextDate(jsonReader));
+
     protected String mName;                 // fullname of object, e.g. "t5_2qh3l"
     protected String mId;                   // unique id, e.g. "2qh3l"
     protected Date mCreated;
@@ -98,20 +106,7 @@ public abstract class RedditObject<T, P> extends BaseObject<T>
                                             throws IOException, IllegalArgumentException {
         checkObject(obj, getClass());
 
-
-        RedditObject<T, P> object = ((RedditObject<T, P>) obj);
-        boolean consumed = true;
-        if (ID.equals(name)) {
-            object.mId = nextString(jsonReader, "");
-        } else if (FULLNAME.equals(name)) {
-            object.mName = nextString(jsonReader, "");
-        } else if (CREATED.equals(name)) {
-            // created date is in epoch seconds
-            object.mCreated = nextDate(jsonReader);
-        } else {
-            consumed = false;
-        }
-        return consumed;
+        return REDDIT_OBJECT_TOKENS.parse(jsonReader, name, (RedditObject<?, ?>) obj);
     }
 
     /**
@@ -218,6 +213,8 @@ public abstract class RedditObject<T, P> extends BaseObject<T>
     protected static final int CACHE_INSTANTIATED = 0x01;
     /** Object is currently being requested */
     protected static final int REQUEST_IN_PROGRESS = 0x02;
+    /** Object was restored from the disk cache and may be stale */
+    protected static final int RESTORED = 0x04;
     /** First flag for concrete objects, they should not used flags below this */
     protected static final int FIRST_OBJECT_SPECIFIC_FLAG = 0x010000;
 
@@ -245,6 +242,18 @@ public abstract class RedditObject<T, P> extends BaseObject<T>
         clearFlag(getTag(), REQUEST_IN_PROGRESS);
     }
 
+    public boolean isRestored() {
+        return isFlag(getTag(), RESTORED);
+    }
+
+    public void setRestored() {
+        setFlag(getTag(), RESTORED);
+    }
+
+    public void clearRestored() {
+        clearFlag(getTag(), RESTORED);
+    }
+
     @Parcel
     public static class Tag {
         boolean mMarked;
@@ -21,6 +21,7 @@ import android.os.Bundle;
 import androidx.annotation.Nullable;
 import android.text.TextUtils;
 
+import com.ianbuttimer.tidderish.net.HttpCachePolicy;
 import com.ianbuttimer.tidderish.net.NetworkUtils;
 
 import java.net.URL;
@@ -40,6 +41,10 @@ public abstract class Request {
 
     protected Bundle mAdditionalInfo;
 
+    protected RequestExecutor.Priority mPriority = RequestExecutor.Priority.NORMAL;
+
+    protected Projection mProjection = Projection.DETAIL;
+
 
     public Request(Uri uri) {
         this(uri, null);
@@ -71,6 +76,37 @@ public abstract class Request {
         return this;
     }
 
+    public RequestExecutor.Priority getPriority() {
+        return mPriority;
+    }
+
+    public Request setPriority(RequestExecutor.Priority priority) {
+        this.mPriority = priority;
+        return this;
+    }
+
+    public Projection getProjection() {
+        return mProjection;
+    }
+
+    /**
+     * Set the set of fields to parse from the response
+     * @param projection    Projection
+     * @return  this request
+     */
+    public Request setProjection(Projection projection) {
+        this.mProjection = projection;
+        return this;
+    }
+
+    /**
+     * Get the http cache policy for this request
+     * @return  Cache policy
+     */
+    public HttpCachePolicy getCachePolicy() {
+        return HttpCachePolicy.NONE;
+    }
+
     public abstract static class Builder {
 
         protected Uri.Builder builder;
@@ -0,0 +1,592 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.reddit;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.ResultReceiver;
+import android.os.SystemClock;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ianbuttimer.tidderish.event.AbstractEvent;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import timber.log.Timber;
+
+import static android.app.Activity.RESULT_CANCELED;
+
+/**
+ * Bounded, priority-aware executor for Reddit api requests.<br>
+ * Requests are queued in priority order and dispatched to a fixed pool of worker threads, subject
+ * to a limit on the number of simultaneous requests to any one host. Requests may be cancelled by
+ * the address of the requester, e.g. when a fragment is destroyed.<br>
+ * GET requests for a url which is already pending or in progress are not repeated, instead the
+ * requester joins the existing request and receives the same response.<br>
+ * This class is a singleton.
+ */
+public class RequestExecutor {
+
+    public enum Priority { HIGH, NORMAL, LOW }
+
+    /** Maximum number of simultaneous requests */
+    private static final int MAX_CONCURRENT = 6;
+    /** Maximum number of simultaneous requests to a single host */
+    private static final int MAX_PER_HOST = 4;
+
+    private static RequestExecutor sInstance = null;     // singleton instance
+
+    private final ReentrantLock mLock = new ReentrantLock();
+    private final PriorityQueue<RequestTask> mPending;    // requests waiting for dispatch
+    private final ArrayList<RequestTask> mRunning;        // requests in progress
+    private final HashMap<String, Integer> mHostActive;   // number of requests in progress per host
+    private final HashMap<String, RequestTask> mInFlight; // pending or in progress GET requests by key
+    private final ExecutorService mWorkers;
+    private long mSequence;                               // request sequence number, for FIFO within priority
+
+    private final Stats mStats;
+
+    /**
+     * Constructor
+     */
+    private RequestExecutor() {
+        mPending = new PriorityQueue<>();
+        mRunning = new ArrayList<>();
+        mHostActive = new HashMap<>();
+        mInFlight = new HashMap<>();
+        mWorkers = Executors.newFixedThreadPool(MAX_CONCURRENT, new ThreadFactory() {
+            private final AtomicInteger mCount = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                return new Thread(runnable, "RequestExecutor #" + mCount.getAndIncrement());
+            }
+        });
+        mSequence = 0;
+        mStats = new Stats();
+    }
+
+    /**
+     * Get the executor
+     * @return  Executor reference
+     */
+    public static synchronized RequestExecutor getInstance() {
+        if (sInstance == null) {
+            sInstance = new RequestExecutor();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Queue a request for execution
+     * @param context   The current context
+     * @param intent    ClientService request intent
+     */
+    public void execute(Context context, Intent intent) {
+        ClientService.RequestExtractor extractor = ClientService.getRequestExtractor(intent);
+        Subscriber subscriber = new Subscriber(extractor.resultReceiver(), extractor.additionalInfo());
+        Priority priority = extractor.priority();
+        String key = getFlightKey(intent, extractor);
+
+        mLock.lock();
+        try {
+            RequestTask inFlight = (key != null ? mInFlight.get(key) : null);
+            if ((inFlight != null) && inFlight.join(subscriber)) {
+                // share the existing request
+                mStats.onJoined();
+                if ((priority.compareTo(inFlight.mPriority) < 0) && mPending.remove(inFlight)) {
+                    inFlight.mPriority = priority;  // requeue at the higher priority
+                    mPending.add(inFlight);
+                }
+            } else {
+                RequestTask task = new RequestTask(context.getApplicationContext(), intent,
+                        priority, getHost(extractor.url()), key, subscriber);
+                task.mOrder = mSequence++;
+                if (key != null) {
+                    mInFlight.put(key, task);
+                }
+                mPending.add(task);
+                mStats.onQueued(mPending.size());
+                dispatch();
+            }
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * Cancel any pending or in-progress requests for the specified address.
+     * A request for multiple addresses is only cancelled when all its addresses have been cancelled.
+     * @param address   Address of requester
+     * @return  Number of requests cancelled
+     */
+    public int cancel(String address) {
+        int count = 0;
+        if (!TextUtils.isEmpty(address)) {
+            mLock.lock();
+            try {
+                for (Iterator<RequestTask> iter = mPending.iterator(); iter.hasNext(); ) {
+                    RequestTask task = iter.next();
+                    if (task.cancel(address)) {
+                        iter.remove();
+                        removeInFlight(task);
+                        ++count;
+                    }
+                }
+                for (RequestTask task : mRunning) {
+                    if (task.cancel(address)) {
+                        removeInFlight(task);
+                        ++count;    // result will be discarded on completion
+                    }
+                }
+                mStats.onCancelled(count);
+            } finally {
+                mLock.unlock();
+            }
+            if (count > 0) {
+                Timber.d("RequestExecutor: cancelled %d request(s) for %s", count, address);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Dispatch as many pending requests as concurrency limits allow.
+     * <b>Note:</b> must be called with the lock held
+     */
+    private void dispatch() {
+        if (mRunning.size() < MAX_CONCURRENT) {
+            ArrayList<RequestTask> blocked = null;
+            while ((mRunning.size() < MAX_CONCURRENT) && !mPending.isEmpty()) {
+                RequestTask task = mPending.poll();
+                Integer active = mHostActive.get(task.mHost);
+                if ((active != null) && (active >= MAX_PER_HOST)) {
+                    // host at limit, hold back
+                    if (blocked == null) {
+                        blocked = new ArrayList<>();
+                    }
+                    blocked.add(task);
+                } else {
+                    mHostActive.put(task.mHost, (active == null ? 1 : active + 1));
+                    mRunning.add(task);
+                    mStats.onStarted(SystemClock.elapsedRealtime() - task.mQueuedAt);
+                    mWorkers.execute(task);
+                }
+            }
+            if (blocked != null) {
+                mPending.addAll(blocked);
+            }
+        }
+    }
+
+    /**
+     * Handle completion of a request
+     * @param task  Completed task
+     */
+    private void onComplete(RequestTask task) {
+        mLock.lock();
+        try {
+            mRunning.remove(task);
+            Integer active = mHostActive.get(task.mHost);
+            if ((active == null) || (active <= 1)) {
+                mHostActive.remove(task.mHost);
+            } else {
+                mHostActive.put(task.mHost, active - 1);
+            }
+            dispatch();
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * Remove a task from the in-flight requests, so no further requesters may join it.
+     * <b>Note:</b> must be called with the lock held
+     * @param task  Task to remove
+     */
+    private void removeInFlight(RequestTask task) {
+        if ((task.mKey != null) && (mInFlight.get(task.mKey) == task)) {
+            mInFlight.remove(task.mKey);
+        }
+    }
+
+    /**
+     * Detach the requesters from a task whose response is ready for delivery
+     * @param task  Task
+     * @return  Requesters which have not cancelled
+     */
+    private ArrayList<Subscriber> detach(RequestTask task) {
+        mLock.lock();
+        try {
+            removeInFlight(task);
+            ArrayList<Subscriber> subscribers = new ArrayList<>();
+            for (Subscriber subscriber : task.mSubscribers) {
+                if (!subscriber.mCancelled) {
+                    subscribers.add(subscriber);
+                }
+            }
+            return subscribers;
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * Get the key identifying identical requests
+     * @param intent    Request intent
+     * @param extractor Request data extractor
+     * @return  key or <code>null</code> if request may not be shared
+     */
+    @Nullable
+    private static String getFlightKey(Intent intent, ClientService.RequestExtractor extractor) {
+        String key = null;
+        URL url = extractor.url();
+        // only GETs are safe to share; other methods have side effects
+        if (ClientService.ACTION_GET.equals(intent.getAction()) && (url != null)) {
+            Class<?> responseClass = extractor.responseClass();
+            key = url.toString() + '|' + (responseClass != null ? responseClass.getName() : "") +
+                    '|' + extractor.projection();
+        }
+        return key;
+    }
+
+    /**
+     * Get the host for a request
+     * @param url   Request url
+     * @return  host
+     */
+    private static String getHost(@Nullable URL url) {
+        String host = null;
+        if (url != null) {
+            host = url.getHost();
+        }
+        if (host == null) {
+            host = "";
+        }
+        return host;
+    }
+
+    /**
+     * Get a snapshot of the executor statistics
+     * @return  statistics
+     */
+    public Stats getStats() {
+        mLock.lock();
+        try {
+            return new Stats(mStats, mPending.size(), mRunning.size());
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+
+    /**
+     * Class representing a queued request
+     */
+    private class RequestTask implements Runnable, Comparable<RequestTask> {
+
+        private final Context mContext;
+        private final Intent mIntent;
+        private Priority mPriority;
+        private final String mHost;
+        @Nullable private final String mKey;                // key for sharing, null if not shareable
+        private final ArrayList<Subscriber> mSubscribers;   // requesters, first is originator
+        private final long mQueuedAt;
+        private long mOrder;
+        private volatile boolean mCancelled;
+
+        RequestTask(Context context, Intent intent, Priority priority, String host,
+                    @Nullable String key, Subscriber subscriber) {
+            mContext = context;
+            mIntent = intent;
+            mPriority = priority;
+            mHost = host;
+            mKey = key;
+            mSubscribers = new ArrayList<>();
+            mSubscribers.add(subscriber);
+            mQueuedAt = SystemClock.elapsedRealtime();
+            mCancelled = false;
+        }
+
+        /**
+         * Add a requester to this request
+         * @param subscriber    Requester to add
+         * @return  <code>true</code> if added
+         * <b>Note:</b> must be called with the executor lock held
+         */
+        boolean join(Subscriber subscriber) {
+            boolean joined = !mCancelled;
+            if (joined) {
+                mSubscribers.add(subscriber);
+            }
+            return joined;
+        }
+
+        /**
+         * Cancel this request for the specified address
+         * @param address   Address of requester
+         * @return  <code>true</code> if request is now cancelled
+         * <b>Note:</b> must be called with the executor lock held
+         */
+        boolean cancel(String address) {
+            boolean cancelled = false;
+            if (!mCancelled) {
+                boolean changed = false;
+                boolean all = true;
+                for (Subscriber subscriber : mSubscribers) {
+                    changed |= subscriber.cancel(address);
+                    all &= subscriber.mCancelled;
+                }
+                if (changed) {
+                    mCancelled = all;
+                    cancelled = mCancelled;
+                }
+            }
+            return cancelled;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Bundle bundle = null;
+                if (!mCancelled) {
+                    try {
+                        bundle = ClientService.processRequest(mContext, mIntent);
+                    } catch (Exception e) {
+                        Timber.e(e, "Request failed");
+                        // requesters still need a result so they are not left waiting
+                        bundle = ClientService.getResponseBuilder()
+                                .resultCode(RESULT_CANCELED)
+                                .resultText(e.getMessage())
+                                .additionalInfo(mSubscribers.get(0).mAdditionalInfo)
+                                .build();
+                    }
+                }
+                ArrayList<Subscriber> subscribers = detach(this);
+                if (bundle != null) {
+                    deliver(bundle, subscribers);
+                }
+            } catch (Exception e) {
+                Timber.e(e, "Request delivery failed");
+            } finally {
+                onComplete(this);
+            }
+        }
+
+        /**
+         * Deliver the response to the requesters
+         * @param bundle        Response bundle
+         * @param subscribers   Requesters to deliver to
+         */
+        private void deliver(Bundle bundle, ArrayList<Subscriber> subscribers) {
+            int resultCode = bundle.getInt(ClientService.RESULT_CODE);
+            if ((subscribers.size() == 1) && (subscribers.get(0) == mSubscribers.get(0))) {
+                // just the originator, so response bundle is as requested
+                Subscriber subscriber = subscribers.get(0);
+                if (subscriber.mReceiver != null) {
+                    subscriber.mReceiver.send(resultCode, bundle);
+                } else {
+                    // not delivered so release any parsed response
+                    ClientService.getResponseExtractor(bundle).parsedResponse();
+                }
+            } else {
+                /* claim the parsed response and give each requester its own copy of it, along with
+                    its own additional info. The copies share the reddit objects, which are cached
+                    anyway, but not the lists of them */
+                Response<? extends BaseObject<?>> response =
+                        ClientService.getResponseExtractor(bundle).parsedResponse();
+                boolean first = true;
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.mReceiver != null) {
+                        ClientService.ResponseBuilder builder = ClientService.getResponseBuilder(bundle)
+                                .additionalInfo(subscriber.mAdditionalInfo);
+                        if (response != null) {
+                            Response<? extends BaseObject<?>> copy = (first ? response : response.copy());
+                            builder.parsedResponse(copy != null ? copy : response);
+                            first = false;
+                        }
+                        subscriber.mReceiver.send(resultCode, builder.build());
+                    }
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(@NonNull RequestTask other) {
+            int result = mPriority.compareTo(other.mPriority);
+            if (result == 0) {
+                result = Long.compare(mOrder, other.mOrder);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Class representing a requester of a request
+     */
+    private static class Subscriber {
+
+        @Nullable private final ResultReceiver mReceiver;
+        @Nullable private final Bundle mAdditionalInfo;
+        private final HashSet<String> mAddresses;   // addresses of requester
+        private boolean mCancelled;
+
+        Subscriber(@Nullable ResultReceiver receiver, @Nullable Bundle additionalInfo) {
+            mReceiver = receiver;
+            mAdditionalInfo = additionalInfo;
+            mAddresses = new HashSet<>(Arrays.asList(AbstractEvent.getAddresses(additionalInfo)));
+            mCancelled = false;
+        }
+
+        /**
+         * Cancel for the specified address
+         * @param address   Address of requester
+         * @return  <code>true</code> if the address was removed
+         * <b>Note:</b> must be called with the executor lock held
+         */
+        boolean cancel(String address) {
+            boolean removed = false;
+            if (!mCancelled && mAddresses.remove(address)) {
+                mCancelled = mAddresses.isEmpty();
+                removed = true;
+            }
+            return removed;
+        }
+    }
+
+    /**
+     * Executor statistics
+     */
+    public static class Stats {
+
+        private long mQueued;           // total number of requests queued
+        private long mStarted;          // total number of requests started
+        private long mCancelled;        // total number of requests cancelled
+        private long mJoined;           // total number of requests which joined an identical request
+        private int mMaxQueueDepth;     // maximum pending queue depth
+        private long mTotalWaitMs;      // total time spent waiting in queue
+        private long mMaxWaitMs;        // maximum time spent waiting in queue
+        private int mQueueDepth;        // current pending queue depth
+        private int mActive;            // current number of requests in progress
+
+        Stats() {
+            // no op
+        }
+
+        Stats(Stats stats, int queueDepth, int active) {
+            mQueued = stats.mQueued;
+            mStarted = stats.mStarted;
+            mCancelled = stats.mCancelled;
+            mJoined = stats.mJoined;
+            mMaxQueueDepth = stats.mMaxQueueDepth;
+            mTotalWaitMs = stats.mTotalWaitMs;
+            mMaxWaitMs = stats.mMaxWaitMs;
+            mQueueDepth = queueDepth;
+            mActive = active;
+        }
+
+        void onQueued(int queueDepth) {
+            ++mQueued;
+            if (queueDepth > mMaxQueueDepth) {
+                mMaxQueueDepth = queueDepth;
+            }
+        }
+
+        void onStarted(long waitMs) {
+            ++mStarted;
+            mTotalWaitMs += waitMs;
+            if (waitMs > mMaxWaitMs) {
+                mMaxWaitMs = waitMs;
+            }
+        }
+
+        void onCancelled(int count) {
+            mCancelled += count;
+        }
+
+        void onJoined() {
+            ++mJoined;
+        }
+
+        public long getQueued() {
+            return mQueued;
+        }
+
+        public long getStarted() {
+            return mStarted;
+        }
+
+        public long getCancelled() {
+            return mCancelled;
+        }
+
+        public long getJoined() {
+            return mJoined;
+        }
+
+        public int getMaxQueueDepth() {
+            return mMaxQueueDepth;
+        }
+
+        public int getQueueDepth() {
+            return mQueueDepth;
+        }
+
+        public int getActive() {
+            return mActive;
+        }
+
+        public long getMaxWaitMs() {
+            return mMaxWaitMs;
+        }
+
+        public long getAverageWaitMs() {
+            return (mStarted > 0 ? mTotalWaitMs / mStarted : 0);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "queued=" + mQueued +
+                    ", started=" + mStarted +
+                    ", cancelled=" + mCancelled +
+                    ", joined=" + mJoined +
+                    ", queueDepth=" + mQueueDepth +
+                    ", maxQueueDepth=" + mMaxQueueDepth +
+                    ", active=" + mActive +
+                    ", avgWaitMs=" + getAverageWaitMs() +
+                    ", maxWaitMs=" + mMaxWaitMs +
+                    '}';
+        }
+    }
+}
@@ -16,8 +16,11 @@
 
 package com.ianbuttimer.tidderish.reddit;
 
+import androidx.annotation.Nullable;
+
 import com.ianbuttimer.tidderish.data.IEmpty;
 import com.ianbuttimer.tidderish.event.EventType;
+import com.ianbuttimer.tidderish.utils.FieldCopier;
 
 /**
  * Base class for reddit responses
@@ -28,6 +31,7 @@ public abstract class Response<T> extends BaseObject<T> implements IEmpty {
 
     protected boolean mEmpty;
     @EventType protected int mEventType;
+    protected Projection mProjection = Projection.DETAIL;
 
     public Response() {
         setEmpty(true);
@@ -53,4 +57,44 @@ public abstract class Response<T> extends BaseObject<T> implements IEmpty {
         return mEventType;
     }
 
+    /**
+     * Get the set of fields to parse for the objects in this response
+     * @return  projection
+     */
+    public Projection getProjection() {
+        return mProjection;
+    }
+
+    /**
+     * Set the set of fields to parse for the objects in this response
+     * @param projection    Projection
+     */
+    public void setProjection(Projection projection) {
+        this.mProjection = projection;
+    }
+
+    /**
+     * Create a copy of this response. The copy shares the reddit objects but has its own lists of
+     * them, so may be modified independently of this response.
+     * @return  Copy or <code>null</code> if unable to copy
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public Response<T> copy() {
+        Response<T> copy = (Response<T>) getInstance();
+        if (FieldCopier.copy(this, copy)) {
+            copy.detachLists();
+        } else {
+            copy = null;
+        }
+        return copy;
+    }
+
+    /**
+     * Replace the lists copied from another response with lists of its own
+     */
+    protected void detachLists() {
+        // no op
+    }
+
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.reddit;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ianbuttimer.tidderish.utils.HtmlRenderer;
+
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import timber.log.Timber;
+
+/**
+ * Response parse stage.<br>
+ * Parses json responses on a dedicated pool of worker threads, so that only the finished
+ * Response object is delivered to the main thread. Per-response parse timings are recorded.<br>
+ * This class is a singleton.
+ */
+public class ResponseParser {
+
+    /** Number of parse threads */
+    private static final int PARSE_THREADS = 2;
+
+    private static ResponseParser sInstance = null;     // singleton instance
+
+    private final ExecutorService mWorkers;
+    private final Handler mMainHandler;
+
+    private final HashMap<Class<?>, Timing> mTimings;   // parse timings by response class
+
+    /**
+     * Constructor
+     */
+    private ResponseParser() {
+        mWorkers = Executors.newFixedThreadPool(PARSE_THREADS, new ThreadFactory() {
+            private final AtomicInteger mCount = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                Thread thread = new Thread(runnable, "ResponseParser #" + mCount.getAndIncrement());
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            }
+        });
+        mMainHandler = new Handler(Looper.getMainLooper());
+        mTimings = new HashMap<>();
+    }
+
+    /**
+     * Get the parser
+     * @return  Parser reference
+     */
+    public static synchronized ResponseParser getInstance() {
+        if (sInstance == null) {
+            sInstance = new ResponseParser();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Parse a json response in the background, and deliver the result on the main thread
+     * @param responseClass Class of response
+     * @param json          Json string to parse
+     * @param callback      Callback to receive result
+     */
+    public void parse(final Class<?> responseClass, @Nullable final String json, final IParseCallback callback) {
+        parse(responseClass, json, Projection.DETAIL, callback);
+    }
+
+    /**
+     * Parse a json response in the background, and deliver the result on the main thread.
+     * The callback always receives a result, <code>null</code> if unable to parse
+     * @param responseClass Class of response
+     * @param json          Json string to parse
+     * @param projection    Set of fields to parse
+     * @param callback      Callback to receive result
+     */
+    public void parse(final Class<?> responseClass, @Nullable final String json,
+                      final Projection projection, final IParseCallback callback) {
+        mWorkers.execute(new Runnable() {
+            @Override
+            public void run() {
+                Response<? extends BaseObject<?>> parsed = null;
+                try {
+                    parsed = parse(responseClass, json, projection);
+                } catch (RuntimeException e) {
+                    // callback must always be notified, so treat as unable to parse
+                    Timber.e(e, "Unable to parse %s", responseClass.getSimpleName());
+                }
+                final Response<? extends BaseObject<?>> response = parsed;
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onParsed(response);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Synchronously parse a json response
+     * @param responseClass Class of response
+     * @param json          Json string to parse
+     * @return  Response object or <code>null</code> if unable to parse
+     */
+    @Nullable
+    public Response<? extends BaseObject<?>> parse(Class<?> responseClass, @Nullable String json) {
+        return parse(responseClass, json, Projection.DETAIL);
+    }
+
+    /**
+     * Synchronously parse a json response
+     * @param responseClass Class of response
+     * @param json          Json string to parse
+     * @param projection    Set of fields to parse
+     * @return  Response object or <code>null</code> if unable to parse
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public Response<? extends BaseObject<?>> parse(Class<?> responseClass, @Nullable String json,
+                                                   Projection projection) {
+        Response<? extends BaseObject<?>> response = null;
+        if ((json != null) && Response.class.isAssignableFrom(responseClass)) {
+            try {
+                long start = SystemClock.elapsedRealtimeNanos();
+
+                response = (Response<? extends BaseObject<?>>) responseClass.newInstance();
+                response.setProjection(projection);
+                response.parseJson(json);
+
+                recordTiming(responseClass, SystemClock.elapsedRealtimeNanos() - start);
+
+                HtmlRenderer.getInstance().prerender(response);
+            } catch (InstantiationException | IllegalAccessException e) {
+                Timber.e(e);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Record the time taken to parse a response
+     * @param responseClass Class of response
+     * @param nanos         Parse time in nanoseconds
+     */
+    public void recordTiming(Class<?> responseClass, long nanos) {
+        Timing timing;
+        synchronized (mTimings) {
+            timing = mTimings.get(responseClass);
+            if (timing == null) {
+                timing = new Timing();
+                mTimings.put(responseClass, timing);
+            }
+            timing.add(nanos);
+        }
+        Timber.v("Parsed %s in %.2fms", responseClass.getSimpleName(), nanos / 1e6);
+    }
+
+    /**
+     * Get a snapshot of the parse timings
+     * @return  Map of timings by response class
+     */
+    public HashMap<Class<?>, Timing> getTimings() {
+        HashMap<Class<?>, Timing> timings = new HashMap<>();
+        synchronized (mTimings) {
+            for (Class<?> key : mTimings.keySet()) {
+                timings.put(key, new Timing(mTimings.get(key)));
+            }
+        }
+        return timings;
+    }
+
+
+    public interface IParseCallback {
+
+        /**
+         * Called on the main thread when a response has been parsed
+         * @param response  Parsed response or <code>null</code> if unable to parse
+         */
+        void onParsed(@Nullable Response<? extends BaseObject<?>> response);
+    }
+
+    /**
+     * Parse timing statistics
+     */
+    public static class Timing {
+
+        private int mCount;
+        private long mTotalNanos;
+        private long mMaxNanos;
+
+        Timing() {
+            // no op
+        }
+
+        Timing(Timing timing) {
+            mCount = timing.mCount;
+            mTotalNanos = timing.mTotalNanos;
+            mMaxNanos = timing.mMaxNanos;
+        }
+
+        void add(long nanos) {
+            ++mCount;
+            mTotalNanos += nanos;
+            if (nanos > mMaxNanos) {
+                mMaxNanos = nanos;
+            }
+        }
+
+        public int getCount() {
+            return mCount;
+        }
+
+        public long getTotalNanos() {
+            return mTotalNanos;
+        }
+
+        public long getMaxNanos() {
+            return mMaxNanos;
+        }
+
+        public long getAverageNanos() {
+            return (mCount > 0 ? mTotalNanos / mCount : 0);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Timing{" +
+                    "count=" + mCount +
+                    ", avgMs=" + (getAverageNanos() / 1e6) +
+                    ", maxMs=" + (mMaxNanos / 1e6) +
+                    '}';
+        }
+    }
+}
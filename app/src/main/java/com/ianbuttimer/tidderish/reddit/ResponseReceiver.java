@@ -31,6 +31,8 @@ public class ResponseReceiver extends ResultReceiver {
 
     protected int mHttpCode;
 
+    protected Response<? extends BaseObject<?>> mResponse;   // response parsed by request thread
+
     public ResponseReceiver() {
         super(new Handler(Looper.getMainLooper()));
     }
@@ -46,6 +48,7 @@ public class ResponseReceiver extends ResultReceiver {
 
         mHttpCode = extractor.httpCode();
         mResultText = extractor.resultText();
+        mResponse = extractor.parsedResponse();
     }
 
 
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.reddit;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process hand-off for parsed responses.<br>
+ * A ResultReceiver result Bundle can only carry parcelable data, so responses parsed on a request
+ * thread are held here and the Bundle carries a key which the receiver uses to claim the response.
+ */
+public class ResponseStore {
+
+    /** Key value representing no response */
+    public static final long NO_KEY = 0L;
+
+    private static final ConcurrentHashMap<Long, Response<? extends BaseObject<?>>> sResponses =
+            new ConcurrentHashMap<>();
+    private static final AtomicLong sKey = new AtomicLong(NO_KEY);
+
+    /**
+     * Constructor
+     */
+    private ResponseStore() {
+        // no op
+    }
+
+    /**
+     * Add a response to the store
+     * @param response  Response to add
+     * @return  Key to claim response with
+     */
+    public static long put(Response<? extends BaseObject<?>> response) {
+        long key = sKey.incrementAndGet();
+        sResponses.put(key, response);
+        return key;
+    }
+
+    /**
+     * Claim a response from the store. A response may only be claimed once.
+     * @param key   Key of response
+     * @return  Response or <code>null</code> if not available
+     */
+    @Nullable
+    public static Response<? extends BaseObject<?>> take(long key) {
+        Response<? extends BaseObject<?>> response = null;
+        if (key != NO_KEY) {
+            response = sResponses.remove(key);
+        }
+        return response;
+    }
+
+    /**
+     * Get the number of unclaimed responses
+     * @return  count
+     */
+    public static int size() {
+        return sResponses.size();
+    }
+}
@@ -51,6 +51,18 @@ public class Subreddit extends RedditObject<Subreddit, SubredditProxy> {
     protected static final String KEY_COLOUR = "key_color";
     protected static final String ALLOW_IMAGES = "allow_images";
 
+    /** Handlers for common subreddit tokens, including the common reddit object tokens */
+    protected static final TokenTable<Subreddit> SUBREDDIT_TOKENS = new TokenTable<Subreddit>(REDDIT_OBJECT_TOKENS)
+            .add(ICON, (jsonReader, obj) -> obj.mIcon = nextUri(jsonReader))
+            .add(ACTIVE_USER_CNT, (jsonReader, obj) -> obj.mActiveUsers = nextInt(jsonReader, 0))
+            .add(KEY_COLOUR, (jsonReader, obj) -> {
+                String colour = nextString(jsonReader, "");
+                if (!TextUtils.isEmpty(colour)) {
+                    obj.mKeyColour = Color.parseColor(colour);
+                }
+            })
+            .add(ALLOW_IMAGES, (jsonReader, obj) -> obj.mAllowImages = nextBoolean(jsonReader, false));
+
     protected String mDisplayName;          // display name of subreddit, e.g. "news"
     protected String mDisplayNamePrefixed;  // prefixed display name of subreddit, e.g. "r/news"
     protected String mTitle;
@@ -149,26 +161,8 @@ public class Subreddit extends RedditObject<Subreddit, SubredditProxy> {
                                         throws IOException, IllegalArgumentException {
         checkObject(obj, getClass());
 
-        boolean consumed = super.parseToken(jsonReader, name, obj);
-        if (!consumed) {
-            consumed = true;
-            // process common subreddit fields
-            if (ICON.equals(name)) {
-                obj.mIcon = nextUri(jsonReader);
-            } else if (ACTIVE_USER_CNT.equals(name)) {
-                obj.mActiveUsers = nextInt(jsonReader, 0);
-            } else if (KEY_COLOUR.equals(name)) {
-                String colour = nextString(jsonReader, "");
-                if (!TextUtils.isEmpty(colour)) {
-                    obj.mKeyColour = Color.parseColor(colour);
-                }
-            } else if (ALLOW_IMAGES.equals(name)) {
-                obj.mAllowImages = nextBoolean(jsonReader, false);
-            } else {
-                consumed = false;
-            }
-        }
-        return consumed;
+        // single lookup also covers the common reddit object tokens
+        return SUBREDDIT_TOKENS.parse(jsonReader, name, obj);
     }
 
     /**
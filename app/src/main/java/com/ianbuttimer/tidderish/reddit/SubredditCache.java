@@ -16,17 +16,22 @@
 
 package com.ianbuttimer.tidderish.reddit;
 
+import static android.text.format.DateUtils.DAY_IN_MILLIS;
+
 /**
  * A Least-Recently-Used Cache for Reddit subreddits
  */
 public class SubredditCache extends RedditCache<Subreddit> {
 
-    public static final int CACHE_SIZE = 100;
+    /** Time to live of disk cache entries */
+    public static final long DISK_TTL = DAY_IN_MILLIS;
+    /** Share of the cache budget */
+    public static final float BUDGET_SHARE = 0.2f;
 
     private static SubredditCache mInstance;
 
     private SubredditCache() {
-        super(CACHE_SIZE);
+        super(BUDGET_SHARE, DISK_TTL);
     }
 
 
@@ -35,6 +40,15 @@ public class SubredditCache extends RedditCache<Subreddit> {
         return new Subreddit();
     }
 
+    @Override
+    protected int estimateSize(Subreddit object) {
+        return stringSize(object.mDisplayName, object.mDisplayNamePrefixed, object.mTitle,
+                        object.mDescription, object.mDescriptionHtml, object.mUrl)
+                + objectSize(object.mIcon, URI_SIZE)
+                + objectSize(object.mHeader, URI_SIZE)
+                + objectSize(object.mBanner, URI_SIZE);
+    }
+
     public static SubredditCache getInstance() {
         if (mInstance == null) {
             mInstance = new SubredditCache();
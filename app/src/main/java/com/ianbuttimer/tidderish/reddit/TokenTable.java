@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.reddit;
+
+import android.util.JsonReader;
+
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * Table of json token handlers for a class, keyed by token name.<br>
+ * Tables are built once per class, and may be based on the table of a superclass, so a token is
+ * dispatched with a single lookup rather than a chain of name comparisons.
+ * @param <T> class of object tokens are saved in
+ */
+public class TokenTable<T> {
+
+    /**
+     * Handler for a json token
+     * @param <T> class of object token is saved in
+     */
+    public interface ITokenHandler<T> {
+        /**
+         * Parse a json token value
+         * @param jsonReader    Reader to get token value from
+         * @param obj           Object to save token value in
+         * @throws IOException
+         */
+        void parse(JsonReader jsonReader, T obj) throws IOException;
+    }
+
+    /**
+     * Table entry
+     * @param <T> class of object token is saved in
+     */
+    private static class Entry<T> {
+        final ITokenHandler<? super T> mHandler;
+        final Projection mProjection;   // minimum projection the token is parsed for
+
+        Entry(ITokenHandler<? super T> handler, Projection projection) {
+            this.mHandler = handler;
+            this.mProjection = projection;
+        }
+    }
+
+    private final HashMap<String, Entry<? super T>> mHandlers;
+
+    /**
+     * Constructor
+     */
+    public TokenTable() {
+        this(null);
+    }
+
+    /**
+     * Constructor
+     * @param base  Table to include the handlers of, e.g. the superclass table
+     */
+    public TokenTable(@Nullable TokenTable<? super T> base) {
+        mHandlers = new HashMap<>();
+        if (base != null) {
+            mHandlers.putAll(base.mHandlers);
+        }
+    }
+
+    /**
+     * Add a token handler which is used for all projections, replacing any existing handler for
+     * the token
+     * @param name      Token name
+     * @param handler   Handler
+     * @return  this table
+     */
+    public TokenTable<T> add(String name, ITokenHandler<? super T> handler) {
+        return add(name, Projection.WIDGET, handler);
+    }
+
+    /**
+     * Add a token handler, replacing any existing handler for the token
+     * @param name          Token name
+     * @param projection    Minimum projection the token is parsed for
+     * @param handler       Handler
+     * @return  this table
+     */
+    public TokenTable<T> add(String name, Projection projection, ITokenHandler<? super T> handler) {
+        mHandlers.put(name, new Entry<T>(handler, projection));
+        return this;
+    }
+
+    /**
+     * Check if a token is handled
+     * @param name  Token name
+     * @return  <code>true</code> if handled
+     */
+    public boolean contains(String name) {
+        return mHandlers.containsKey(name);
+    }
+
+    /**
+     * Parse a json token
+     * @param jsonReader    Reader to get token from
+     * @param name          Token name
+     * @param obj           Object to save token value in
+     * @return  <code>true</code> if the token was consumed
+     * @throws IOException
+     */
+    public boolean parse(JsonReader jsonReader, String name, T obj) throws IOException {
+        return parse(jsonReader, name, obj, Projection.DETAIL);
+    }
+
+    /**
+     * Parse a json token if it is included in a projection
+     * @param jsonReader    Reader to get token from
+     * @param name          Token name
+     * @param obj           Object to save token value in
+     * @param projection    Projection being parsed
+     * @return  <code>true</code> if the token was consumed, <code>false</code> if it is not handled
+     *          or not in the projection, and should be skipped
+     * @throws IOException
+     */
+    @SuppressWarnings("unchecked")
+    public boolean parse(JsonReader jsonReader, String name, T obj, Projection projection) throws IOException {
+        Entry<? super T> entry = mHandlers.get(name);
+        boolean consumed = ((entry != null) && projection.includes(entry.mProjection));
+        if (consumed) {
+            ((ITokenHandler<T>) entry.mHandler).parse(jsonReader, obj);
+        }
+        return consumed;
+    }
+}
@@ -19,6 +19,7 @@ package com.ianbuttimer.tidderish.reddit.get;
 import android.net.Uri;
 import androidx.annotation.Nullable;
 
+import com.ianbuttimer.tidderish.net.HttpCachePolicy;
 import com.ianbuttimer.tidderish.reddit.BaseObject;
 import com.ianbuttimer.tidderish.reddit.ListingRequest;
 import com.ianbuttimer.tidderish.reddit.Response;
@@ -68,6 +69,11 @@ public class CommentTreeRequest extends ListingRequest {
     }
 
 
+    @Override
+    public HttpCachePolicy getCachePolicy() {
+        return HttpCachePolicy.COMMENT_TREE;
+    }
+
     public static class Builder extends ListingRequest.Builder {
 
         protected static final int SUBREDDIT_SET = 0x01;
@@ -18,6 +18,7 @@ package com.ianbuttimer.tidderish.reddit.get;
 
 import android.net.Uri;
 
+import com.ianbuttimer.tidderish.net.HttpCachePolicy;
 import com.ianbuttimer.tidderish.reddit.BaseObject;
 import com.ianbuttimer.tidderish.reddit.Request;
 import com.ianbuttimer.tidderish.reddit.Response;
@@ -45,6 +46,11 @@ public class SubredditAboutRequest extends Request {
         super(uri, responseClass);
     }
 
+    @Override
+    public HttpCachePolicy getCachePolicy() {
+        return HttpCachePolicy.SUBREDDIT_ABOUT;
+    }
+
     public static class Builder extends Request.Builder {
 
         /**
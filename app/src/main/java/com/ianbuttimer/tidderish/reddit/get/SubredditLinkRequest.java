@@ -20,6 +20,7 @@ import android.net.Uri;
 import androidx.annotation.Nullable;
 import android.text.TextUtils;
 
+import com.ianbuttimer.tidderish.net.HttpCachePolicy;
 import com.ianbuttimer.tidderish.reddit.BaseObject;
 import com.ianbuttimer.tidderish.reddit.ListingRequest;
 import com.ianbuttimer.tidderish.reddit.Response;
@@ -37,6 +38,8 @@ import static com.ianbuttimer.tidderish.net.RedditUriBuilder.SUBREDDIT_POST_URL_
 
 public class SubredditLinkRequest extends ListingRequest {
 
+    private static final String RANDOM_LISTING = "/random";
+
     private static final Uri BASE_URI = Uri.parse(SUBREDDIT_POST_BASE_URL);
 
     public SubredditLinkRequest(Uri uri) {
@@ -47,6 +50,16 @@ public class SubredditLinkRequest extends ListingRequest {
         super(uri, responseClass);
     }
 
+    @Override
+    public HttpCachePolicy getCachePolicy() {
+        HttpCachePolicy policy = HttpCachePolicy.SUBREDDIT_LINKS;
+        String path = mUri.getPath();
+        if ((path != null) && path.contains(RANDOM_LISTING)) {
+            policy = HttpCachePolicy.NONE;  // expect a different post each time
+        }
+        return policy;
+    }
+
     public static class Builder extends ListingRequest.Builder {
 
         /**
@@ -68,6 +68,7 @@ public class SubredditLinkResponse extends ListingResponse<SubredditLinkResponse
     @Override
     protected void parseChildToken(JsonReader jsonReader, String type) throws IOException, IllegalArgumentException {
         Link child = new Link();
+        child.setProjection(mProjection);
         child.parseJson(jsonReader);
 
         if (child.isOver18()) {
@@ -19,6 +19,7 @@ package com.ianbuttimer.tidderish.reddit.get;
 import android.util.JsonReader;
 
 import com.ianbuttimer.tidderish.reddit.Subreddit;
+import com.ianbuttimer.tidderish.reddit.TokenTable;
 
 import org.parceler.Parcel;
 
@@ -43,6 +44,19 @@ public class SubredditsSearchSubreddit extends Subreddit {
     protected static final String HEADER_IMG = "header_img";
     protected static final String BANNER_IMG = "banner_img";
 
+    /** Handlers for search subreddit tokens, including the common subreddit tokens */
+    protected static final TokenTable<Subreddit> SEARCH_TOKENS = new TokenTable<Subreddit>(SUBREDDIT_TOKENS)
+            .add(DISPLAY_NAME, (jsonReader, obj) -> obj.setDisplayName(nextString(jsonReader, "")))
+            .add(DISPLAY_NAME_PREFIXED, (jsonReader, obj) -> obj.setDisplayNamePrefixed(nextString(jsonReader, "")))
+            .add(TITLE, (jsonReader, obj) -> obj.setTitle(nextString(jsonReader, "")))
+            .add(DESCRIPTION, (jsonReader, obj) -> obj.setDescription(nextString(jsonReader, "")))
+            .add(DESCRIPTION_HTML, (jsonReader, obj) -> obj.setDescriptionHtml(nextStringFromHtml(jsonReader, "")))
+            .add(SUBSCRIBERS, (jsonReader, obj) -> obj.setSuscribers(nextInt(jsonReader, 0)))
+            .add(OVER_18, (jsonReader, obj) -> obj.setOver18(nextBoolean(jsonReader, false)))
+            .add(HEADER_IMG, (jsonReader, obj) -> obj.setHeader(nextUri(jsonReader)))
+            .add(BANNER_IMG, (jsonReader, obj) -> obj.setBanner(nextUri(jsonReader)))
+            .add(URL, (jsonReader, obj) -> obj.setUrl(nextString(jsonReader, "")));
+
 
     /**
      * Default constructor
@@ -69,34 +83,6 @@ public class SubredditsSearchSubreddit extends Subreddit {
                                     throws IOException, IllegalArgumentException {
         checkObject(obj, getClass());
 
-        SubredditsSearchSubreddit object = ((SubredditsSearchSubreddit) obj);
-        boolean consumed = super.parseToken(jsonReader, name, object);
-        if (!consumed) {
-            consumed = true;
-            if (DISPLAY_NAME.equals(name)) {
-                object.setDisplayName(nextString(jsonReader, ""));
-            } else if (DISPLAY_NAME_PREFIXED.equals(name)) {
-                object.setDisplayNamePrefixed(nextString(jsonReader, ""));
-            } else if (TITLE.equals(name)) {
-                object.setTitle(nextString(jsonReader, ""));
-            } else if (DESCRIPTION.equals(name)) {
-                object.setDescription(nextString(jsonReader, ""));
-            } else if (DESCRIPTION_HTML.equals(name)) {
-                object.setDescriptionHtml(nextStringFromHtml(jsonReader, ""));
-            } else if (SUBSCRIBERS.equals(name)) {
-                object.setSuscribers(nextInt(jsonReader, 0));
-            } else if (OVER_18.equals(name)) {
-                object.setOver18(nextBoolean(jsonReader, false));
-            } else if (HEADER_IMG.equals(name)) {
-                object.setHeader(nextUri(jsonReader));
-            } else if (BANNER_IMG.equals(name)) {
-                object.setBanner(nextUri(jsonReader));
-            } else if (URL.equals(name)) {
-                object.setUrl(nextString(jsonReader, ""));
-            } else {
-                consumed = false;
-            }
-        }
-        return consumed;
+        return SEARCH_TOKENS.parse(jsonReader, name, obj);
     }
 }
@@ -29,6 +29,7 @@ import com.ianbuttimer.tidderish.reddit.Subreddit;
 import com.ianbuttimer.tidderish.utils.PreferenceControl;
 
 import java.io.IOException;
+import java.util.List;
 
 
 /**
@@ -55,6 +56,16 @@ public class ThingAboutResponse extends ListingResponse<ThingAboutResponse, Redd
         parseJson(json);
     }
 
+    /**
+     * Constructor
+     * @param list  List of things to add to response
+     */
+    public ThingAboutResponse(List<RedditObject> list) {
+        this();
+        mList.addAll(list);
+        setEmpty(false);
+    }
+
     @Override
     protected ThingAboutResponse getInstance() {
         return new ThingAboutResponse();
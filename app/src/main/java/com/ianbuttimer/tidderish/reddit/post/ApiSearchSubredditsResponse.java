@@ -63,6 +63,12 @@ public class ApiSearchSubredditsResponse extends Response<ApiSearchSubredditsRes
         mList = new ArrayList<>();
     }
 
+    @Override
+    protected void detachLists() {
+        super.detachLists();
+        mList = new ArrayList<>(mList);
+    }
+
     @Override
     protected ApiSearchSubredditsResponse getInstance() {
         return new ApiSearchSubredditsResponse();
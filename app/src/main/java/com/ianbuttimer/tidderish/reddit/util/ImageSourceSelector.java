@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.reddit.util;
+
+import android.content.res.Resources;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ianbuttimer.tidderish.net.NetworkUtils;
+import com.ianbuttimer.tidderish.reddit.ImageSource;
+import com.ianbuttimer.tidderish.reddit.Link;
+import com.ianbuttimer.tidderish.reddit.Preview;
+import com.ianbuttimer.tidderish.reddit.PreviewImages;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import timber.log.Timber;
+
+/**
+ * Selection of the image to display for a link.<br>
+ * The candidates are the link thumbnail and the preview resolutions, and the smallest which covers
+ * the target size when fitted inside it is chosen. If none cover the target, the largest is chosen.
+ * The bytes saved are estimated from the decoded size of the chosen image compared to the largest.
+ */
+public class ImageSourceSelector {
+
+    /** Bytes per pixel of a decoded image */
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private static final AtomicInteger sSelections = new AtomicInteger();
+    private static final AtomicInteger sThumbnails = new AtomicInteger();
+    private static final AtomicInteger sPreviews = new AtomicInteger();
+    private static final AtomicLong sPixels = new AtomicLong();
+    private static final AtomicLong sBytesSaved = new AtomicLong();
+
+    /**
+     * Constructor
+     */
+    private ImageSourceSelector() {
+        // no op
+    }
+
+    /**
+     * Select the image to display for a link
+     * @param link          Link to select image for
+     * @param targetWidth   Target width in pixels, or 0 if unconstrained
+     * @param targetHeight  Target height in pixels, or 0 if unconstrained
+     * @return  image or <code>null</code> if link has no image
+     */
+    @Nullable
+    public static ImageSource select(@NonNull Link link, int targetWidth, int targetHeight) {
+        ArrayList<ImageSource> candidates = getCandidates(link);
+        ImageSource selected = null;
+        ImageSource largest = null;
+        for (ImageSource candidate : candidates) {
+            if ((largest == null) || (getArea(candidate) > getArea(largest))) {
+                largest = candidate;
+            }
+            if (covers(candidate, targetWidth, targetHeight) &&
+                    ((selected == null) || (getArea(candidate) < getArea(selected)))) {
+                selected = candidate;
+            }
+        }
+        if (selected == null) {
+            selected = largest;
+        }
+
+        if (selected != null) {
+            sSelections.incrementAndGet();
+            if (isThumbnail(link, selected)) {
+                sThumbnails.incrementAndGet();
+            } else {
+                sPreviews.incrementAndGet();
+            }
+            sPixels.addAndGet(getArea(selected));
+            sBytesSaved.addAndGet((getArea(largest) - getArea(selected)) * BYTES_PER_PIXEL);
+            Timber.v("Selected %dx%d of %d images for %dx%d",
+                    selected.getWidth(), selected.getHeight(), candidates.size(), targetWidth, targetHeight);
+        }
+        return selected;
+    }
+
+    /**
+     * Select the uri of the image to display for a link
+     * @param resources     Resources to convert default thumbnails
+     * @param link          Link to select image for
+     * @param targetWidth   Target width in pixels, or 0 if unconstrained
+     * @param targetHeight  Target height in pixels, or 0 if unconstrained
+     * @return  unescaped uri or <code>null</code> if link has no image
+     */
+    @Nullable
+    public static Uri selectUri(Resources resources, @NonNull Link link, int targetWidth, int targetHeight) {
+        Uri uri = null;
+        ImageSource selected = select(link, targetWidth, targetHeight);
+        if (selected != null) {
+            uri = selected.getUrl();
+            if (isThumbnail(link, selected)) {
+                uri = RedditMisc.convertDefaultThumbnailUri(resources, uri);
+            }
+            if (uri != null) {
+                uri = NetworkUtils.unescapeUri(uri);
+            }
+        }
+        return uri;
+    }
+
+    /**
+     * Get the images available for a link
+     * @param link  Link to get images for
+     * @return  list of images
+     */
+    private static ArrayList<ImageSource> getCandidates(Link link) {
+        ArrayList<ImageSource> candidates = new ArrayList<>();
+        if (link.isLoadableThumbnail()) {
+            ImageSource thumbnail = new ImageSource();
+            thumbnail.setUrl(link.getThumbnail());
+            thumbnail.setWidth(link.getThumbnailWidth());
+            thumbnail.setHeight(link.getThumbnailHeight());
+            candidates.add(thumbnail);
+        }
+        Preview preview = link.getPreview();
+        if ((preview != null) && preview.isEnabled() && (preview.getPreview() != null)) {
+            for (PreviewImages images : preview.getPreview()) {
+                if (images != null) {
+                    if (images.getResolutions() != null) {
+                        for (ImageSource resolution : images.getResolutions()) {
+                            if ((resolution != null) && (resolution.getUrl() != null)) {
+                                candidates.add(resolution);
+                            }
+                        }
+                    }
+                    ImageSource source = images.getSource();
+                    if ((source != null) && (source.getUrl() != null)) {
+                        candidates.add(source);
+                    }
+                    break;  // only the first preview is displayed
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Check if an image covers a target size when fitted inside it, i.e. does not need to be
+     * scaled up
+     * @param image         Image to check
+     * @param targetWidth   Target width in pixels, or 0 if unconstrained
+     * @param targetHeight  Target height in pixels, or 0 if unconstrained
+     * @return  <code>true</code> if image covers target
+     */
+    private static boolean covers(ImageSource image, int targetWidth, int targetHeight) {
+        boolean covers;
+        if ((targetWidth <= 0) && (targetHeight <= 0)) {
+            covers = true;
+        } else if (targetWidth <= 0) {
+            covers = (image.getHeight() >= targetHeight);
+        } else if (targetHeight <= 0) {
+            covers = (image.getWidth() >= targetWidth);
+        } else {
+            covers = (image.getWidth() >= targetWidth) || (image.getHeight() >= targetHeight);
+        }
+        return covers;
+    }
+
+    private static boolean isThumbnail(Link link, ImageSource image) {
+        return (link.getThumbnail() != null) && link.getThumbnail().equals(image.getUrl());
+    }
+
+    private static long getArea(@Nullable ImageSource image) {
+        return (image != null ? (long) image.getWidth() * image.getHeight() : 0);
+    }
+
+    /**
+     * Get a summary of the selection statistics
+     * @return  statistics
+     */
+    @NonNull
+    public static String getStats() {
+        int selections = sSelections.get();
+        return "ImageSourceSelector{selections=" + selections +
+                ", thumbnails=" + sThumbnails.get() +
+                ", previews=" + sPreviews.get() +
+                ", avgPixels=" + (selections > 0 ? sPixels.get() / selections : 0) +
+                ", bytesSaved=" + sBytesSaved.get() +
+                '}';
+    }
+}
@@ -33,6 +33,10 @@ import androidx.annotation.UiThread;
 import androidx.core.content.res.ResourcesCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 import com.google.common.primitives.Ints;
 import com.ianbuttimer.tidderish.R;
 import com.ianbuttimer.tidderish.data.Follow;
@@ -47,6 +51,7 @@ import com.ianbuttimer.tidderish.event.AbstractEvent;
 import com.ianbuttimer.tidderish.event.PostsEvent;
 import com.ianbuttimer.tidderish.event.RedditClientEvent;
 import com.ianbuttimer.tidderish.event.StandardEvent;
+import com.ianbuttimer.tidderish.net.GlideApp;
 import com.ianbuttimer.tidderish.reddit.Link;
 import com.ianbuttimer.tidderish.reddit.Subreddit;
 import com.ianbuttimer.tidderish.reddit.get.SubredditAboutResponse;
@@ -58,7 +63,9 @@ import org.greenrobot.eventbus.Subscribe;
 import org.parceler.Parcels;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
 
 /**
@@ -75,6 +82,8 @@ public abstract class AbstractBasePostsTabFragment
     protected static final String FOLLOWING = "following";
     protected static final String CACHE = "cache";
 
+    private static final int PRELOAD_COUNT = 10;    // number of thumbnails to preload ahead of the scroll
+
     protected ArrayList<Follow> mFollowing;      // list of subreddits being followed
     protected HashMap<String, InfoCache> mCache;    // subreddit/posts info cache using subreddit display name as key
 
@@ -94,6 +103,43 @@ public abstract class AbstractBasePostsTabFragment
         super.onAttach(context);
     }
 
+    @Override
+    public void onActivityCreated(@Nullable Bundle savedInstanceState) {
+        super.onActivityCreated(savedInstanceState);
+
+        RecyclerView rvList = getRecyclerView();
+        if (rvList != null) {
+            // fetch thumbnails for the next screen ahead of the scroll
+            int size = LinkViewHolder.getThumbnailSize(getResources());
+            rvList.addOnScrollListener(new RecyclerViewPreloader<>(this,
+                    new ListPreloader.PreloadModelProvider<Link>() {
+                        @NonNull
+                        @Override
+                        public List<Link> getPreloadItems(int position) {
+                            List<Link> items = Collections.emptyList();
+                            if (position < mList.size()) {
+                                items = Collections.singletonList(mList.get(position));
+                            }
+                            return items;
+                        }
+
+                        @Nullable
+                        @Override
+                        public RequestBuilder<?> getPreloadRequestBuilder(@NonNull Link item) {
+                            RequestBuilder<?> request = null;
+                            Uri thumbnail = LinkViewHolder.getThumbnailUri(getResources(), item);
+                            if (thumbnail != null) {
+                                request = LinkViewHolder.loadThumbnail(
+                                        GlideApp.with(AbstractBasePostsTabFragment.this), getResources(), thumbnail);
+                            }
+                            return request;
+                        }
+                    },
+                    new FixedPreloadSizeProvider<>(size, size),
+                    PRELOAD_COUNT));
+        }
+    }
+
     @Override
     protected AbstractRecycleViewAdapter<Link, LinkListItemBinding, LinkViewHolder> getAdapter() {
         return new LinkAdapter(mList, this);
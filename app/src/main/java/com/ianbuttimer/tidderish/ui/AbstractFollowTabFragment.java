@@ -490,7 +490,7 @@ public abstract class AbstractFollowTabFragment
                         if (newCount > 0) {
                             int newPos = mList.size();
                             mList.addAll(newEntries);
-                            mAdapter.notifyDataSetChanged();
+                            mAdapter.notifyItemRangeInserted(newPos, newCount);
 
                             for (Subreddit subreddit : newEntries) {
                                 postEventForActivity(StandardEvent.newSubredditInfoRequest(subreddit.getDisplayName()));
@@ -627,9 +627,7 @@ public abstract class AbstractFollowTabFragment
                                             .subList(sFollowingTester, new ArrayList<Subreddit>());
                         }
                         noResult = mList.isEmpty();
-                        if (mAdapter.setList(mList)) {
-                            mAdapter.notifyDataSetChanged();
-                        }
+                        mAdapter.submitList(mList);
                     }
                 }
                 if (noResult) {
@@ -747,7 +745,7 @@ public abstract class AbstractFollowTabFragment
                 if (newCount > 0) {
                     int newPos = mList.size();
                     mList.addAll(newEntries);
-                    mAdapter.notifyDataSetChanged();
+                    mAdapter.notifyItemRangeInserted(newPos, newCount);
 
                     noResult = false;
 
@@ -45,6 +45,7 @@ import com.ianbuttimer.tidderish.net.UriUtils;
 import com.ianbuttimer.tidderish.reddit.BaseObject;
 import com.ianbuttimer.tidderish.reddit.ListingList;
 import com.ianbuttimer.tidderish.reddit.ListingTracker;
+import com.ianbuttimer.tidderish.reddit.RedditClient;
 import com.ianbuttimer.tidderish.event.AbstractEvent;
 import com.ianbuttimer.tidderish.ui.widgets.EndlessRecyclerViewScrollListener;
 import com.ianbuttimer.tidderish.ui.widgets.ListItemClickListener;
@@ -260,7 +261,7 @@ public abstract class AbstractListingTabFragment<T extends BaseObject<T>, B exte
 
         Context context = getContext();
         if (shouldEventRegister()) {
-            PostOffice.register(this);
+            PostOffice.registerForAddress(this);
 
             if ((context != null) && (mObserver != null) && UriUtils.actionable(mObserverUri)) {
                 if (mRegisterCount == 0) {
@@ -298,6 +299,14 @@ public abstract class AbstractListingTabFragment<T extends BaseObject<T>, B exte
         super.onStop();
     }
 
+    @Override
+    public void onDestroy() {
+        // no point completing requests whose results have nowhere to go
+        RedditClient.getClient().cancelRequests(getAddress());
+
+        super.onDestroy();
+    }
+
     protected <E extends AbstractEvent<?>> void postEvent(E event) {
         postEvent(event, getAddress());
     }
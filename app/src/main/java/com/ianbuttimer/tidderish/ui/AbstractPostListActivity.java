@@ -48,6 +48,7 @@ import com.ianbuttimer.tidderish.event.StandardEvent;
 import com.ianbuttimer.tidderish.event.StandardEventProcessor;
 import com.ianbuttimer.tidderish.event.StandardEventProcessor.IStandardEventProcessorExt;
 import com.ianbuttimer.tidderish.reddit.BaseObject;
+import com.ianbuttimer.tidderish.reddit.Projection;
 import com.ianbuttimer.tidderish.reddit.RedditClient;
 import com.ianbuttimer.tidderish.reddit.Response;
 import com.ianbuttimer.tidderish.reddit.get.SubredditLinkRequest;
@@ -57,10 +58,10 @@ import com.ianbuttimer.tidderish.ui.widgets.PostOffice;
 import com.ianbuttimer.tidderish.utils.Dialog;
 import com.ianbuttimer.tidderish.utils.Utils;
 import com.ianbuttimer.tidderish.widget.PostsWidgetProvider;
+import com.ianbuttimer.tidderish.widget.WidgetRefreshScheduler;
 
 import net.opacapp.multilinecollapsingtoolbar.CollapsingToolbarLayout;
 
-import org.greenrobot.eventbus.EventBus;
 import org.greenrobot.eventbus.Subscribe;
 
 import java.util.ArrayList;
@@ -170,8 +171,7 @@ public abstract class AbstractPostListActivity extends AppCompatActivity
         });
 
         fabRefresh.setOnClickListener(view1 ->
-                EventBus.getDefault()
-                        .post(PostsEvent.newRefreshPostsCommand()
+                PostOffice.postEvent(PostsEvent.newRefreshPostsCommand()
                         .setAddress(Tabs.NEW_POSTS.name()))
         );
 
@@ -262,9 +262,13 @@ public abstract class AbstractPostListActivity extends AppCompatActivity
     }
 
     protected void updateAppWidgets() {
-        PostsWidgetProvider.notifyAppWidgetViewDataChanged(
-                        AppWidgetManager.getInstance(this),
-                        PostsWidgetProvider.getAppWidgetIds(this));
+        int[] appWidgetIds = PostsWidgetProvider.getAppWidgetIds(this);
+        if (appWidgetIds.length > 0) {
+            // redisplay the current snapshot, and refresh it in the background
+            PostsWidgetProvider.notifyAppWidgetViewDataChanged(
+                            AppWidgetManager.getInstance(this), appWidgetIds);
+            WidgetRefreshScheduler.refreshNow(this);
+        }
     }
 
     @Subscribe
@@ -283,7 +287,7 @@ public abstract class AbstractPostListActivity extends AppCompatActivity
     public void onPostsEvent(PostsEvent event) {
         boolean handled = true;
 
-        PostOffice.logDeliver(event, TAG_POSTS_EVENT, true);
+        PostOffice.countDeliver(true);
 
         if (event.isViewPostRequest()) {
             Bundle args = getDetailArgs(event);
@@ -307,6 +311,7 @@ public abstract class AbstractPostListActivity extends AppCompatActivity
                             .subreddit(event.getName(), event.getSource())
                             .listing(event)
                             .build()    // build request
+                            .setProjection(Projection.LIST_ROW)  // detail screen requests full link
                             .setAdditionalInfo(additionalInfo)  // add additional info
             );
         } else if (event.isClearPostsCommand()) {
@@ -46,7 +46,6 @@ import com.ianbuttimer.tidderish.utils.ArrayTester;
 import com.ianbuttimer.tidderish.utils.PreferenceControl;
 
 import java.util.ArrayList;
-import java.util.Set;
 
 import timber.log.Timber;
 
@@ -137,6 +136,7 @@ public abstract class AbstractPostsNewTabFragment extends AbstractBasePostsTabFr
 
                         if (!removeList.isEmpty()) {
                             // remove caches for removed subreddits
+                            ArrayList<Link> before = new ArrayList<>(mList);
                             boolean modified = false;
                             for (String name : removeList) {
                                 InfoCache infoCache = mCache.remove(name);
@@ -150,7 +150,7 @@ public abstract class AbstractPostsNewTabFragment extends AbstractBasePostsTabFr
                                 }
                             }
                             if (modified) {
-                                mAdapter.notifyDataSetChanged();
+                                mAdapter.notifyChangedFrom(before);
                             }
                         }
 
@@ -213,11 +213,11 @@ public abstract class AbstractPostsNewTabFragment extends AbstractBasePostsTabFr
                     }
                 }
             } else if (event.isRefreshPostsCommand()) {
-                Set<String> keySet = mCache.keySet();
-                int size = keySet.size();
-                for (String key : keySet) {
-                    updatePostsList(mCache.get(key), (--size == 0));
+                ArrayList<Link> before = new ArrayList<>(mList);
+                for (String key : mCache.keySet()) {
+                    updatePostsList(mCache.get(key), false);
                 }
+                mAdapter.notifyChangedFrom(before);
                 hideInProgressMessage();
             } else {
                 handled = false;
@@ -236,13 +236,17 @@ public abstract class AbstractPostsNewTabFragment extends AbstractBasePostsTabFr
             if (link != null) {
                 // remove any entry from the same subreddit
                 Link currentLink = findBySubreddit(link.getSubreddit());
-                if (currentLink != null) {
-                    mList.remove(currentLink);
+                int index = (currentLink != null ? mList.indexOf(currentLink) : -1);
+                if (index >= 0) {
+                    mList.remove(index);
+                    if (notify) {
+                        mAdapter.notifyItemRemoved(index);
+                    }
                 }
                 // add new entry
                 modified = mList.add(link);
                 if (notify) {
-                    mAdapter.notifyDataSetChanged();
+                    mAdapter.notifyItemInserted(mList.size() - 1);
                 }
             }
             if (infoCache.size() <= POST_REQ_THRESHOLD) {
@@ -263,13 +267,15 @@ public abstract class AbstractPostsNewTabFragment extends AbstractBasePostsTabFr
             if (subreddit != null) {
                 // remove any entry from the same subreddit
                 Link currentLink = findBySubreddit(subreddit.getDisplayName());
-                if (currentLink != null) {
-                    modified = mList.remove(currentLink);
+                int index = (currentLink != null ? mList.indexOf(currentLink) : -1);
+                if (index >= 0) {
+                    mList.remove(index);
+                    modified = true;
 
                     Timber.i("Removed from list %s - %s", subreddit.getDisplayName(), modified);
 
                     if (notify) {
-                        mAdapter.notifyDataSetChanged();
+                        mAdapter.notifyItemRemoved(index);
                     }
                 }
             }
@@ -146,8 +146,7 @@ public abstract class AbstractPostsPinnedTabFragment extends AbstractBasePostsTa
                             }
                         }
                     }
-                    mAdapter.setList(linkList);
-                    mAdapter.notifyDataSetChanged();
+                    mAdapter.submitList(linkList);
                 }
             } else {
                 handled = false;
@@ -17,6 +17,7 @@ package com.ianbuttimer.tidderish.ui;
 
 import android.content.Context;
 import android.content.Intent;
+import android.content.SharedPreferences;
 import android.os.Bundle;
 import androidx.annotation.StringRes;
 import androidx.preference.ListPreference;
@@ -27,6 +28,9 @@ import android.view.MenuItem;
 
 import com.ianbuttimer.tidderish.R;
 import com.ianbuttimer.tidderish.ui.util.DatabaseSettings;
+import com.ianbuttimer.tidderish.utils.PreferenceControl;
+import com.ianbuttimer.tidderish.widget.PostsWidgetProvider;
+import com.ianbuttimer.tidderish.widget.WidgetRefreshScheduler;
 
 import java.util.Arrays;
 
@@ -45,7 +49,10 @@ public abstract class AbstractSettingsFragment extends PreferenceFragmentCompat
             R.string.pref_sfw_key,
             R.string.pref_refresh_on_discard_key,
             R.string.pref_autoexpand_key,
-            R.string.pref_autoexpand_level_key
+            R.string.pref_autoexpand_level_key,
+            R.string.pref_http_cache_key,
+            R.string.pref_widget_refresh_key,
+            R.string.pref_widget_unmetered_key
     };
 
     @StringRes private int[] mPreferenceKeys = null;
@@ -64,12 +71,42 @@ public abstract class AbstractSettingsFragment extends PreferenceFragmentCompat
         // guidelines.
         bindPreferenceSummaryToValue(findPreference(getString(R.string.pref_post_source_key)));
         bindPreferenceSummaryToValue(findPreference(getString(R.string.pref_autoexpand_level_key)));
+        bindPreferenceSummaryToValue(findPreference(getString(R.string.pref_widget_refresh_key)));
 
         bindOnOffPreference(findPreference(getString(R.string.pref_sfw_key)));
         bindOnOffPreference(findPreference(getString(R.string.pref_refresh_on_discard_key)));
         bindOnOffPreference(findPreference(getString(R.string.pref_autoexpand_key)));
+        bindOnOffPreference(findPreference(getString(R.string.pref_http_cache_key)));
+        bindOnOffPreference(findPreference(getString(R.string.pref_widget_unmetered_key)));
     }
 
+    @Override
+    public void onResume() {
+        super.onResume();
+        PreferenceControl.registerOnSharedPreferenceChangeListener(requireContext(), mWidgetPrefListener);
+    }
+
+    @Override
+    public void onPause() {
+        PreferenceControl.unregisterOnSharedPreferenceChangeListener(requireContext(), mWidgetPrefListener);
+        super.onPause();
+    }
+
+    /**
+     * A shared preference change listener that reschedules the widget refresh once a widget
+     * refresh preference has been saved
+     */
+    private final SharedPreferences.OnSharedPreferenceChangeListener mWidgetPrefListener = (prefs, key) -> {
+        Context context = getContext();
+        if ((context != null) &&
+                (context.getString(R.string.pref_widget_refresh_key).equals(key) ||
+                        context.getString(R.string.pref_widget_unmetered_key).equals(key))) {
+            if (PostsWidgetProvider.getAppWidgetIds(context).length > 0) {
+                WidgetRefreshScheduler.schedule(context, true);
+            }
+        }
+    };
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         int id = item.getItemId();
@@ -161,6 +161,12 @@ public class CommentThreadDialog extends AppCompatDialogFragment
         binding = null;
     }
 
+    @Override
+    public void onDestroy() {
+        mProcessor.onDestroy();
+        super.onDestroy();
+    }
+
     @Override
     public boolean onPostEvent(PostEvent event) {
         return false;
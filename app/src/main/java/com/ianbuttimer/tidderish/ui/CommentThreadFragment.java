@@ -161,6 +161,12 @@ public class CommentThreadFragment extends Fragment
         binding = null;
     }
 
+    @Override
+    public void onDestroy() {
+        mProcessor.onDestroy();
+        super.onDestroy();
+    }
+
     @Override
     public void onSaveInstanceState(@NonNull Bundle outState) {
         super.onSaveInstanceState(outState);
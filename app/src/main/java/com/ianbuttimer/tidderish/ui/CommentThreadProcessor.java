@@ -48,7 +48,6 @@ import com.ianbuttimer.tidderish.data.ApiResponseCallback;
 import com.ianbuttimer.tidderish.data.FullnameITester;
 import com.ianbuttimer.tidderish.data.IAdapterHandler;
 import com.ianbuttimer.tidderish.data.ICallback;
-import com.ianbuttimer.tidderish.data.ITester;
 import com.ianbuttimer.tidderish.data.QueryCallback;
 import com.ianbuttimer.tidderish.data.adapter.AbstractViewHolder;
 import com.ianbuttimer.tidderish.data.adapter.AdapterSelectController;
@@ -67,6 +66,7 @@ import com.ianbuttimer.tidderish.reddit.CommentProxy;
 import com.ianbuttimer.tidderish.reddit.Link;
 import com.ianbuttimer.tidderish.reddit.ListingTracker;
 import com.ianbuttimer.tidderish.reddit.RedditCache;
+import com.ianbuttimer.tidderish.reddit.RedditClient;
 import com.ianbuttimer.tidderish.reddit.RedditObject;
 import com.ianbuttimer.tidderish.reddit.Response;
 import com.ianbuttimer.tidderish.reddit.Subreddit;
@@ -89,8 +89,8 @@ import org.greenrobot.eventbus.Subscribe;
 import org.parceler.Parcels;
 
 import java.text.MessageFormat;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.List;
 
 import github.nisrulz.recyclerviewhelper.RVHItemDividerDecoration;
 import github.nisrulz.recyclerviewhelper.RVHItemTouchHelperCallback;
@@ -270,7 +270,7 @@ public class CommentThreadProcessor<T extends BaseObject<T>, B extends ViewBindi
     }
 
     public void onStart() {
-        PostOffice.register(this, mPOTag);
+        PostOffice.registerForAddress(this, mPOTag);
 
         if (!TextUtils.isEmpty(mPermalink)) {
             boolean emptyList = mList.isEmpty();
@@ -286,16 +286,69 @@ public class CommentThreadProcessor<T extends BaseObject<T>, B extends ViewBindi
                 bsvView.setVisibility(View.VISIBLE);
                 mHost.processGetCommentTreeResult(mLink);
             }
+            if (!emptyList) {
+                // for restored from disk case
+                revalidateRestored();
+            }
             mHost.onStart(emptyList);
         } else {
             hideInProgressMessage();
         }
     }
 
+    /**
+     * Replace any placeholder comments, i.e. not in the memory cache, with those restored from the
+     * disk cache in the background
+     */
+    private void restoreFromDisk() {
+        ArrayList<String> keys = new ArrayList<>();
+        for (Comment comment : mList) {
+            if (comment.isCacheInstantiated()) {
+                keys.add(comment.getCacheKey());
+            }
+        }
+        if (!keys.isEmpty()) {
+            CommentCache.getInstance().restore(keys, restored -> {
+                for (int i = 0; i < mList.size(); i++) {
+                    Comment comment = restored.get(mList.get(i).getCacheKey());
+                    if (comment != null) {
+                        mList.set(i, comment);
+                        if (mAdapter != null) {
+                            mAdapter.notifyItemChanged(i);
+                        }
+                    }
+                }
+                revalidateRestored();
+            });
+        }
+    }
+
+    /**
+     * Request updates of any comments restored from the disk cache, as they may be stale
+     */
+    private void revalidateRestored() {
+        ArrayList<String> names = new ArrayList<>();
+        for (Comment comment : mList) {
+            if (comment.isRestored()) {
+                comment.clearRestored();
+                names.add(comment.getName());
+            }
+        }
+        if (!names.isEmpty()) {
+            postEvent(StandardEvent.newThingAboutRequest(names.toArray(new String[0]))
+                                    .addAddress(mStdEventProcessor.getAddress()));
+        }
+    }
+
     public void onStop() {
         PostOffice.unregister(this, mPOTag);
     }
 
+    public void onDestroy() {
+        // no point completing requests whose results have nowhere to go
+        RedditClient.getClient().cancelRequests(getAddress());
+    }
+
     public void onSaveInstanceState(Bundle outState) {
         outState.putString(LINK_NAME, mName);
         outState.putString(LINK_TITLE, mTitle);
@@ -344,6 +397,7 @@ public class CommentThreadProcessor<T extends BaseObject<T>, B extends ViewBindi
                 // convert proxy list to object list
                 ArrayList<CommentProxy> proxies = Parcels.unwrap(savedInstanceState.getParcelable(LIST));
                 mList = CommentProxy.getFromCache(proxies);
+                restoreFromDisk();
             }
             if (savedInstanceState.containsKey(LINK)) {
                 mLink = Parcels.unwrap(savedInstanceState.getParcelable(LINK));
@@ -486,11 +540,9 @@ public class CommentThreadProcessor<T extends BaseObject<T>, B extends ViewBindi
                 comment.setDisplayed();
             }
 
-            if (mList.addAll(toAdd)) {
+            if (mAdapter.appendAll(toAdd)) {
 
                 mTracker.updateForward(response);
-
-                mAdapter.notifyDataSetChanged();
             }
         }
     }
@@ -558,6 +610,7 @@ public class CommentThreadProcessor<T extends BaseObject<T>, B extends ViewBindi
                             if (result.first != null) {
                                 result.first.copy(comment);
                                 result.first.clearRequestInProgress();
+                                addToCache(result.first);   // update cached size
 
                                 mAdapter.notifyItemChanged(result.second);
                             }
@@ -664,46 +717,20 @@ public class CommentThreadProcessor<T extends BaseObject<T>, B extends ViewBindi
                     mAdapter.notifyItemChanged(position);   // change comments icon
                 } else {
                     // remove replies from list
-                    for (Comment reply : replies) {
-                        if (reply.isDisplayed()) {
-                            reply.setMarked(true);
-                            markRepliesForRemoval(reply);
+                    int endPos = getRepliesEnd(position);
+                    int removedCount = endPos - startPos;
+                    if (removedCount > 0) {
+                        List<Comment> removed = mList.subList(startPos, endPos);
+                        for (Comment reply : removed) {
+                            reply.clearDisplayed();
+                            reply.clearRepliesExpanded();
                         }
+                        removed.clear();
+                        mAdapter.notifyItemRangeRemoved(startPos, removedCount);
                     }
 
-                    ArrayDeque<Pair<Integer, Integer>> removeList = new ArrayDeque<>();
-
-                    startPos = mAdapter.findItemIndex(mMarkedTester, startPos);
-                    while (startPos >= 0) {
-                        for (int endPos = startPos; endPos < mList.size(); ++endPos) {
-                            Comment reply = mList.get(endPos);
-                            if (!reply.isMarked()) {
-                                removeList.push(new Pair<>(startPos, endPos));
-                                startPos = mAdapter.findItemIndex(mMarkedTester, endPos);
-                                break;
-                            }
-                        }
-                    }
-
-                    int removedCount = 0;
-                    int numRanges = removeList.size();
-                    startPos = 0;
-                    while (!removeList.isEmpty()) {
-                        Pair<Integer, Integer> range = removeList.pop();
-                        startPos = range.first;
-                        mList.subList(range.first, range.second).clear();
-                        removedCount += (range.second - range.first);
-
-                        Timber.i("Removed comments %d-%d", range.first, range.second-1);
-                    }
-
-                    Timber.i("Removed %d comments", removedCount);
+                    Timber.i("Removed comments %d-%d", startPos, endPos - 1);
 
-                    if (numRanges == 1) {
-                        mAdapter.notifyItemRangeRemoved(startPos, removedCount);
-                    } else if (numRanges > 1) {
-                        mAdapter.notifyDataSetChanged();
-                    }
                     comment.clearRepliesExpanded();
                     mAdapter.notifyItemChanged(position);   // change comments icon
                 }
@@ -746,6 +773,22 @@ public class CommentThreadProcessor<T extends BaseObject<T>, B extends ViewBindi
         return (Comment) view.getTag(R.id.base_obj_tag);
     }
 
+    /**
+     * Get the end of the displayed replies of a comment.<br>
+     * The list is the comment tree flattened in display order, so the displayed replies of a
+     * comment are the rows following it with a greater depth. Only those rows are examined.
+     * @param position  Position of comment in list
+     * @return  position after the last displayed reply
+     */
+    private int getRepliesEnd(int position) {
+        int depth = mList.get(position).getDepth();
+        int endPos = position + 1;
+        while ((endPos < mList.size()) && (mList.get(endPos).getDepth() > depth)) {
+            ++endPos;
+        }
+        return endPos;
+    }
+
     private int insertComments(ArrayList<Comment> replies, int startPos, int depth) {
         return insertComments(replies.toArray(new Comment[0]), startPos, depth);
     }
@@ -772,8 +815,8 @@ public class CommentThreadProcessor<T extends BaseObject<T>, B extends ViewBindi
         Timber.i("Insert comments: %d replies at index %d with depth %d",
                                             replies.length, startPos, depth);
 
-        // add replies to list
-        int added = 0;
+        // collect the rows to display, and add them to the list in one go
+        ArrayList<Comment> rows = new ArrayList<>();
         if (replies.length > 0) {
 
             int autoExpand = getAutoExpandLevelPreference(mHost.getActivity());
@@ -800,32 +843,20 @@ public class CommentThreadProcessor<T extends BaseObject<T>, B extends ViewBindi
                     }   // else top level comment
                 }
                 if (addChild) {
-                    int insertPos = startPos + added;
-                    list.add(insertPos, reply);
-                    ++added;
-                    reply.setDisplayed();
-
-                    Timber.i("Insert index %d: %s", insertPos, reply);
-
+                    rows.add(reply);
                     if (autoExpand > AUTOEXPAND_OFF) {
-                        ArrayList<Comment> toAdd = new ArrayList<>();
-                        int children = addChildrenToList(toAdd, reply, autoExpand);
-                        if (children > 0) {
-                            insertPos = startPos + added;
-                            list.addAll(insertPos, toAdd);
-                            added += toAdd.size();
-                            for (Comment child : toAdd) {
-                                child.setDisplayed();
-                            }
-
-                            Timber.i("Insert index %d: %d children %s",
-                                                insertPos, toAdd.size(), toAdd);
-                        }
+                        addChildrenToList(rows, reply, autoExpand);
                     }
                 }
             }
+            for (Comment row : rows) {
+                row.setDisplayed();
+            }
+            list.addAll(startPos, rows);
+
+            Timber.i("Insert index %d: %d comments", startPos, rows.size());
         }
-        return added;
+        return rows.size();
     }
 
 
@@ -834,7 +865,7 @@ public class CommentThreadProcessor<T extends BaseObject<T>, B extends ViewBindi
 
         String key = comment.getCacheKey();
         if (!TextUtils.isEmpty(key)) {
-            CommentCache.getInstance().put(key, comment);
+            CommentCache.getInstance().add(key, comment);
         }
     }
 
@@ -852,33 +883,6 @@ public class CommentThreadProcessor<T extends BaseObject<T>, B extends ViewBindi
         }
     };
 
-    /** Tester to find marked comments */
-    private final ITester<Comment> mMarkedTester = obj -> {
-        boolean isMarked;
-        Comment.Tag status = obj.getTag();
-        if (status != null) {
-            isMarked = status.isMarked();
-        } else {
-            throw new IllegalStateException("Untagged comment");
-        }
-        return isMarked;
-    };
-
-    private void markRepliesForRemoval(Comment comment) {
-        if (comment.isRepliesExpanded()) {
-            Comment[] replies = comment.getReplies();
-            for (Comment reply : replies) {
-                if (reply.isDisplayed()) {
-                    if (reply.isRepliesExpanded()) {
-                        markRepliesForRemoval(reply);
-                    }
-                    reply.setMarked(true);
-                }
-            }
-            comment.clearRepliesExpanded();
-        }
-    }
-
     public <E extends AbstractEvent<?>> void postEvent(E event) {
         PostOffice.postEvent(event.addAddress(getAddress()));
     }
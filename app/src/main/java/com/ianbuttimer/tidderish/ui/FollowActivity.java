@@ -170,7 +170,7 @@ public class FollowActivity extends AppCompatActivity implements ISectionsPagerA
     public void onFollowEvent(FollowEvent event) {
         boolean handled = true;
 
-        PostOffice.logDeliver(event, TAG_FOLLOW_EVENT, true);
+        PostOffice.countDeliver(true);
 
         if (event.isSearchInterestRequest()
                 || event.isSearchNameRequest()) {
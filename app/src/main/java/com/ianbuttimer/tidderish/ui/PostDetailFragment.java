@@ -45,18 +45,14 @@ import com.ianbuttimer.tidderish.databinding.ContentPostBinding;
 import com.ianbuttimer.tidderish.event.PostEvent;
 import com.ianbuttimer.tidderish.event.StandardEvent;
 import com.ianbuttimer.tidderish.net.GlideApp;
-import com.ianbuttimer.tidderish.net.NetworkUtils;
 import com.ianbuttimer.tidderish.net.UriUtils;
 import com.ianbuttimer.tidderish.reddit.Comment;
-import com.ianbuttimer.tidderish.reddit.ImageSource;
 import com.ianbuttimer.tidderish.reddit.Link;
 import com.ianbuttimer.tidderish.reddit.MediaEmbed;
 import com.ianbuttimer.tidderish.reddit.OEmbed;
-import com.ianbuttimer.tidderish.reddit.Preview;
-import com.ianbuttimer.tidderish.reddit.PreviewImages;
 import com.ianbuttimer.tidderish.reddit.RedditClient;
 import com.ianbuttimer.tidderish.reddit.SecureMedia;
-import com.ianbuttimer.tidderish.reddit.util.RedditMisc;
+import com.ianbuttimer.tidderish.reddit.util.ImageSourceSelector;
 import com.ianbuttimer.tidderish.ui.widgets.BasicStatsView;
 import com.ianbuttimer.tidderish.ui.widgets.PostOffice;
 import com.ianbuttimer.tidderish.ui.widgets.ToastReceiver;
@@ -64,7 +60,6 @@ import com.ianbuttimer.tidderish.utils.ScreenUtils;
 import com.ianbuttimer.tidderish.utils.Utils;
 
 import java.text.MessageFormat;
-import java.util.Objects;
 
 import static com.ianbuttimer.tidderish.data.provider.BaseProvider.PinnedBase.NAME_EQ_SELECTION;
 import static com.ianbuttimer.tidderish.ui.CommentThreadProcessor.DETAIL_ARGS;
@@ -257,41 +252,11 @@ public class PostDetailFragment extends CommentThreadFragment implements PostOff
         Uri uri = null;
         Link link = mProcessor.getLink();
         if (link!= null) {
-            Preview preview = link.getPreview();
-            if (preview != null) {
-                if (preview.isEnabled()) {
-                    int scrnWidth = ScreenUtils.getScreenWidth(getActivity());
-                    PreviewImages[] previewImages = preview.getPreview();
-                    for (int i = 0; i < Objects.requireNonNull(previewImages).length && (uri == null); i++) {
-                        if (!Utils.arrayItemIsNull(previewImages, i)) {
-                            ImageSource[] resolutions = previewImages[i].getResolutions();
-                            int selectedWidth = 0;
-                            int bestIdx = -1;
-                            for (int j = 0; (j < resolutions.length) && (selectedWidth < scrnWidth); j++) {
-                                if (!Utils.arrayItemIsNull(resolutions, j)) {
-                                    int thisWidth = resolutions[j].getWidth();
-                                    if ((selectedWidth < thisWidth) && (thisWidth < scrnWidth)) {
-                                        bestIdx = j;
-                                        selectedWidth = thisWidth;
-                                    }
-                                }
-                            }
-                            if (bestIdx >= 0) {
-                                uri = resolutions[bestIdx].getUrl();
-                            }
-                        }
-                    }
-                }
-            }
-            if (uri == null) {
-                if (link.isLoadableThumbnail()) {
-                    uri = RedditMisc.convertDefaultThumbnailUri(getResources(), link.getThumbnail());
-                }
-            }
+            // the image is displayed across the screen
+            uri = ImageSourceSelector.selectUri(getResources(), link,
+                    ScreenUtils.getScreenWidth(getActivity()), 0);
         }
         if (uri != null) {
-            uri = NetworkUtils.unescapeUri(uri);
-
             GlideApp.with(this)
                     .load(uri)
                     .placeholder(R.drawable.ic_picture)
@@ -18,6 +18,9 @@ package com.ianbuttimer.tidderish.ui.widgets;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.ianbuttimer.tidderish.R;
@@ -27,10 +30,23 @@ import com.ianbuttimer.tidderish.utils.PreferenceControl;
 
 import org.greenrobot.eventbus.EventBus;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 import timber.log.Timber;
 
 /**
- * Event post office
+ * Event post office.<br>
+ * Subscribers registered with {@link #register(Object)} receive all events and filter those
+ * meant for them. Subscribers registered with {@link #registerForAddress(IAddressable)} are indexed
+ * by address, and only receive events addressed to them and broadcast events, which are explicitly
+ * fanned out to every address.
  */
 public class PostOffice {
 
@@ -44,6 +60,18 @@ public class PostOffice {
     private static final int LOG_IGNORE = 0x02;
     private static int mLogDelivery;
 
+    /* bus per address for indexed subscribers; buses are retained while they have subscribers or
+        hold sticky events for subscribers yet to register */
+    private static final HashMap<String, EventBus> sAddressBuses = new HashMap<>();
+    private static final IdentityHashMap<Object, String> sAddressed = new IdentityHashMap<>();
+    private static final HashMap<String, HashSet<Class<?>>> sStickyClasses = new HashMap<>();
+
+    private static final AtomicLong sPosted = new AtomicLong();       // events posted
+    private static final AtomicLong sRouted = new AtomicLong();       // addressed event deliveries to indexed buses
+    private static final AtomicLong sFannedOut = new AtomicLong();    // broadcast event deliveries to indexed buses
+    private static final AtomicLong sDelivered = new AtomicLong();    // events accepted by subscribers
+    private static final AtomicLong sIgnored = new AtomicLong();      // events rejected by subscribers
+
     private static final int LOG_HANDLED = 0x01;
     private static final int LOG_NOT_HANDLED = 0x02;
     private static int mLogHandled;
@@ -118,6 +146,7 @@ public class PostOffice {
     public static <T extends AbstractEvent<?>> void postEvent(T event, String... tags) {
         logPost(event.addAddress(tags));
         EventBus.getDefault().post(event);
+        dispatch(event, false);
     }
 
     /**
@@ -129,6 +158,91 @@ public class PostOffice {
     public static <T extends AbstractEvent<?>> void postSticky(T event, String... tags) {
         logPostSticky(event.addAddress(tags));
         EventBus.getDefault().postSticky(event);
+        dispatch(event, true);
+    }
+
+    /**
+     * Dispatch an event to the indexed subscribers
+     * @param event     Event to dispatch
+     * @param sticky    Sticky flag
+     */
+    private static void dispatch(AbstractEvent<?> event, boolean sticky) {
+        sPosted.incrementAndGet();
+
+        ArrayList<EventBus> buses = new ArrayList<>();
+        boolean broadcast = event.isBroadcast();
+        synchronized (sAddressBuses) {
+            ArrayList<String> addresses;
+            if (broadcast) {
+                // explicit fan-out to all addresses
+                addresses = new ArrayList<>(sAddressBuses.keySet());
+            } else {
+                addresses = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(event.getAddresses())));
+            }
+            for (String address : addresses) {
+                // sticky events need a bus to wait on even if the addressee has yet to register
+                EventBus bus = getBus(address, sticky);
+                if (bus != null) {
+                    buses.add(bus);
+                    if (sticky) {
+                        HashSet<Class<?>> classes = sStickyClasses.get(address);
+                        if (classes == null) {
+                            classes = new HashSet<>();
+                            sStickyClasses.put(address, classes);
+                        }
+                        classes.add(event.getClass());
+                    }
+                }
+            }
+        }
+        for (EventBus bus : buses) {
+            boolean posted = true;
+            if (sticky) {
+                bus.postSticky(event);
+            } else if (bus.hasSubscriberForEvent(event.getClass())) {
+                bus.post(event);
+            } else {
+                posted = false;
+            }
+            if (posted) {
+                if (broadcast) {
+                    sFannedOut.incrementAndGet();
+                } else {
+                    sRouted.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the bus for an address.
+     * <b>Note:</b> must be called with the bus map locked
+     * @param address   Address
+     * @param create    Create bus if it doesn't exist
+     * @return  bus or <code>null</code> if doesn't exist and not created
+     */
+    @Nullable
+    private static EventBus getBus(String address, boolean create) {
+        EventBus bus = sAddressBuses.get(address);
+        if ((bus == null) && create && !TextUtils.isEmpty(address)) {
+            bus = EventBus.builder()
+                    .logNoSubscriberMessages(false)
+                    .sendNoSubscriberEvent(false)
+                    .build();
+            sAddressBuses.put(address, bus);
+        }
+        return bus;
+    }
+
+    /**
+     * Remove the bus for an address if it has no subscribers and holds no sticky events.
+     * <b>Note:</b> must be called with the bus map locked
+     * @param address   Address
+     */
+    private static void releaseBus(String address) {
+        if (!sAddressed.containsValue(address) && !sStickyClasses.containsKey(address)) {
+            sAddressBuses.remove(address);
+        }
     }
 
     /**
@@ -150,6 +264,22 @@ public class PostOffice {
      */
     @Nullable
     public static <T extends AbstractEvent<?>> T removeStickyEvent(Class<T> tClass) {
+        synchronized (sAddressBuses) {
+            for (EventBus bus : sAddressBuses.values()) {
+                bus.removeStickyEvent(tClass);
+            }
+            ArrayList<String> released = new ArrayList<>();
+            for (Map.Entry<String, HashSet<Class<?>>> entry : sStickyClasses.entrySet()) {
+                entry.getValue().remove(tClass);
+                if (entry.getValue().isEmpty()) {
+                    released.add(entry.getKey());
+                }
+            }
+            for (String address : released) {
+                sStickyClasses.remove(address);
+                releaseBus(address);
+            }
+        }
         return EventBus.getDefault().removeStickyEvent(tClass);
     }
 
@@ -172,7 +302,7 @@ public class PostOffice {
      */
     public static boolean deliverEvent(AbstractEvent<?> event, String destination, String tag) {
         boolean deliver = event.isForTag(destination);
-        logDeliver(event, tag, deliver);
+        countDeliver(deliver);
         return deliver;
     }
 
@@ -198,7 +328,7 @@ public class PostOffice {
         if (!deliver) {
             deliver = deliverEvent(event, destination, tag);
         } else {
-            logDeliver(event, tag, deliver);
+            countDeliver(true);
         }
         return deliver;
     }
@@ -234,21 +364,44 @@ public class PostOffice {
     }
 
     /**
-     * Log an event delivery
-     * @param event     Event
-     * @param tag       Tag to display in log
+     * Count an event delivery
      * @param deliver   Delivered flag
-     * @param <T>       Event class
      */
-    public static <T extends AbstractEvent<?>> void logDeliver(T event, String tag, boolean deliver) {
-        String msg = null;
-        if (deliver && isSet(mLogDelivery, LOG_DELIVERY)) {
-            msg = "";
-        } else if (isSet(mLogDelivery, LOG_IGNORE)) {
-            msg = "IGNORE ";
+    public static void countDeliver(boolean deliver) {
+        if (deliver) {
+            sDelivered.incrementAndGet();
+        } else {
+            sIgnored.incrementAndGet();
         }
-        if (msg != null) {
-            Timber.d("deliverEvent[%s]: %s%s", tag, msg, event);
+    }
+
+    /**
+     * Get a summary of the delivery statistics
+     * @return  statistics
+     */
+    @NonNull
+    public static String getDeliveryStats() {
+        int addresses;
+        synchronized (sAddressBuses) {
+            addresses = sAddressBuses.size();
+        }
+        return "PostOffice{" +
+                "posted=" + sPosted.get() +
+                ", addresses=" + addresses +
+                ", routed=" + sRouted.get() +
+                ", fannedOut=" + sFannedOut.get() +
+                ", delivered=" + sDelivered.get() +
+                ", ignored=" + sIgnored.get() +
+                '}';
+    }
+
+    /**
+     * Log the delivery statistics, if enabled
+     * @param tag   Tag to display in log
+     */
+    private static void logDeliveryStats(String tag) {
+        if (mLogDelivery != 0) {
+            Timber.d("deliveryStats[%s]: %s", tag, getDeliveryStats());
         }
     }
 
@@ -289,6 +442,36 @@ public class PostOffice {
         Timber.d("PostOffice: register %s", tag);
     }
 
+    /**
+     * Register a subscriber to only receive events for its address, and broadcast events
+     * @param subscriber    Subscriber
+     */
+    public static void registerForAddress(IAddressable subscriber) {
+        registerForAddress(subscriber, subscriber.getClass().getSimpleName());
+    }
+
+    /**
+     * Register a subscriber to only receive events for its address, and broadcast events
+     * @param subscriber    Subscriber
+     * @param tag           Tag to display in log
+     */
+    public static void registerForAddress(IAddressable subscriber, String tag) {
+        String address = subscriber.getAddress();
+        EventBus bus;
+        synchronized (sAddressBuses) {
+            bus = getBus(address, true);
+            if (bus != null) {
+                sAddressed.put(subscriber, address);
+            }
+        }
+        if (bus != null) {
+            bus.register(subscriber);
+            Timber.d("PostOffice: register %s for %s", tag, address);
+        } else {
+            register(subscriber, tag);  // no address, so needs to see everything
+        }
+    }
+
     /**
      * Unregister a subscriber
      * @param subscriber    Subscriber
@@ -303,8 +486,22 @@ public class PostOffice {
      * @param tag           Tag to display in log
      */
     public static void unregister(Object subscriber, String tag) {
-        EventBus.getDefault().unregister(subscriber);
+        EventBus bus = null;
+        synchronized (sAddressBuses) {
+            String address = sAddressed.remove(subscriber);
+            if (address != null) {
+                bus = sAddressBuses.get(address);
+                if (bus != null) {
+                    bus.unregister(subscriber);
+                    releaseBus(address);
+                }
+            }
+        }
+        if (bus == null) {
+            EventBus.getDefault().unregister(subscriber);
+        }
         Timber.d("PostOffice: unregister %s", tag);
+        logDeliveryStats(tag);
     }
 
     /**
@@ -313,7 +510,13 @@ public class PostOffice {
      * @return <code>true</code> if registered
      */
     public static boolean isRegistered(Object subscriber) {
-        boolean registered = EventBus.getDefault().isRegistered(subscriber);
+        boolean registered;
+        synchronized (sAddressBuses) {
+            registered = sAddressed.containsKey(subscriber);
+        }
+        if (!registered) {
+            registered = EventBus.getDefault().isRegistered(subscriber);
+        }
         Timber.d("PostOffice: isRegistered %s %s", subscriber.getClass().getSimpleName(), registered);
         return registered;
     }
@@ -58,6 +58,16 @@ public abstract class AbstractPreferenceControl {
                 R.string.pref_log_http_key, R.bool.pref_log_http_dflt_value);
     }
 
+    /**
+     * Convenience method to retrieve Http Cache enabled setting
+     * @param context   The current context
+     * @return  <code>true</code> if http cache enabled, <code>false</code> otherwise
+     */
+    public static boolean getHttpCachePreference(Context context) {
+        return getSharedBooleanPreference(context,
+                R.string.pref_http_cache_key, R.bool.pref_http_cache_dflt_value);
+    }
+
     /**
      * Convenience method to retrieve Refresh on Discard enabled setting
      * @param context   The current context
@@ -105,6 +115,27 @@ public abstract class AbstractPreferenceControl {
                 R.string.pref_post_source_key, R.string.pref_post_source_dflt_value);
     }
 
+    /**
+     * Convenience method to retrieve Widget Refresh interval setting
+     * @param context   The current context
+     * @return  interval in minutes
+     */
+    public static int getWidgetRefreshPreference(Context context) {
+        String setting = getSharedStringPreference(context,
+                R.string.pref_widget_refresh_key, R.string.pref_widget_refresh_dflt_value);
+        return Integer.valueOf(setting);
+    }
+
+    /**
+     * Convenience method to retrieve Widget Refresh on unmetered network only setting
+     * @param context   The current context
+     * @return  <code>true</code> if only refresh on unmetered network, <code>false</code> otherwise
+     */
+    public static boolean getWidgetUnmeteredPreference(Context context) {
+        return getSharedBooleanPreference(context,
+                R.string.pref_widget_unmetered_key, R.bool.pref_widget_unmetered_dflt_value);
+    }
+
     /**
      * Convenience method to retrieve the device id setting
      * @param context   The current context
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.utils;
+
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import timber.log.Timber;
+
+/**
+ * Field copier using cached per-class copy plans.<br>
+ * The fields to copy for a class are resolved, made accessible and classified by type once, on
+ * first use, so subsequent copies only perform the field gets and sets.
+ */
+public class FieldCopier {
+
+    private static final int TYPE_OBJECT = 0;
+    private static final int TYPE_LONG = 1;
+    private static final int TYPE_INT = 2;
+    private static final int TYPE_SHORT = 3;
+    private static final int TYPE_BYTE = 4;
+    private static final int TYPE_CHAR = 5;
+    private static final int TYPE_FLOAT = 6;
+    private static final int TYPE_DOUBLE = 7;
+    private static final int TYPE_BOOLEAN = 8;
+
+    private static final ConcurrentHashMap<Class<?>, Plan> sPlans = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger sHits = new AtomicInteger();
+    private static final AtomicInteger sMisses = new AtomicInteger();
+
+    /**
+     * Constructor
+     */
+    private FieldCopier() {
+        // no op
+    }
+
+    /**
+     * Copy fields from <code>src</code> to <code>dest</code>, excluding final, static & volatile fields.
+     * @param src   Source object
+     * @param dest  Destination object
+     * @return  <code>true</code> if copied successfully
+     */
+    public static boolean copy(Object src, Object dest) {
+        boolean copied = false;
+        if ((src != null) && (dest != null)) {
+            Class<?> srcClass = src.getClass();
+            Class<?> destClass = dest.getClass();
+            Class<?> planClass = getCommonClass(srcClass, destClass);
+            if ((planClass == null) && (srcClass.getSuperclass() != null)) {
+                planClass = getCommonClass(srcClass.getSuperclass(), destClass.getSuperclass());
+            }
+            if (planClass != null) {
+                copied = getPlan(planClass).copy(src, dest);
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Get the class whose fields are common to the argument classes
+     * @param classA    First class
+     * @param classB    Second class
+     * @return  Class or <code>null</code> if no common fields
+     */
+    @Nullable
+    private static Class<?> getCommonClass(Class<?> classA, @Nullable Class<?> classB) {
+        Class<?> fieldClass = null;
+        if (classB != null) {
+            if (classA.isAssignableFrom(classB)) {
+                // classA may be assigned from classB, so use classA fields
+                fieldClass = classA;
+            } else if (classB.isAssignableFrom(classA)) {
+                // classB may be assigned from classA, so use classB fields
+                fieldClass = classB;
+            }
+        }
+        return fieldClass;
+    }
+
+    /**
+     * Get the copy plan for a class, creating it if necessary
+     * @param clazz Class to get plan for
+     * @return  Copy plan
+     */
+    private static Plan getPlan(Class<?> clazz) {
+        Plan plan = sPlans.get(clazz);
+        if (plan != null) {
+            sHits.incrementAndGet();
+        } else {
+            sMisses.incrementAndGet();
+            plan = new Plan(clazz);
+            Plan existing = sPlans.putIfAbsent(clazz, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Get the type code for a field
+     * @param fieldClass    Class of field
+     * @return  Type code
+     */
+    private static int getType(Class<?> fieldClass) {
+        int type;
+        if (long.class.equals(fieldClass)) {
+            type = TYPE_LONG;
+        } else if (int.class.equals(fieldClass)) {
+            type = TYPE_INT;
+        } else if (short.class.equals(fieldClass)) {
+            type = TYPE_SHORT;
+        } else if (byte.class.equals(fieldClass)) {
+            type = TYPE_BYTE;
+        } else if (char.class.equals(fieldClass)) {
+            type = TYPE_CHAR;
+        } else if (float.class.equals(fieldClass)) {
+            type = TYPE_FLOAT;
+        } else if (double.class.equals(fieldClass)) {
+            type = TYPE_DOUBLE;
+        } else if (boolean.class.equals(fieldClass)) {
+            type = TYPE_BOOLEAN;
+        } else {
+            // boxed primitives are references, so are copied as objects
+            type = TYPE_OBJECT;
+        }
+        return type;
+    }
+
+    /**
+     * Get the number of cached copy plans
+     * @return  count
+     */
+    public static int getPlanCount() {
+        return sPlans.size();
+    }
+
+    /**
+     * Get the number of copies which used a cached copy plan
+     * @return  count
+     */
+    public static int getHitCount() {
+        return sHits.get();
+    }
+
+    /**
+     * Get the number of copies which created a copy plan
+     * @return  count
+     */
+    public static int getMissCount() {
+        return sMisses.get();
+    }
+
+
+    /**
+     * Class representing the fields to copy for a class
+     */
+    private static class Plan {
+
+        private final Field[] mFields;
+        private final int[] mTypes;
+
+        Plan(Class<?> clazz) {
+            List<Field> fields = Utils.getFields(clazz);
+            ArrayList<Field> copyFields = new ArrayList<>();
+            if (fields != null) {
+                for (Field field : fields) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isFinal(modifiers)
+                            || Modifier.isStatic(modifiers)
+                            || Modifier.isVolatile(modifiers)) {
+                        // don't copy final, static or volatile fields
+                        continue;
+                    }
+                    if (!Modifier.isPublic(modifiers) ||
+                            !Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+                        field.setAccessible(true);
+                    }
+                    copyFields.add(field);
+                }
+            }
+            int count = copyFields.size();
+            mFields = copyFields.toArray(new Field[count]);
+            mTypes = new int[count];
+            for (int i = 0; i < count; i++) {
+                mTypes[i] = getType(mFields[i].getType());
+            }
+        }
+
+        boolean copy(Object src, Object dest) {
+            boolean copied = true;
+            for (int i = 0; i < mFields.length; i++) {
+                Field field = mFields[i];
+                try {
+                    switch (mTypes[i]) {
+                        case TYPE_LONG:
+                            field.setLong(dest, field.getLong(src));
+                            break;
+                        case TYPE_INT:
+                            field.setInt(dest, field.getInt(src));
+                            break;
+                        case TYPE_SHORT:
+                            field.setShort(dest, field.getShort(src));
+                            break;
+                        case TYPE_BYTE:
+                            field.setByte(dest, field.getByte(src));
+                            break;
+                        case TYPE_CHAR:
+                            field.setChar(dest, field.getChar(src));
+                            break;
+                        case TYPE_FLOAT:
+                            field.setFloat(dest, field.getFloat(src));
+                            break;
+                        case TYPE_DOUBLE:
+                            field.setDouble(dest, field.getDouble(src));
+                            break;
+                        case TYPE_BOOLEAN:
+                            field.setBoolean(dest, field.getBoolean(src));
+                            break;
+                        default:
+                            field.set(dest, field.get(src));
+                            break;
+                    }
+                } catch (IllegalAccessException e) {
+                    Timber.e(e);
+                    copied = false;
+                }
+            }
+            return copied;
+        }
+    }
+}
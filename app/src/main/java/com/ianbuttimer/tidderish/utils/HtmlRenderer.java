@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.utils;
+
+import android.content.ComponentCallbacks2;
+import android.text.Html;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.TextUtils;
+import android.text.style.URLSpan;
+import android.text.util.Linkify;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ianbuttimer.tidderish.net.NetworkUtils;
+import com.ianbuttimer.tidderish.reddit.BaseObject;
+import com.ianbuttimer.tidderish.reddit.Comment;
+import com.ianbuttimer.tidderish.reddit.ListingResponse;
+import com.ianbuttimer.tidderish.reddit.Response;
+import com.ianbuttimer.tidderish.reddit.Subreddit;
+import com.ianbuttimer.tidderish.reddit.get.SubredditAboutResponse;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ianbuttimer.tidderish.net.RedditUriBuilder.BASE_URL;
+import static com.ianbuttimer.tidderish.net.RedditUriBuilder.SUBREDDIT_RELATIVE_START_URL;
+
+/**
+ * Renderer for the html bodies of comments and subreddit descriptions.<br>
+ * Html is converted to its final link-processed form, i.e. relative subreddit links made absolute
+ * and web urls linkified, and cached by fullname and content, so binding a view only requires
+ * setting the text. Responses are pre-rendered in the background when they arrive.<br>
+ * This class is a singleton.
+ */
+public class HtmlRenderer {
+
+    /** Maximum size of the cache in characters */
+    private static final int MAX_CHARS = 256 * 1024;
+    /** Nominal size of an entry in characters, to account for span objects */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private static HtmlRenderer sInstance = null;     // singleton instance
+
+    private final LruCache<String, Spanned> mCache;
+    private final ExecutorService mWorker;
+
+    private final AtomicInteger mRendered = new AtomicInteger();
+    private final AtomicInteger mPrerendered = new AtomicInteger();
+
+    /**
+     * Constructor
+     */
+    private HtmlRenderer() {
+        mCache = new LruCache<String, Spanned>(MAX_CHARS) {
+            @Override
+            protected int sizeOf(String key, Spanned value) {
+                return key.length() + value.length() + ENTRY_OVERHEAD;
+            }
+        };
+        mWorker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "HtmlRenderer");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the renderer
+     * @return  Renderer reference
+     */
+    public static synchronized HtmlRenderer getInstance() {
+        if (sInstance == null) {
+            sInstance = new HtmlRenderer();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Get the rendered form of html, rendering it if not already cached
+     * @param name  Fullname of object the html belongs to, or <code>null</code> to not cache
+     * @param html  Html to render
+     * @return  Rendered text
+     */
+    @NonNull
+    public Spanned render(@Nullable String name, @Nullable String html) {
+        if (html == null) {
+            html = "";
+        }
+        String key = getKey(name, html);
+        Spanned rendered = (key != null ? mCache.get(key) : null);
+        if (rendered == null) {
+            rendered = renderHtml(html);
+            if (key != null) {
+                mCache.put(key, rendered);
+            }
+        }
+        return rendered;
+    }
+
+    /**
+     * Render the html of the comments and subreddits in a response, in the background
+     * @param response  Response to render
+     */
+    public void prerender(@Nullable Response<? extends BaseObject<?>> response) {
+        final ArrayList<Object> objects = new ArrayList<>();
+        if (response instanceof ListingResponse) {
+            objects.addAll(((ListingResponse<?, ?>) response).getList());
+        } else if (response instanceof SubredditAboutResponse) {
+            objects.add(((SubredditAboutResponse) response).getSubreddit());
+        }
+        if (!objects.isEmpty()) {
+            mWorker.execute(() -> {
+                for (Object object : objects) {
+                    prerender(object);
+                }
+            });
+        }
+    }
+
+    /**
+     * Render the html of an object.
+     * <b>Note:</b> must be called on the worker thread
+     * @param object    Object to render
+     */
+    private void prerender(@Nullable Object object) {
+        if (object instanceof Comment) {
+            Comment comment = (Comment) object;
+            prerender(comment.getName(), comment.getBodyHtml());
+            Comment[] replies = comment.getReplies();
+            if (replies != null) {
+                for (Comment reply : replies) {
+                    prerender(reply);
+                }
+            }
+        } else if (object instanceof Subreddit) {
+            Subreddit subreddit = (Subreddit) object;
+            prerender(subreddit.getName(), subreddit.getDescriptionHtml());
+        }
+    }
+
+    private void prerender(String name, String html) {
+        String key = getKey(name, html);
+        if ((key != null) && (mCache.get(key) == null)) {
+            mCache.put(key, renderHtml(html));
+            mPrerendered.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get the cache key for html
+     * @param name  Fullname of object the html belongs to
+     * @param html  Html
+     * @return  key or <code>null</code> if not cacheable
+     */
+    @Nullable
+    private static String getKey(@Nullable String name, @Nullable String html) {
+        String key = null;
+        if (!TextUtils.isEmpty(name) && !TextUtils.isEmpty(html)) {
+            // reddit doesn't supply an edit time for all objects, but any edit changes the html
+            key = name + ':' + html.length() + ':' + html.hashCode();
+        }
+        return key;
+    }
+
+    /**
+     * Render html to its final link-processed form
+     * @param html  Html to render
+     * @return  Rendered text
+     */
+    @NonNull
+    private Spanned renderHtml(String html) {
+        mRendered.incrementAndGet();
+
+        SpannableString existingLinks = new SpannableString(Html.fromHtml(html));
+        URLSpan[] spans = existingLinks.getSpans(0, existingLinks.length(), URLSpan.class);
+        for (URLSpan span : spans) {
+            String url = span.getURL();
+            if (url.startsWith(SUBREDDIT_RELATIVE_START_URL)) {
+                // looks like a relative subreddit url, replace with http link
+                int start = existingLinks.getSpanStart(span);
+                int end = existingLinks.getSpanEnd(span);
+                int flags = existingLinks.getSpanFlags(span);
+                existingLinks.removeSpan(span);
+                URLSpan myUrlSpan = new URLSpan(NetworkUtils.joinUrlPaths(BASE_URL, url));
+                existingLinks.setSpan(myUrlSpan, start, end, flags);
+            }
+        }
+
+        // Linkify.addLinks clears existing links
+        // get around this by merging the links based on
+        // https://stackoverflow.com/a/37853641/4054609
+        SpannableString webLinks = new SpannableString(existingLinks);
+        Linkify.addLinks(webLinks, Linkify.WEB_URLS);
+
+        spans = existingLinks.getSpans(0, existingLinks.length(), URLSpan.class);
+        for (URLSpan span : spans) {
+            webLinks.setSpan(span, existingLinks.getSpanStart(span), existingLinks.getSpanEnd(span),
+                    Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        }
+        return webLinks;
+    }
+
+    /**
+     * Trim the cache in response to a memory trim request
+     * @param level Trim level
+     * @see ComponentCallbacks2#onTrimMemory(int)
+     */
+    public void onTrimMemory(int level) {
+        if ((level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) ||
+                (level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL)) {
+            mCache.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            mCache.trimToSize(mCache.maxSize() / 2);
+        }
+    }
+
+    /**
+     * Get a summary of the renderer statistics
+     * @return  statistics
+     */
+    @NonNull
+    public String getStats() {
+        return "HtmlRenderer{" +
+                "size=" + mCache.size() +
+                ", hits=" + mCache.hitCount() +
+                ", misses=" + mCache.missCount() +
+                ", rendered=" + mRendered.get() +
+                ", prerendered=" + mPrerendered.get() +
+                '}';
+    }
+}
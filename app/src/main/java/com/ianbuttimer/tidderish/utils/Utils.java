@@ -42,7 +42,6 @@ import com.ianbuttimer.tidderish.ui.HelpActivity;
 import com.ianbuttimer.tidderish.ui.SettingsActivity;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.text.DecimalFormat;
 import java.text.MessageFormat;
 import java.text.NumberFormat;
@@ -52,7 +51,6 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.List;
-import java.util.Objects;
 
 import timber.log.Timber;
 
@@ -626,79 +624,10 @@ public class Utils {
      * @param src   Source object
      * @param dest  Destination object
      * @return  <code>true</code> if copied successfully
+     * @see FieldCopier
      */
     public static boolean copyFields(Object src, Object dest) {
-        boolean copied = false;
-        if ((src != null) && (dest != null)) {
-            Class<?> srcClass = src.getClass();
-            Class<?> destClass = dest.getClass();
-            List<Field> fields = getFields(srcClass, destClass);
-            if (fields == null) {
-                fields = getFields(Objects.requireNonNull(srcClass.getSuperclass()), destClass.getSuperclass());
-            }
-            if (fields != null) {
-                copied = true;
-                for (Field field : fields) {
-                    Class fieldClass = field.getType();
-                    int modifiers = field.getModifiers();
-                    if (Modifier.isFinal(modifiers)
-                            || Modifier.isStatic(modifiers)
-                            || Modifier.isVolatile(modifiers)) {
-                        // don't copy final, static or volatile fields
-                        continue;
-                    }
-                    if (!Modifier.isPublic(modifiers) ||
-                            !Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
-                        field.setAccessible(true);
-                    }
-                    try {
-                        if (Long.class.equals(fieldClass) || long.class.equals(fieldClass)) {
-                            field.setLong(dest, field.getLong(src));
-                        } else if (Integer.class.equals(fieldClass) || int.class.equals(fieldClass)) {
-                            field.setInt(dest, field.getInt(src));
-                        } else if (Short.class.equals(fieldClass) || short.class.equals(fieldClass)) {
-                            field.setShort(dest, field.getShort(src));
-                        } else if (Byte.class.equals(fieldClass) || byte.class.equals(fieldClass)) {
-                            field.setByte(dest, field.getByte(src));
-                        } else if (Character.class.equals(fieldClass) || char.class.equals(fieldClass)) {
-                            field.setChar(dest, field.getChar(src));
-                        } else if (Float.class.equals(fieldClass) || float.class.equals(fieldClass)) {
-                            field.setFloat(dest, field.getFloat(src));
-                        } else if (Double.class.equals(fieldClass) || double.class.equals(fieldClass)) {
-                            field.setDouble(dest, field.getDouble(src));
-                        } else if (Boolean.class.equals(fieldClass) || boolean.class.equals(fieldClass)) {
-                            field.setBoolean(dest, field.getBoolean(src));
-                        } else {
-                            field.set(dest, field.get(src));
-                        }
-                    } catch (IllegalAccessException e) {
-                        Timber.e(e);
-                        copied = false;
-                    }
-                }
-            }
-        }
-        return copied;
-    }
-
-    /**
-     * Get the common fields of the argument classes
-     * @param classA    First class
-     * @param classB    Second class
-     * @return  Field list or <code>null</code> if no common fields
-     */
-    @Nullable
-    private static List<Field> getFields(Class<?> classA, Class<?> classB) {
-        List<Field> fields = null;
-        Class<?> fieldClass = null;
-        if (classA.isAssignableFrom(classB)) {
-            // classA may be assigned from destination, so use classA fields
-            fieldClass = classA;
-        } else if (classB.isAssignableFrom(classA)) {
-            // classB may be assigned from classA, so use classB fields
-            fieldClass = classB;
-        }
-        return getFields(fieldClass);
+        return FieldCopier.copy(src, dest);
     }
 
     /**
@@ -108,6 +108,8 @@ public class PostsWidgetProvider extends AppWidgetProvider {
                 Timber.i("Widget updated %d", appWidgetId);
             }
         }
+        // posts are refreshed in the background, ensure the refresh is scheduled
+        WidgetRefreshScheduler.schedule(context, false);
     }
 
     @Override
@@ -117,12 +119,16 @@ public class PostsWidgetProvider extends AppWidgetProvider {
 
     @Override
     public void onEnabled(Context context) {
-        // Enter relevant functionality for when the first widget is created
+        // first widget created, so get posts
+        WidgetRefreshScheduler.schedule(context, false);
+        WidgetRefreshScheduler.refreshNow(context);
     }
 
     @Override
     public void onDisabled(Context context) {
-        // Enter relevant functionality for when the last widget is disabled
+        // last widget removed, so no need to refresh
+        WidgetRefreshScheduler.cancel(context);
+        WidgetSnapshot.clear(context);
     }
 
     @Override
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.widget;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.text.TextUtils;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ianbuttimer.tidderish.R;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Memory cache of the widget row thumbnails.<br>
+ * Thumbnails are downloaded at widget row size by {@link WidgetRefreshWorker} and stored with the
+ * {@link WidgetSnapshot}, which bounds the disk tier. This cache decodes them at row size for
+ * {@link android.widget.RemoteViews#setImageViewBitmap(int, Bitmap)}, and rejects any bitmap which
+ * would take a row over its share of the RemoteViews bitmap memory limit.<br>
+ * This class is a singleton.
+ */
+public class WidgetBitmapCache {
+
+    /** Maximum size of the cache in bytes */
+    private static final int MAX_SIZE = 1024 * 1024;
+    /** Maximum size of a single row bitmap in bytes; all rows parcelled to the launcher must fit
+        within the binder transaction limit */
+    private static final int MAX_BITMAP_SIZE = 64 * 1024;
+
+    private static WidgetBitmapCache sInstance = null;     // singleton instance
+
+    private final LruCache<String, Bitmap> mCache;
+
+    private final AtomicInteger mDecoded = new AtomicInteger();
+    private final AtomicInteger mRejected = new AtomicInteger();
+
+    /**
+     * Constructor
+     */
+    private WidgetBitmapCache() {
+        mCache = new LruCache<String, Bitmap>(MAX_SIZE) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getByteCount();
+            }
+        };
+    }
+
+    /**
+     * Get the cache
+     * @return  Cache reference
+     */
+    public static synchronized WidgetBitmapCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new WidgetBitmapCache();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Get the row thumbnail stored in a file, decoding it if not already cached.<br>
+     * <b>Note:</b> may perform disk access so should not be called on the main thread
+     * @param context   The current context
+     * @param path      Path of thumbnail file
+     * @return  Bitmap or <code>null</code> if not available
+     */
+    @Nullable
+    public Bitmap get(Context context, @Nullable String path) {
+        Bitmap bitmap = null;
+        if (!TextUtils.isEmpty(path)) {
+            bitmap = mCache.get(path);
+            if (bitmap == null) {
+                bitmap = decode(context, path);
+                if (bitmap != null) {
+                    mCache.put(path, bitmap);
+                }
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Decode a thumbnail file at row size
+     * @param context   The current context
+     * @param path      Path of thumbnail file
+     * @return  Bitmap or <code>null</code> if not available or too large
+     */
+    @Nullable
+    private Bitmap decode(Context context, String path) {
+        Bitmap bitmap = null;
+        if (new File(path).exists()) {
+            Resources resources = context.getResources();
+            int width = resources.getDimensionPixelSize(R.dimen.widget_img_thumbnail_width);
+            int height = resources.getDimensionPixelSize(R.dimen.widget_img_thumbnail_height);
+
+            // thumbnails are stored at row size, but the display density may have changed since
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeFile(path, options);
+            options.inSampleSize = 1;
+            while ((options.outWidth / (options.inSampleSize * 2) >= width) &&
+                    (options.outHeight / (options.inSampleSize * 2) >= height)) {
+                options.inSampleSize *= 2;
+            }
+            options.inJustDecodeBounds = false;
+            options.inPreferredConfig = Bitmap.Config.RGB_565;  // thumbnails are opaque
+
+            bitmap = BitmapFactory.decodeFile(path, options);
+            if (bitmap != null) {
+                mDecoded.incrementAndGet();
+                if (bitmap.getByteCount() > MAX_BITMAP_SIZE) {
+                    mRejected.incrementAndGet();
+                    bitmap = null;
+                }
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Trim the cache in response to a memory trim request
+     * @param level Trim level
+     * @see ComponentCallbacks2#onTrimMemory(int)
+     */
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            mCache.evictAll();
+        }
+    }
+
+    /**
+     * Remove all entries from the cache, e.g. when the snapshot is replaced
+     */
+    public void clear() {
+        mCache.evictAll();
+    }
+
+    /**
+     * Get a summary of the cache statistics
+     * @return  statistics
+     */
+    @NonNull
+    public String getStats() {
+        return "WidgetBitmapCache{" +
+                "size=" + mCache.size() +
+                ", hits=" + mCache.hitCount() +
+                ", misses=" + mCache.missCount() +
+                ", decoded=" + mDecoded.get() +
+                ", rejected=" + mRejected.get() +
+                '}';
+    }
+}
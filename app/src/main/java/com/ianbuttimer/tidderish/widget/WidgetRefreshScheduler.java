@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.widget;
+
+import android.content.Context;
+
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+
+import com.ianbuttimer.tidderish.utils.PreferenceControl;
+
+import java.util.concurrent.TimeUnit;
+
+import timber.log.Timber;
+
+/**
+ * Scheduler for the background refresh of the app widget snapshot.<br>
+ * Periodic refreshes run at the interval set in the preferences, only when the battery is not low
+ * and the required network is available.
+ */
+public class WidgetRefreshScheduler {
+
+    private static final String PERIODIC_WORK = "widget_refresh";
+    private static final String IMMEDIATE_WORK = "widget_refresh_now";
+
+    /**
+     * Constructor
+     */
+    private WidgetRefreshScheduler() {
+        // no op
+    }
+
+    /**
+     * Schedule the periodic refresh
+     * @param context   The current context
+     * @param replace   Replace any existing schedule, e.g. following a preference change
+     */
+    public static void schedule(Context context, boolean replace) {
+        int minutes = PreferenceControl.getWidgetRefreshPreference(context);
+        boolean unmetered = PreferenceControl.getWidgetUnmeteredPreference(context);
+
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(unmetered ? NetworkType.UNMETERED : NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request =
+                new PeriodicWorkRequest.Builder(WidgetRefreshWorker.class, minutes, TimeUnit.MINUTES)
+                        .setConstraints(constraints)
+                        .build();
+
+        WorkManager.getInstance(context.getApplicationContext())
+                .enqueueUniquePeriodicWork(PERIODIC_WORK,
+                        (replace ? ExistingPeriodicWorkPolicy.REPLACE : ExistingPeriodicWorkPolicy.KEEP),
+                        request);
+        Timber.i("Widget refresh every %dmin%s", minutes, (unmetered ? " unmetered" : ""));
+    }
+
+    /**
+     * Refresh as soon as a network is available, e.g. following a change to the followed subreddits
+     * @param context   The current context
+     */
+    public static void refreshNow(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(WidgetRefreshWorker.class)
+                .setConstraints(constraints)
+                .build();
+
+        WorkManager.getInstance(context.getApplicationContext())
+                .enqueueUniqueWork(IMMEDIATE_WORK, ExistingWorkPolicy.REPLACE, request);
+    }
+
+    /**
+     * Cancel all refreshes, e.g. when the last widget is removed
+     * @param context   The current context
+     */
+    public static void cancel(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context.getApplicationContext());
+        workManager.cancelUniqueWork(PERIODIC_WORK);
+        workManager.cancelUniqueWork(IMMEDIATE_WORK);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.widget;
+
+import android.appwidget.AppWidgetManager;
+import android.content.Context;
+import android.content.res.Resources;
+import android.database.Cursor;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.ianbuttimer.tidderish.R;
+import com.ianbuttimer.tidderish.data.Follow;
+import com.ianbuttimer.tidderish.data.FollowRepository;
+import com.ianbuttimer.tidderish.data.PostsCollector;
+import com.ianbuttimer.tidderish.data.db.FollowColumns;
+import com.ianbuttimer.tidderish.data.provider.ProviderUri;
+import com.ianbuttimer.tidderish.net.GlideApp;
+import com.ianbuttimer.tidderish.reddit.RedditClient;
+import com.ianbuttimer.tidderish.utils.PreferenceControl;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+
+import timber.log.Timber;
+
+import static com.ianbuttimer.tidderish.data.PostsWidgetViewsService.NAME_INDEX;
+import static com.ianbuttimer.tidderish.data.PostsWidgetViewsService.THUMBNAIL_FILE_INDEX;
+import static com.ianbuttimer.tidderish.data.PostsWidgetViewsService.THUMBNAIL_INDEX;
+import static com.ianbuttimer.tidderish.data.PostsWidgetViewsService.WIDGET_CURSOR_COLUMNS;
+
+/**
+ * Background job to refresh the app widget snapshot.<br>
+ * The latest posts of the followed subreddits are collected, their thumbnails downloaded at the
+ * size displayed by the widget, and the result persisted as a {@link WidgetSnapshot}. The widgets
+ * are then notified so they redisplay from the new snapshot.
+ */
+public class WidgetRefreshWorker extends Worker {
+
+    /** Quality for compressing thumbnails */
+    private static final int THUMBNAIL_QUALITY = 85;
+
+    public WidgetRefreshWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        Result result = Result.success();
+
+        if (RedditClient.getClient().isAuthorised()) {
+            ArrayList<String> subreddits = getFollowing(context);
+            if (subreddits != null) {
+                WidgetSnapshot snapshot = new WidgetSnapshot();
+                if (!subreddits.isEmpty()) {
+                    Cursor cursor = new PostsCollector(context, subreddits,
+                            PreferenceControl.getPostSourcePreference(context))
+                            .getPosts();
+                    while (cursor.moveToNext()) {
+                        String[] row = new String[WIDGET_CURSOR_COLUMNS.length];
+                        for (int i = 0; i < row.length; i++) {
+                            row[i] = cursor.getString(i);
+                        }
+                        row[THUMBNAIL_FILE_INDEX] = downloadThumbnail(context, row[NAME_INDEX], row[THUMBNAIL_INDEX]);
+                        snapshot.addRow(row);
+                    }
+                    cursor.close();
+                }
+
+                if ((snapshot.getCount() == 0) && !subreddits.isEmpty()) {
+                    // no posts at all is most likely a network problem, so keep the previous snapshot
+                    result = Result.retry();
+                } else if (!snapshot.write(context, THUMBNAIL_FILE_INDEX)) {
+                    result = Result.retry();
+                }
+                Timber.i("Widget snapshot %d posts", snapshot.getCount());
+            } else {
+                result = Result.retry();
+            }
+        } else {
+            WidgetSnapshot.clear(context);
+        }
+
+        if (result instanceof Result.Success) {
+            PostsWidgetProvider.notifyAppWidgetViewDataChanged(
+                    AppWidgetManager.getInstance(context),
+                    PostsWidgetProvider.getAppWidgetIds(context));
+        }
+        return result;
+    }
+
+    /**
+     * Get the followed subreddits
+     * @param context   The current context
+     * @return  list of subreddits or <code>null</code> if unable to query
+     */
+    @Nullable
+    private ArrayList<String> getFollowing(Context context) {
+        ArrayList<String> subreddits = null;
+        ArrayList<Follow> following = FollowRepository.getInstance().getFollowing();
+        if (following != null) {
+            subreddits = new ArrayList<>(following.size());
+            for (Follow follow : following) {
+                subreddits.add(follow.getSubreddit());
+            }
+        } else {
+            Cursor cursor = context.getContentResolver()
+                    .query(ProviderUri.FOLLOW_CONTENT_URI, null, null, null, null);
+            if (cursor != null) {
+                subreddits = new ArrayList<>(cursor.getCount());
+                int index = cursor.getColumnIndex(FollowColumns.SUBREDDIT);
+                while (cursor.moveToNext()) {
+                    subreddits.add(cursor.getString(index));
+                }
+                cursor.close();
+            }
+        }
+        return subreddits;
+    }
+
+    /**
+     * Download a thumbnail, downsampled to the size displayed by the widget
+     * @param context   The current context
+     * @param name      Fullname of post
+     * @param thumbnail Thumbnail url
+     * @return  Path of downloaded file or empty string if not available
+     */
+    private String downloadThumbnail(Context context, String name, String thumbnail) {
+        String path = "";
+        File file = WidgetSnapshot.getThumbnailFile(context, name);
+        if (!TextUtils.isEmpty(thumbnail) && (file != null)) {
+            if (file.exists()) {
+                path = file.getAbsolutePath();  // thumbnails don't change
+            } else {
+                Resources resources = context.getResources();
+                int width = resources.getDimensionPixelSize(R.dimen.widget_img_thumbnail_width);
+                int height = resources.getDimensionPixelSize(R.dimen.widget_img_thumbnail_height);
+                OutputStream out = null;
+                try {
+                    Bitmap bitmap = GlideApp.with(context)
+                            .asBitmap()
+                            .centerCrop()
+                            .load(Uri.parse(thumbnail))  // unescaped by the selector
+                            .submit(width, height)
+                            .get();
+                    out = new BufferedOutputStream(new FileOutputStream(file));
+                    if (bitmap.compress(Bitmap.CompressFormat.JPEG, THUMBNAIL_QUALITY, out)) {
+                        path = file.getAbsolutePath();
+                    }
+                } catch (ExecutionException | IOException e) {
+                    Timber.w(e, "Unable to download widget thumbnail %s", thumbnail);
+                } catch (InterruptedException e) {
+                    Timber.w(e);
+                    Thread.currentThread().interrupt();
+                } finally {
+                    if (out != null) {
+                        try {
+                            out.close();
+                        } catch (IOException e) {
+                            Timber.w(e);
+                        }
+                    }
+                }
+                if (TextUtils.isEmpty(path)) {
+                    //noinspection ResultOfMethodCallIgnored
+                    file.delete();
+                }
+            }
+        }
+        return path;
+    }
+}
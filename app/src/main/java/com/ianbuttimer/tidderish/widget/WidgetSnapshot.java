@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2018  Ian Buttimer
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ianbuttimer.tidderish.widget;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import timber.log.Timber;
+
+import static com.ianbuttimer.tidderish.data.PostsWidgetViewsService.WIDGET_CURSOR_COLUMNS;
+
+/**
+ * Persisted snapshot of the posts displayed by the app widget.<br>
+ * The snapshot is refreshed in the background by {@link WidgetRefreshWorker}, so the widget only
+ * needs to read it when the launcher asks for data. Downsampled thumbnails are stored alongside
+ * the snapshot, and only those referenced by the current snapshot are kept.
+ */
+public class WidgetSnapshot {
+
+    private static final String DIRECTORY = "widget";
+    private static final String SNAPSHOT_FILE = "snapshot";
+    private static final String THUMBNAIL_PREFIX = "thumb_";
+    private static final String TMP_EXT = ".tmp";
+    private static final int MAGIC = 0x54445753;    // "TDWS"
+
+    private final ArrayList<String[]> mRows;
+    private long mTimestamp;
+
+    /**
+     * Constructor
+     */
+    public WidgetSnapshot() {
+        mRows = new ArrayList<>();
+        mTimestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Add a row
+     * @param row   Row values in {@link com.ianbuttimer.tidderish.data.PostsWidgetViewsService#WIDGET_CURSOR_COLUMNS} order
+     */
+    public void addRow(String[] row) {
+        mRows.add(row);
+    }
+
+    public int getCount() {
+        return mRows.size();
+    }
+
+    /**
+     * Get the time the snapshot was taken
+     * @return  time in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return mTimestamp;
+    }
+
+    /**
+     * Get a cursor of the snapshot rows
+     * @return  cursor
+     */
+    @NonNull
+    public Cursor toCursor() {
+        MatrixCursor cursor = new MatrixCursor(WIDGET_CURSOR_COLUMNS, mRows.size());
+        for (String[] row : mRows) {
+            cursor.addRow(row);
+        }
+        return cursor;
+    }
+
+    /**
+     * Get the snapshot directory
+     * @param context   The current context
+     * @return  directory or <code>null</code> if not available
+     */
+    @Nullable
+    public static File getDirectory(Context context) {
+        File directory = new File(context.getFilesDir(), DIRECTORY);
+        if (!directory.exists() && !directory.mkdirs()) {
+            Timber.w("Unable to create widget snapshot directory");
+            directory = null;
+        }
+        return directory;
+    }
+
+    /**
+     * Get the file to store the thumbnail for a post in
+     * @param context   The current context
+     * @param name      Fullname of post
+     * @return  file or <code>null</code> if not available
+     */
+    @Nullable
+    public static File getThumbnailFile(Context context, String name) {
+        File directory = getDirectory(context);
+        File file = null;
+        if (directory != null) {
+            // fullnames are alphanumeric plus '_' so are safe as file names
+            file = new File(directory, THUMBNAIL_PREFIX + name);
+        }
+        return file;
+    }
+
+    /**
+     * Read the persisted snapshot
+     * @param context   The current context
+     * @return  snapshot or <code>null</code> if there is no valid snapshot
+     */
+    @Nullable
+    public static WidgetSnapshot read(Context context) {
+        WidgetSnapshot snapshot = null;
+        File directory = getDirectory(context);
+        if (directory != null) {
+            File file = new File(directory, SNAPSHOT_FILE);
+            if (file.exists()) {
+                DataInputStream in = null;
+                try {
+                    in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                    if ((in.readInt() == MAGIC) && (in.readInt() == WIDGET_CURSOR_COLUMNS.length)) {
+                        WidgetSnapshot read = new WidgetSnapshot();
+                        read.mTimestamp = in.readLong();
+                        int count = in.readInt();
+                        for (int i = 0; i < count; i++) {
+                            String[] row = new String[WIDGET_CURSOR_COLUMNS.length];
+                            for (int j = 0; j < row.length; j++) {
+                                row[j] = in.readUTF();
+                            }
+                            read.addRow(row);
+                        }
+                        snapshot = read;
+                    }
+                } catch (IOException e) {
+                    Timber.w(e, "Unable to read widget snapshot");
+                } finally {
+                    close(in);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Persist this snapshot, replacing any existing snapshot, and delete any thumbnails it does
+     * not reference
+     * @param context   The current context
+     * @param thumbnailIndex    Index of the thumbnail file column
+     * @return  <code>true</code> if successfully written
+     */
+    public boolean write(Context context, int thumbnailIndex) {
+        boolean written = false;
+        File directory = getDirectory(context);
+        if (directory != null) {
+            File file = new File(directory, SNAPSHOT_FILE);
+            File tmp = new File(directory, SNAPSHOT_FILE + TMP_EXT);
+            DataOutputStream out = null;
+            try {
+                out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+                out.writeInt(MAGIC);
+                out.writeInt(WIDGET_CURSOR_COLUMNS.length);
+                out.writeLong(mTimestamp);
+                out.writeInt(mRows.size());
+                for (String[] row : mRows) {
+                    for (String value : row) {
+                        out.writeUTF(value != null ? value : "");
+                    }
+                }
+                out.close();
+                out = null;
+
+                written = tmp.renameTo(file);
+            } catch (IOException e) {
+                Timber.w(e, "Unable to write widget snapshot");
+            } finally {
+                close(out);
+                if (!written) {
+                    //noinspection ResultOfMethodCallIgnored
+                    tmp.delete();
+                }
+            }
+
+            if (written) {
+                // remove thumbnails of posts no longer in the snapshot
+                HashSet<String> keep = new HashSet<>();
+                for (String[] row : mRows) {
+                    keep.add(new File(row[thumbnailIndex]).getName());
+                }
+                File[] files = directory.listFiles();
+                if (files != null) {
+                    for (File thumbnail : files) {
+                        if (thumbnail.getName().startsWith(THUMBNAIL_PREFIX) &&
+                                !keep.contains(thumbnail.getName())) {
+                            //noinspection ResultOfMethodCallIgnored
+                            thumbnail.delete();
+                        }
+                    }
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Delete the persisted snapshot and thumbnails
+     * @param context   The current context
+     */
+    public static void clear(Context context) {
+        File directory = getDirectory(context);
+        if (directory != null) {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    //noinspection ResultOfMethodCallIgnored
+                    file.delete();
+                }
+            }
+        }
+        WidgetBitmapCache.getInstance().clear();
+    }
+
+    private static void close(@Nullable Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                Timber.w(e);
+            }
+        }
+    }
+}